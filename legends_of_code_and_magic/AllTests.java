@@ -0,0 +1,19 @@
+import java.io.*;
+import java.util.*;
+
+// Runs the main method of every *Test class next to this one, so the build needs one entry for all tests.
+// Run with -ea, the tests are assert based. Stops at the first failing test.
+public class AllTests {
+    public static void main(String[] args) throws Exception {
+        String prefix = AllTests.class.getPackageName().isEmpty() ? "" : AllTests.class.getPackageName() + ".";
+        File directory = new File(AllTests.class.getResource("AllTests.class").toURI()).getParentFile();
+        String[] names = directory.list((dir, name) -> name.endsWith("Test.class") && !name.contains("$"));
+        Arrays.sort(names);
+        for (String name : names) {
+            String test = prefix + name.substring(0, name.length() - ".class".length());
+            long start = System.nanoTime();
+            Class.forName(test).getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            System.out.println(String.format("%s passed in %.1f s", test, (System.nanoTime() - start) / 1e9));
+        }
+    }
+}
@@ -0,0 +1,301 @@
+import java.util.*;
+
+// Exhaustive attack planner. Attacks on different enemy creatures do not interact except through guard
+// legality and the total face damage, so the search is split in two:
+//  1. for every enemy creature, every ordered sequence of our attackers against it is simulated (a
+//     sequence ends when the creature dies) and the best line is memoized per attacker subset;
+//  2. the per-creature tables are combined by a DP over disjoint attacker subsets, with every leftover
+//     attacker sent face once no guard remains. Guards must all die before anything else is attacked.
+// A second DP maximises face damage so a lethal line always wins over a better-looking board.
+class AttackOptimizer {
+    static final int MAX_ATTACKERS = PackedState.BOARD_SIZE;
+    static final int SUBSETS = 1 << MAX_ATTACKERS;
+    static final double NONE = Double.NEGATIVE_INFINITY;
+
+    // Attackers and targets of the current call
+    private final int[] attackerId = new int[MAX_ATTACKERS];
+    private final int[] attackerAttack = new int[MAX_ATTACKERS];
+    private final int[] attackerDefense = new int[MAX_ATTACKERS];
+    private final int[] attackerAbilities = new int[MAX_ATTACKERS];
+    private final double[] faceValue = new double[SUBSETS];
+    private final int[] faceDamage = new int[SUBSETS];
+    private final int[] targetId = new int[PackedState.BOARD_SIZE];
+    private final boolean[] targetGuard = new boolean[PackedState.BOARD_SIZE];
+    private int attackers;
+    private int targets;
+
+    // Per target and attacker subset: best value and best breakthrough damage, over any order and over
+    // orders that kill the target, with the order that achieves it packed 3 bits per attacker
+    private final double[][] bestValue = new double[PackedState.BOARD_SIZE][SUBSETS];
+    private final double[][] killValue = new double[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] bestDamage = new int[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] killDamage = new int[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] bestValueOrder = new int[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] killValueOrder = new int[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] bestDamageOrder = new int[PackedState.BOARD_SIZE][SUBSETS];
+    private final int[][] killDamageOrder = new int[PackedState.BOARD_SIZE][SUBSETS];
+
+    // Combination DP, layer j holds the best use of the first j targets per attacker subset
+    private final double[][] dp = new double[PackedState.BOARD_SIZE + 1][SUBSETS];
+    private final int[][] dpChoice = new int[PackedState.BOARD_SIZE + 1][SUBSETS];
+    private final int[] targetOrder = new int[PackedState.BOARD_SIZE];
+
+    private final PackedState replay = new PackedState();
+    private double bestScore;
+    int sequences;
+
+    public ArrayList<AttackAction> optimize(PackedState state) {
+        load(state);
+        sequences = 0;
+        for (int j = 0; j < targets; j++) {
+            Arrays.fill(bestValue[j], NONE);
+            Arrays.fill(killValue[j], NONE);
+            Arrays.fill(bestDamage[j], -1);
+            Arrays.fill(killDamage[j], -1);
+            int t = PackedState.boardStart(1) + j;
+            simulateSequences(j, 0, 0, 0, state.attack[t], state.defense[t], state.abilities[t],
+                    BoardEvaluator.creatureValue(state.attack[t], state.defense[t], state.abilities[t]), 0, 0, 0);
+        }
+
+        boolean guarded = BattleSimulator.hasGuard(state, 1);
+        ArrayList<AttackAction> bestLine = new ArrayList<>();
+        bestScore = BoardEvaluator.evaluate(state);
+
+        // Lethal first: most face damage with every guard dead
+        ArrayList<AttackAction> lethal = combine(true, true);
+        if (lethal != null && score(state, lethal) >= BoardEvaluator.WIN) {
+            bestScore = BoardEvaluator.WIN;
+            return lethal;
+        }
+        ArrayList<AttackAction> clearing = combine(true, false);
+        if (clearing != null && score(state, clearing) > bestScore) {
+            bestScore = score(state, clearing);
+            bestLine = clearing;
+        }
+        if (guarded) {
+            ArrayList<AttackAction> guardsOnly = combine(false, false);
+            if (guardsOnly != null && score(state, guardsOnly) > bestScore) {
+                bestScore = score(state, guardsOnly);
+                bestLine = guardsOnly;
+            }
+        }
+        return bestLine;
+    }
+
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    private void load(PackedState state) {
+        attackers = 0;
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            if (state.canAttack[i] && state.attack[i] > 0) { // a 0 attack creature can only lose by attacking
+                attackerId[attackers] = state.instanceId[i];
+                attackerAttack[attackers] = state.attack[i];
+                attackerDefense[attackers] = state.defense[i];
+                attackerAbilities[attackers] = state.abilities[i];
+                attackers++;
+            }
+        }
+        targets = state.boardCount[1];
+        for (int j = 0; j < targets; j++) {
+            int t = PackedState.boardStart(1) + j;
+            targetId[j] = state.instanceId[t];
+            targetGuard[j] = state.hasAbility(t, CardAbility.GUARD);
+        }
+        for (int subset = 0; subset < 1 << attackers; subset++) {
+            double value = 0;
+            int damage = 0;
+            for (int i = 0; i < attackers; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    boolean drain = (attackerAbilities[i] & CardAbility.DRAIN.mask()) != 0;
+                    value += BoardEvaluator.HEALTH_WEIGHT * attackerAttack[i] * (drain ? 2 : 1);
+                    damage += attackerAttack[i];
+                }
+            }
+            faceValue[subset] = value;
+            faceDamage[subset] = damage;
+        }
+    }
+
+    // Extends every attack order on target j by one more attacker, recording each prefix under its subset
+    private void simulateSequences(int j, int used, int order, int length, int tAttack, int tDefense,
+            int tAbilities, double tValue, double ownDelta, int breakthrough, int healed) {
+        for (int i = 0; i < attackers; i++) {
+            if ((used & (1 << i)) != 0) {
+                continue;
+            }
+            sequences++;
+            int power = attackerAttack[i];
+            int defense = tDefense;
+            int abilities = tAbilities;
+            int dealt = 0;
+            if ((abilities & CardAbility.WARD.mask()) != 0) {
+                abilities &= ~CardAbility.WARD.mask();
+            } else {
+                dealt = power;
+                defense = (attackerAbilities[i] & CardAbility.LETHAL.mask()) != 0 ? 0 : defense - power;
+            }
+
+            int ownDefense = attackerDefense[i];
+            int ownAbilities = attackerAbilities[i];
+            if (tAttack > 0) {
+                if ((ownAbilities & CardAbility.WARD.mask()) != 0) {
+                    ownAbilities &= ~CardAbility.WARD.mask();
+                } else {
+                    ownDefense = (tAbilities & CardAbility.LETHAL.mask()) != 0 ? 0 : ownDefense - tAttack;
+                }
+            }
+            double before = BoardEvaluator.creatureValue(power, attackerDefense[i], attackerAbilities[i]);
+            double after = ownDefense > 0 ? BoardEvaluator.creatureValue(power, ownDefense, ownAbilities) : 0;
+            double delta = ownDelta + after - before;
+
+            int damage = breakthrough;
+            int heal = healed;
+            if (dealt > 0 && (attackerAbilities[i] & CardAbility.BREAKTHROUGH.mask()) != 0 && power > tDefense) {
+                damage += power - tDefense;
+            }
+            if (dealt > 0 && (attackerAbilities[i] & CardAbility.DRAIN.mask()) != 0) {
+                heal += dealt;
+            }
+
+            boolean dead = defense <= 0;
+            double remaining = dead ? 0 : BoardEvaluator.creatureValue(tAttack, defense, abilities);
+            int subset = used | (1 << i);
+            int nextOrder = order | i << (3 * length);
+            double value = BoardEvaluator.BOARD_WEIGHT * (tValue - remaining + delta)
+                    + BoardEvaluator.HEALTH_WEIGHT * (damage + heal);
+            record(j, subset, nextOrder | (length + 1) << 24, value, damage, dead);
+            if (!dead) {
+                simulateSequences(j, subset, nextOrder, length + 1, tAttack, defense, abilities, tValue, delta,
+                        damage, heal);
+            }
+        }
+    }
+
+    private void record(int j, int subset, int order, double value, int damage, boolean dead) {
+        if (value > bestValue[j][subset]) {
+            bestValue[j][subset] = value;
+            bestValueOrder[j][subset] = order;
+        }
+        if (damage > bestDamage[j][subset]) {
+            bestDamage[j][subset] = damage;
+            bestDamageOrder[j][subset] = order;
+        }
+        if (dead && value > killValue[j][subset]) {
+            killValue[j][subset] = value;
+            killValueOrder[j][subset] = order;
+        }
+        if (dead && damage > killDamage[j][subset]) {
+            killDamage[j][subset] = damage;
+            killDamageOrder[j][subset] = order;
+        }
+    }
+
+    // Best split of the attackers over the targets. With killGuards every guard must die and the leftover
+    // attackers go face; without it only guards are attacked. maximiseDamage ranks lines by face damage.
+    private ArrayList<AttackAction> combine(boolean killGuards, boolean maximiseDamage) {
+        int all = (1 << attackers) - 1;
+        Arrays.fill(dp[0], NONE);
+        dp[0][0] = 0;
+        int layer = 0;
+        // Guards first so the line is legal when replayed in layer order
+        for (int pass = 0; pass < 2; pass++) {
+            for (int j = 0; j < targets; j++) {
+                if (targetGuard[j] != (pass == 0) || (!killGuards && !targetGuard[j])) {
+                    continue;
+                }
+                boolean mustKill = killGuards && targetGuard[j];
+                targetOrder[layer] = j;
+                double[] from = dp[layer];
+                double[] to = dp[layer + 1];
+                int[] choice = dpChoice[layer + 1];
+                Arrays.fill(to, NONE);
+                for (int subset = 0; subset <= all; subset++) {
+                    if (from[subset] == NONE) {
+                        continue;
+                    }
+                    if (!mustKill && from[subset] > to[subset]) {
+                        to[subset] = from[subset];
+                        choice[subset] = 0;
+                    }
+                    int free = all & ~subset;
+                    for (int add = free; add != 0; add = (add - 1) & free) {
+                        double gain = gain(j, add, mustKill, maximiseDamage);
+                        if (gain == NONE) {
+                            continue;
+                        }
+                        double total = from[subset] + gain;
+                        if (total > to[subset | add]) {
+                            to[subset | add] = total;
+                            choice[subset | add] = add;
+                        }
+                    }
+                }
+                layer++;
+            }
+        }
+
+        int bestSubset = -1;
+        double best = NONE;
+        for (int subset = 0; subset <= all; subset++) {
+            if (dp[layer][subset] == NONE) {
+                continue;
+            }
+            int rest = all & ~subset;
+            double total = dp[layer][subset] + (killGuards ? (maximiseDamage ? faceDamage[rest] : faceValue[rest]) : 0);
+            if (total > best) {
+                best = total;
+                bestSubset = subset;
+            }
+        }
+        if (bestSubset < 0) {
+            return null;
+        }
+
+        int[] groups = new int[layer];
+        for (int l = layer, subset = bestSubset; l > 0; l--) {
+            groups[l - 1] = dpChoice[l][subset];
+            subset &= ~groups[l - 1];
+        }
+        ArrayList<AttackAction> line = new ArrayList<>();
+        for (int l = 0; l < layer; l++) {
+            if (groups[l] == 0) {
+                continue;
+            }
+            int j = targetOrder[l];
+            boolean mustKill = killGuards && targetGuard[j];
+            int order = maximiseDamage
+                    ? (mustKill ? killDamageOrder : bestDamageOrder)[j][groups[l]]
+                    : (mustKill ? killValueOrder : bestValueOrder)[j][groups[l]];
+            for (int k = 0, length = order >>> 24; k < length; k++) {
+                line.add(new AttackAction(attackerId[(order >>> (3 * k)) & 7], targetId[j]));
+            }
+        }
+        if (killGuards) {
+            for (int i = 0; i < attackers; i++) {
+                if ((bestSubset & (1 << i)) == 0) {
+                    line.add(new AttackAction(attackerId[i], -1));
+                }
+            }
+        }
+        return line;
+    }
+
+    private double gain(int j, int subset, boolean mustKill, boolean maximiseDamage) {
+        if (maximiseDamage) {
+            int damage = mustKill ? killDamage[j][subset] : bestDamage[j][subset];
+            return damage < 0 ? NONE : damage;
+        }
+        return mustKill ? killValue[j][subset] : bestValue[j][subset];
+    }
+
+    // Exact score of a line, replayed through BattleSimulator
+    private double score(PackedState state, ArrayList<AttackAction> line) {
+        state.copyInto(replay);
+        for (AttackAction attack : line) {
+            BattleSimulator.attack(replay, attack.getAttackerId(), attack.getTargetId());
+        }
+        return BoardEvaluator.evaluate(replay);
+    }
+}
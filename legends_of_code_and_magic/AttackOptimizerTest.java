@@ -0,0 +1,93 @@
+import java.util.*;
+
+public class AttackOptimizerTest {
+    public static void main(String[] args) {
+        AttackOptimizerTest test = new AttackOptimizerTest();
+        test.testMatchesBruteForce();
+        test.testFindsLethalThroughGuard();
+        test.testUsesWeakAttackerToBreakWard();
+    }
+
+    static Card creature(int instanceId, int attack, int defense, String abilities) {
+        return new Card(1, instanceId, CardType.CREATURE, 0, 1, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState state(int opponentHealth) {
+        PackedState state = new PackedState();
+        state.health[0] = 20;
+        state.health[1] = opponentHealth;
+        return state; // runes at 0 so the score has no rune draw steps
+    }
+
+    // Every legal attack sequence through BattleSimulator
+    static double bruteForce(PackedState state) {
+        double best = BoardEvaluator.evaluate(state);
+        if (best >= BoardEvaluator.WIN) {
+            return best;
+        }
+        for (int a = 0; a < state.boardCount[0]; a++) {
+            if (!state.canAttack[a]) {
+                continue;
+            }
+            for (int t = -1; t < state.boardCount[1]; t++) {
+                PackedState next = state.copy();
+                int targetId = t < 0 ? -1 : state.instanceId[PackedState.boardStart(1) + t];
+                if (BattleSimulator.attack(next, state.instanceId[a], targetId)) {
+                    best = Math.max(best, bruteForce(next));
+                }
+            }
+        }
+        return best;
+    }
+
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        String[] abilities = { "------", "B-----", "---G--", "----L-", "-----W", "--D---", "B--G-W", "---GL-" };
+        AttackOptimizer optimizer = new AttackOptimizer();
+        for (int round = 0; round < 300; round++) {
+            PackedState state = state(5 + random.nextInt(20));
+            int id = 1;
+            for (int i = 1 + random.nextInt(4); i > 0; i--) {
+                state.canAttack[state.addToBoard(0, creature(id++, random.nextInt(7), 1 + random.nextInt(7),
+                        abilities[random.nextInt(abilities.length)]))] = true;
+            }
+            for (int i = random.nextInt(4); i > 0; i--) {
+                state.addToBoard(1, creature(id++, random.nextInt(7), 1 + random.nextInt(7),
+                        abilities[random.nextInt(abilities.length)]));
+            }
+
+            double expected = bruteForce(state);
+            ArrayList<AttackAction> line = optimizer.optimize(state);
+            PackedState replay = state.copy();
+            for (AttackAction attack : line) {
+                assert BattleSimulator.attack(replay, attack.getAttackerId(), attack.getTargetId())
+                        : "Optimizer line should be legal: " + line;
+            }
+            double actual = BoardEvaluator.evaluate(replay);
+            assert Math.abs(actual - expected) < 1e-9
+                    : "Round " + round + ": optimizer scored " + actual + ", brute force " + expected + " " + line;
+        }
+    }
+
+    public void testFindsLethalThroughGuard() {
+        PackedState state = state(6);
+        state.canAttack[state.addToBoard(0, creature(1, 2, 1, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 3, 1, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(3, 3, 1, "------"))] = true;
+        state.addToBoard(1, creature(4, 9, 2, "---G--"));
+
+        ArrayList<AttackAction> line = new AttackOptimizer().optimize(state);
+        assert line.size() == 3 : "All three should attack. Got " + line;
+        assert line.get(0).toString().equals("ATTACK 1 4") : "Weakest attacker should clear the guard. Got " + line;
+    }
+
+    public void testUsesWeakAttackerToBreakWard() {
+        PackedState state = state(30);
+        state.canAttack[state.addToBoard(0, creature(1, 1, 1, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 8, 8, "------"))] = true;
+        state.addToBoard(1, creature(3, 0, 8, "---G-W"));
+
+        ArrayList<AttackAction> line = new AttackOptimizer().optimize(state);
+        assert line.toString().equals("[ATTACK 1 3, ATTACK 2 3]") : "Break ward then kill. Got " + line;
+    }
+}
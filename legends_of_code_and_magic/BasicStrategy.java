@@ -0,0 +1,48 @@
+import java.util.*;
+
+class BasicStrategy implements Strategy {
+    ArrayList<AttackAction> attackActions = new ArrayList<>();
+    ArrayList<SummonAction> summonActions = new ArrayList<>();
+
+    public Action chooseDrafts(GameState gameState) {
+        // Just pick first one
+        return new PassAction();
+    }
+
+    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        summonActions = new ArrayList<>();
+        // Summon greedily
+        if (gameState.playerBoard.size() != 6) {
+            for (int i = 0; i < gameState.playerHand.size(); i++) {
+                Card card = gameState.playerHand.getCard(i);
+
+                if (card.cost <= gameState.getPlayerMana()) {
+                    gameState.setPlayerMana(gameState.getPlayerMana() - card.cost);
+                    summonActions.add(new SummonAction(card.instanceId));
+                }
+            }
+        }
+
+        return summonActions;
+    }
+
+    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        attackActions = new ArrayList<>();
+        // By default attack face
+        // Attack guards first strategy
+        int targetId = gameState.opponentGuardCard()
+                .map(target -> target.instanceId)
+                .orElse(-1);
+
+        for (int i = 0; i < gameState.playerBoard.size(); i++) {
+            Card card = gameState.getPlayerBoardCard(i);
+            attackActions.add(new AttackAction(card.instanceId, targetId));
+        }
+
+        return attackActions;
+    }
+
+    public double getCardScore(Card card) {
+        return card.attack + card.defense;
+    }
+}
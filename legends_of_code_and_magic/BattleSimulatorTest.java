@@ -0,0 +1,132 @@
+import java.util.*;
+
+public class BattleSimulatorTest {
+    public static void main(String[] args) {
+        BattleSimulatorTest test = new BattleSimulatorTest();
+        test.testSummonSpendsManaAndRespectsBoardLimit();
+        test.testChargeCanAttackImmediately();
+        test.testGuardMustBeAttackedFirst();
+        test.testWardAbsorbsOneHit();
+        test.testLethalBreakthroughAndDrain();
+        test.testItems();
+        test.testRunesGiveExtraDraws();
+    }
+
+    static Card creature(int instanceId, int cost, int attack, int defense, String abilities) {
+        return new Card(0, instanceId, CardType.CREATURE, 0, cost, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState emptyState(int mana) {
+        PackedState state = new PackedState();
+        state.health[0] = 30;
+        state.health[1] = 30;
+        state.rune[0] = 25;
+        state.rune[1] = 25;
+        state.mana[0] = mana;
+        return state;
+    }
+
+    public void testSummonSpendsManaAndRespectsBoardLimit() {
+        PackedState state = emptyState(3);
+        state.addToHand(creature(1, 2, 2, 2, "------"));
+        state.addToHand(creature(2, 2, 2, 2, "------"));
+
+        assert BattleSimulator.summon(state, 1) : "Summon with enough mana should succeed";
+        assert state.mana[0] == 1 : "Mana should be 1. Got " + state.mana[0];
+        assert state.boardCount[0] == 1 && state.handCount == 1 : "Card should move from hand to board";
+        assert !state.canAttack[state.findSlot(1)] : "Summoned creature without charge cannot attack";
+        assert !BattleSimulator.summon(state, 2) : "Summon without enough mana should fail";
+
+        state = emptyState(12);
+        for (int i = 0; i < 6; i++) {
+            state.addToBoard(0, creature(10 + i, 1, 1, 1, "------"));
+        }
+        state.addToHand(creature(1, 1, 1, 1, "------"));
+        assert !BattleSimulator.summon(state, 1) : "Summon onto a full board should fail";
+    }
+
+    public void testChargeCanAttackImmediately() {
+        PackedState state = emptyState(5);
+        state.addToHand(creature(1, 3, 4, 2, "-C----"));
+        BattleSimulator.summon(state, 1);
+
+        assert BattleSimulator.attack(state, 1, -1) : "Charge creature should attack the turn it is summoned";
+        assert state.health[1] == 26 : "Opponent health should be 26. Got " + state.health[1];
+        assert !BattleSimulator.attack(state, 1, -1) : "Creature can only attack once per turn";
+    }
+
+    public void testGuardMustBeAttackedFirst() {
+        PackedState state = emptyState(0);
+        state.canAttack[state.addToBoard(0, creature(1, 1, 3, 3, "------"))] = true;
+        state.addToBoard(1, creature(2, 1, 1, 1, "------"));
+        state.addToBoard(1, creature(3, 1, 1, 5, "---G--"));
+
+        assert !BattleSimulator.attack(state, 1, -1) : "Cannot attack face past a guard";
+        assert !BattleSimulator.attack(state, 1, 2) : "Cannot attack a non-guard past a guard";
+        assert BattleSimulator.attack(state, 1, 3) : "Attacking the guard should succeed";
+        assert state.defense[state.findSlot(3)] == 2 : "Guard should have 2 defense left";
+        assert state.defense[state.findSlot(1)] == 2 : "Attacker should take 1 counter damage";
+    }
+
+    public void testWardAbsorbsOneHit() {
+        PackedState state = emptyState(0);
+        state.canAttack[state.addToBoard(0, creature(1, 1, 3, 3, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 1, 3, 3, "------"))] = true;
+        state.addToBoard(1, creature(3, 1, 0, 2, "-----W"));
+
+        BattleSimulator.attack(state, 1, 3);
+        assert state.defense[state.findSlot(3)] == 2 : "Ward should absorb the first hit";
+        assert !state.hasAbility(state.findSlot(3), CardAbility.WARD) : "Ward should be removed";
+        BattleSimulator.attack(state, 2, 3);
+        assert state.findSlot(3) == -1 : "Second hit should kill the creature";
+    }
+
+    public void testLethalBreakthroughAndDrain() {
+        PackedState state = emptyState(0);
+        state.canAttack[state.addToBoard(0, creature(1, 1, 1, 1, "----L-"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 1, 6, 9, "B--D--"))] = true;
+        state.addToBoard(1, creature(3, 1, 0, 8, "------"));
+        state.addToBoard(1, creature(4, 1, 0, 2, "------"));
+        state.health[0] = 20;
+        state.rune[0] = 20;
+
+        BattleSimulator.attack(state, 1, 3);
+        assert state.findSlot(3) == -1 : "Lethal should kill any creature it damages";
+        BattleSimulator.attack(state, 2, 4);
+        assert state.health[1] == 26 : "Breakthrough should deal 4 excess damage. Got " + state.health[1];
+        assert state.health[0] == 26 : "Drain should heal for the 6 damage dealt. Got " + state.health[0];
+    }
+
+    public void testItems() {
+        PackedState state = emptyState(10);
+        state.addToBoard(0, creature(1, 1, 1, 1, "------"));
+        state.addToBoard(1, creature(2, 1, 2, 3, "---G-W"));
+        state.addToHand(new Card(0, 10, CardType.GREEN_ITEM, 0, 2, 1, 2, "B-----", 0, 0, 1));
+        state.addToHand(new Card(0, 11, CardType.RED_ITEM, 0, 3, -1, -3, "BCDGLW", 0, 0, 0));
+        state.addToHand(new Card(0, 12, CardType.BLUE_ITEM, 0, 2, 0, -3, "------", 1, 0, 0));
+
+        assert !BattleSimulator.use(state, 10, 2) : "Green items target own creatures only";
+        assert BattleSimulator.use(state, 10, 1) : "Green item on own creature should succeed";
+        int slot = state.findSlot(1);
+        assert state.attack[slot] == 2 && state.defense[slot] == 3 : "Green item should buff the creature";
+        assert state.hasAbility(slot, CardAbility.BREAKTHROUGH) : "Green item should grant its abilities";
+        assert state.draw[0] == 1 : "Item card draw should be added to next turn's draw";
+
+        assert BattleSimulator.use(state, 11, 2) : "Red item on opponent creature should succeed";
+        assert state.findSlot(2) == -1 : "Red item should strip ward and then kill the creature";
+
+        assert BattleSimulator.use(state, 12, -1) : "Blue item can target the opponent";
+        assert state.health[1] == 27 && state.health[0] == 31 : "Blue item should hit face and heal";
+        assert state.mana[0] == 3 : "Items should cost mana. Got " + state.mana[0];
+    }
+
+    public void testRunesGiveExtraDraws() {
+        PackedState state = emptyState(0);
+        state.canAttack[state.addToBoard(0, creature(1, 1, 11, 1, "------"))] = true;
+
+        BattleSimulator.attack(state, 1, -1);
+        assert state.health[1] == 19 : "Opponent health should be 19";
+        assert state.rune[1] == 15 : "Two runes should break. Next rune " + state.rune[1];
+        assert state.draw[1] == 2 : "Each broken rune gives a draw. Got " + state.draw[1];
+    }
+}
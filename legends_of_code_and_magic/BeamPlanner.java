@@ -0,0 +1,257 @@
+import java.util.*;
+
+// Plans a whole battle turn with beam search over summon, use and attack moves in any order, so charge
+// creatures attack after they are summoned and items can open the way for attacks. Each layer expands every
+// beam entry by one legal move, scores the children and keeps the best width. Scores come from
+// BoardEvaluator one child at a time, or as one FeatureEvaluator batch when tuned weights are given; the
+// column extraction makes the batch path slower, so it is only worth it for weights BoardEvaluator lacks.
+// Children that reach a position already seen this turn (same Zobrist key) are dropped, so move orders that
+// transpose are only expanded once. Every position is a possible end of turn, so the best one seen so far
+// is the answer when the layers run out, the depth limit is hit or the time manager expires. The work per
+// turn is bounded by width * depth expansions and nothing is allocated after construction.
+class BeamPlanner {
+    static final int MAX_DEPTH = 32;
+    static final int SEEN_BITS = 14;
+    static final int MAX_PROBES = 8;
+
+    private final int width;
+    private PackedState[] beam;
+    private PackedState[] next;
+    private int[][] beamLines;
+    private int[][] nextLines;
+    private final int[] beamLineLength;
+    private final int[] nextLineLength;
+    private int beamSize;
+
+    // Candidate children of one layer; the best width are kept in a min-heap on score
+    private final double[] candidateScore;
+    private final int[] candidateParent;
+    private final int[] candidateMove;
+    private final int[] heap;
+    private int heapSize;
+
+    private final long[] seenKeys = new long[1 << SEEN_BITS];
+    private final int[] seenStamps = new int[1 << SEEN_BITS];
+    private int stamp;
+
+    private final FeatureEvaluator evaluator; // null for BoardEvaluator
+    private final FeatureEvaluator.Batch batch;
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private final PackedState scratch = new PackedState();
+    private final int[] bestLine = new int[MAX_DEPTH];
+    private int bestLength;
+    private double bestScore;
+    private TimeManager timeManager;
+    private boolean canWin;
+
+    int expansions;
+    int duplicates;
+    int depthReached;
+
+    public BeamPlanner(int width) {
+        this(width, null);
+    }
+
+    public BeamPlanner(int width, FeatureEvaluator evaluator) {
+        this.width = width;
+        this.evaluator = evaluator;
+        this.batch = evaluator == null ? null : new FeatureEvaluator.Batch(width * Move.MAX_MOVES);
+        this.beam = newStates(width);
+        this.next = newStates(width);
+        this.beamLines = new int[width][MAX_DEPTH];
+        this.nextLines = new int[width][MAX_DEPTH];
+        this.beamLineLength = new int[width];
+        this.nextLineLength = new int[width];
+        this.candidateScore = new double[width * Move.MAX_MOVES];
+        this.candidateParent = new int[width * Move.MAX_MOVES];
+        this.candidateMove = new int[width * Move.MAX_MOVES];
+        this.heap = new int[width];
+    }
+
+    private static PackedState[] newStates(int count) {
+        PackedState[] states = new PackedState[count];
+        for (int i = 0; i < count; i++) {
+            states[i] = new PackedState();
+        }
+        return states;
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    // Fills out with the best line found and returns its score. The state is not changed.
+    public double plan(PackedState state, MoveList out) {
+        return plan(state, out, true);
+    }
+
+    // canWin false when LethalSolver proved NO_LETHAL: no child is checked for a win
+    public double plan(PackedState state, MoveList out, boolean canWin) {
+        this.canWin = canWin;
+        if (++stamp == 0) {
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+        state.copyInto(beam[0]);
+        beamLineLength[0] = 0;
+        beamSize = 1;
+        markSeen(state.hash);
+        bestScore = evaluator == null ? BoardEvaluator.evaluate(state) : evaluator.evaluate(state);
+        bestLength = 0;
+        expansions = 0;
+        duplicates = 0;
+        depthReached = 0;
+
+        for (int depth = 0; depth < MAX_DEPTH && beamSize > 0; depth++) {
+            if (expandLayer()) {
+                break; // won, nothing can beat it
+            }
+            depthReached = depth + 1;
+            if (timeManager != null && timeManager.remainingNanos() <= 0) {
+                break;
+            }
+        }
+
+        out.clear();
+        for (int i = 0; i < bestLength; i++) {
+            out.add(bestLine[i]);
+        }
+        return bestScore;
+    }
+
+    // Expands every beam entry by one move and keeps the best children as the new beam.
+    // Returns true once a winning line is found.
+    private boolean expandLayer() {
+        int candidates = 0;
+        if (evaluator != null) {
+            batch.clear();
+        }
+        for (int parent = 0; parent < beamSize; parent++) {
+            PackedState state = beam[parent];
+            int count = Move.generate(state, moves);
+            for (int m = 1; m < count; m++) { // moves[0] is PASS, every position is already a leaf
+                state.copyInto(scratch);
+                if (!Move.apply(scratch, moves[m])) {
+                    continue;
+                }
+                expansions++;
+                if (!markSeen(scratch.hash)) {
+                    duplicates++;
+                    continue;
+                }
+                if (canWin && BattleSimulator.isWon(scratch)) {
+                    bestScore = BoardEvaluator.WIN;
+                    setBestLine(parent, moves[m]);
+                    return true;
+                }
+                int candidate = candidates++;
+                if (evaluator == null) {
+                    candidateScore[candidate] = BoardEvaluator.evaluate(scratch);
+                } else {
+                    batch.add(scratch);
+                }
+                candidateParent[candidate] = parent;
+                candidateMove[candidate] = moves[m];
+            }
+        }
+
+        if (evaluator != null) {
+            evaluator.score(batch, candidateScore);
+        }
+        heapSize = 0;
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            if (candidateScore[candidate] > bestScore) {
+                bestScore = candidateScore[candidate];
+                setBestLine(candidateParent[candidate], candidateMove[candidate]);
+            }
+            offer(candidate);
+        }
+
+        for (int i = 0; i < heapSize; i++) {
+            int candidate = heap[i];
+            int parent = candidateParent[candidate];
+            beam[parent].copyInto(next[i]);
+            Move.apply(next[i], candidateMove[candidate]);
+            System.arraycopy(beamLines[parent], 0, nextLines[i], 0, beamLineLength[parent]);
+            nextLines[i][beamLineLength[parent]] = candidateMove[candidate];
+            nextLineLength[i] = beamLineLength[parent] + 1;
+        }
+        PackedState[] states = beam;
+        beam = next;
+        next = states;
+        int[][] lines = beamLines;
+        beamLines = nextLines;
+        nextLines = lines;
+        System.arraycopy(nextLineLength, 0, beamLineLength, 0, heapSize);
+        beamSize = heapSize;
+        return false;
+    }
+
+    private void setBestLine(int parent, int move) {
+        bestLength = beamLineLength[parent] + 1;
+        System.arraycopy(beamLines[parent], 0, bestLine, 0, beamLineLength[parent]);
+        bestLine[bestLength - 1] = move;
+    }
+
+    // Keeps the candidate if it is among the best width seen in this layer
+    private void offer(int candidate) {
+        if (heapSize < width) {
+            int i = heapSize++;
+            heap[i] = candidate;
+            while (i > 0 && candidateScore[heap[(i - 1) / 2]] > candidateScore[heap[i]]) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+            return;
+        }
+        if (candidateScore[candidate] <= candidateScore[heap[0]]) {
+            return;
+        }
+        heap[0] = candidate;
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && candidateScore[heap[left]] < candidateScore[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < heapSize && candidateScore[heap[right]] < candidateScore[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int temp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = temp;
+    }
+
+    // Returns false if the position was already reached this turn. When the probe run is full the
+    // position is treated as new, which only costs a repeated expansion.
+    private boolean markSeen(long key) {
+        int mask = seenKeys.length - 1;
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+            if (seenStamps[index] != stamp) {
+                seenStamps[index] = stamp;
+                seenKeys[index] = key;
+                return true;
+            }
+            if (seenKeys[index] == key) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
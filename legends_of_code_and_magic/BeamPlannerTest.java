@@ -0,0 +1,94 @@
+import java.util.*;
+
+public class BeamPlannerTest {
+    public static void main(String[] args) {
+        BeamPlannerTest test = new BeamPlannerTest();
+        test.testChargeCreatureAttacksAfterSummon();
+        test.testRedItemClearsGuardBeforeAttack();
+        test.testTranspositionsAreExpandedOnce();
+        test.testStateIsUnchanged();
+        test.testDefaultWeightsMatchBoardEvaluator();
+    }
+
+    static Card creature(int instanceId, int cost, int attack, int defense, String abilities) {
+        return new Card(1, instanceId, CardType.CREATURE, 0, cost, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState state(int mana, int opponentHealth) {
+        PackedState state = new PackedState();
+        state.health[0] = 30;
+        state.health[1] = opponentHealth;
+        state.rune[0] = state.rune[1] = 25;
+        state.mana[0] = mana;
+        return state;
+    }
+
+    static List<String> plan(BeamPlanner planner, PackedState state) {
+        state.rehash();
+        MoveList line = new MoveList();
+        planner.plan(state, line);
+        List<String> actions = new ArrayList<>();
+        for (Action action : line.toActions()) {
+            actions.add(action.toString());
+        }
+        return actions;
+    }
+
+    public void testChargeCreatureAttacksAfterSummon() {
+        PackedState state = state(4, 5);
+        state.addToHand(creature(1, 4, 5, 1, "-C----"));
+        state.addToHand(creature(2, 4, 6, 6, "------"));
+
+        List<String> line = plan(new BeamPlanner(4), state);
+        assert line.equals(List.of("SUMMON 1", "ATTACK 1 -1")) : "Charge should win this turn. Got " + line;
+    }
+
+    public void testRedItemClearsGuardBeforeAttack() {
+        PackedState state = state(2, 4);
+        state.canAttack[state.addToBoard(0, creature(1, 3, 4, 4, "------"))] = true;
+        state.addToBoard(1, creature(10, 5, 1, 9, "---G--"));
+        state.addToHand(new Card(150, 2, CardType.RED_ITEM, 0, 2, 0, 0, "---G--", 0, 0, 0));
+
+        List<String> line = plan(new BeamPlanner(8), state);
+        assert line.equals(List.of("USE 2 10", "ATTACK 1 -1")) : "Removing the guard opens lethal. Got " + line;
+    }
+
+    public void testTranspositionsAreExpandedOnce() {
+        PackedState state = state(6, 30);
+        for (int i = 0; i < 3; i++) {
+            state.addToHand(creature(1 + i, 2, 2, 2, "------"));
+        }
+        BeamPlanner planner = new BeamPlanner(16);
+        List<String> line = plan(planner, state);
+        assert line.size() == 3 : "All three creatures should be summoned. Got " + line;
+        // Three summons in any order reach 3 + 3 + 1 distinct positions, the other orders transpose
+        assert planner.expansions == 3 + 6 + 3 : planner.expansions;
+        assert planner.duplicates == 3 + 2 : planner.duplicates;
+    }
+
+    public void testStateIsUnchanged() {
+        Random random = new Random(5);
+        BeamPlanner planner = new BeamPlanner(8);
+        for (int round = 0; round < 200; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            long hash = state.hash;
+            int handCount = state.handCount;
+            double score = planner.plan(state, new MoveList());
+            assert state.hash == hash && state.handCount == handCount : "plan must work on copies";
+            assert score >= BoardEvaluator.evaluate(state) : "Passing is always possible";
+        }
+    }
+
+    // The batch path with default weights must plan like the BoardEvaluator fast path
+    public void testDefaultWeightsMatchBoardEvaluator() {
+        Random random = new Random(6);
+        BeamPlanner fast = new BeamPlanner(8);
+        BeamPlanner batched = new BeamPlanner(8, new FeatureEvaluator());
+        for (int round = 0; round < 200; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            double expected = fast.plan(state, new MoveList());
+            double score = batched.plan(state, new MoveList());
+            assert Math.abs(score - expected) < 1e-6 : "Round " + round + ": " + score + " vs " + expected;
+        }
+    }
+}
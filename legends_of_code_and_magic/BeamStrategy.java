@@ -0,0 +1,76 @@
+import java.util.*;
+
+// Battle turns from BeamPlanner, drafts from BronzeStrategy. The split chooseSummons and chooseAttacks both
+// read one plan of the whole turn.
+class BeamStrategy extends BronzeStrategy {
+    static final int DEFAULT_WIDTH = 32;
+
+    private final BeamPlanner planner;
+    private final LethalSolver lethal = new LethalSolver();
+    private final PackedState state = new PackedState();
+    private final MoveList line = new MoveList();
+    private long plannedHash;
+    private boolean hasPlan;
+    private TimeManager timeManager;
+
+    public BeamStrategy() {
+        this(DEFAULT_WIDTH);
+    }
+
+    public BeamStrategy(int width) {
+        this.planner = new BeamPlanner(width, FeatureEvaluator.fromProperty());
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+        planner.setTimeManager(timeManager);
+        lethal.setTimeManager(timeManager);
+    }
+
+    public ArrayList<Action> chooseTurn(GameState gameState) {
+        chooseTurnMoves(gameState, line);
+        plannedHash = state.hash;
+        hasPlan = true;
+        return line.toActions();
+    }
+
+    // chooseSummons and chooseAttacks split one plan: the second call on the same position reuses the line
+    private ArrayList<Action> plannedTurn(GameState gameState) {
+        state.load(gameState);
+        return hasPlan && state.hash == plannedHash ? line.toActions() : chooseTurn(gameState);
+    }
+
+    public void chooseTurnMoves(GameState gameState, MoveList out) {
+        state.load(gameState);
+        if (timeManager != null) {
+            timeManager.startPhase(TurnPhase.LETHAL);
+        }
+        int lethalResult = lethal.solve(state, out);
+        if (lethalResult != LethalSolver.LETHAL) {
+            if (timeManager != null) {
+                timeManager.startPhase(TurnPhase.TURN_PLAN);
+            }
+            planner.plan(state, out, lethalResult != LethalSolver.NO_LETHAL);
+        }
+    }
+
+    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        summonActions = new ArrayList<>();
+        for (Action action : plannedTurn(gameState)) {
+            if (action instanceof SummonAction) {
+                summonActions.add((SummonAction) action);
+            }
+        }
+        return summonActions;
+    }
+
+    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        ArrayList<AttackAction> attacks = new ArrayList<>();
+        for (Action action : plannedTurn(gameState)) {
+            if (action instanceof AttackAction) {
+                attacks.add((AttackAction) action);
+            }
+        }
+        return attacks;
+    }
+}
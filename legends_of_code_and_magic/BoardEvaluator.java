@@ -0,0 +1,44 @@
+// Static score of a position from the point of view of side 0, higher is better
+class BoardEvaluator {
+    static final double WIN = 1000;
+    static final double HEALTH_WEIGHT = 1;
+    static final double BOARD_WEIGHT = 2;
+
+    public static double evaluate(PackedState state) {
+        if (state.health[1] <= 0) {
+            return WIN;
+        }
+        if (state.health[0] <= 0) {
+            return -WIN;
+        }
+        double score = HEALTH_WEIGHT * (state.health[0] - state.health[1]);
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            score += BOARD_WEIGHT * creatureValue(state.attack[i], state.defense[i], state.abilities[i]);
+        }
+        for (int i = PackedState.boardStart(1), end = i + state.boardCount[1]; i < end; i++) {
+            score -= BOARD_WEIGHT * creatureValue(state.attack[i], state.defense[i], state.abilities[i]);
+        }
+        score += state.handCount + state.draw[0] - state.draw[1];
+        return score;
+    }
+
+    public static double creatureValue(int attack, int defense, int abilities) {
+        double value = attack + defense;
+        if ((abilities & CardAbility.GUARD.mask()) != 0) {
+            value += 0.5 * defense;
+        }
+        if ((abilities & CardAbility.LETHAL.mask()) != 0) {
+            value += 3;
+        }
+        if ((abilities & CardAbility.WARD.mask()) != 0) {
+            value += attack;
+        }
+        if ((abilities & CardAbility.DRAIN.mask()) != 0) {
+            value += 0.5 * attack;
+        }
+        if ((abilities & CardAbility.BREAKTHROUGH.mask()) != 0) {
+            value += 1;
+        }
+        return value;
+    }
+}
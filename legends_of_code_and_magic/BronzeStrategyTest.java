@@ -4,6 +4,10 @@ import java.math.*;
 import java.util.stream.Collectors;
 
 class TestableGameState extends GameState {
+    public TestableGameState() {
+        super(new Hand());
+    }
+
     public void setPlayerHand(Hand cards) {
         this.playerHand = cards;
     }
@@ -13,18 +17,21 @@ public class BronzeStrategyTest {
     public static void main(String[] args) {
         BronzeStrategyTest test = new BronzeStrategyTest();
         test.testChooseSummons();
+        test.testHandTracksManaCurve();
+        test.testDraftCurvePrefersMissingCosts();
+        test.testCardScoreCacheStoresBaseStats();
     }
     public void testChooseSummons() {
         // mana, attack - 3,4 - 4,3 - 2,2 - 5,2 - 8,6 - 3,1 - 2,1 for 5 available mana should return 1, 3
         TestableGameState testGameState = new TestableGameState();
         Hand testHand = new Hand();
-        testHand.addCard(new Card(0, 0, 0, 0, 3, 4, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 1, 0, 0, 4, 3, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 2, 0, 0, 2, 2, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 3, 0, 0, 5, 2, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 4, 0, 0, 8, 6, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 5, 0, 0, 3, 1, 0, "", 0, 0, 0));
-        testHand.addCard(new Card(0, 6, 0, 0, 2, 1, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 0, CardType.CREATURE, 0, 3, 4, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 1, CardType.CREATURE, 0, 4, 3, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 2, CardType.CREATURE, 0, 2, 2, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 3, CardType.CREATURE, 0, 5, 2, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 4, CardType.CREATURE, 0, 8, 6, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 5, CardType.CREATURE, 0, 3, 1, 0, "", 0, 0, 0));
+        testHand.addCard(new Card(0, 6, CardType.CREATURE, 0, 2, 1, 0, "", 0, 0, 0));
         testGameState.setPlayerHand(testHand);
         testGameState.setPlayerMana(5);
         BronzeStrategy strategy = new BronzeStrategy();
@@ -43,4 +50,60 @@ public class BronzeStrategyTest {
         assert summons.get(1).toString().equals(secondAction) : "Second action should be " + secondAction + ". Output: " + output;
     }
 
-}
\ No newline at end of file
+    public void testHandTracksManaCurve() {
+        Hand deck = new Hand();
+        Card two = new Card(0, 0, CardType.CREATURE, 0, 2, 2, 3, "", 0, 0, 0);
+        deck.addCard(two);
+        deck.addCard(new Card(0, 1, CardType.CREATURE, 0, 2, 1, 1, "", 0, 0, 0));
+        deck.addCard(new Card(0, 2, CardType.RED_ITEM, 0, 5, 0, -3, "", 0, 0, 0));
+
+        assert deck.getCostCount(2) == 2 && deck.getCostCount(5) == 1 : "Histogram should count costs";
+        assert deck.getTypeCount(CardType.CREATURE) == 2 : "Type counts should be tracked";
+        assert deck.getTotalCost() == 9 && deck.getAverageCost() == 3 : "Average cost should be 3";
+        assert deck.getCardCostDistribution().equals(Map.of(2, 2L, 5, 1L)) : "Distribution should match";
+
+        assert deck.removeCard(two) : "Removing a card in the hand should succeed";
+        assert !deck.removeCard(two) : "Removing it twice should fail";
+        deck.removeCard(1);
+        assert deck.size() == 1 && deck.getCostCount(2) == 1 && deck.getCostCount(5) == 0
+                : "Removing cards should update the histogram";
+        assert deck.getTotalAttack() == 1 && deck.getTotalDefense() == 1 : "Running sums should follow removals";
+    }
+
+    public void testDraftCurvePrefersMissingCosts() {
+        Hand deck = new Hand();
+        for (int i = 0; i < 6; i++) {
+            deck.addCard(new Card(0, i, CardType.CREATURE, 0, 3, 3, 3, "", 0, 0, 0));
+        }
+        for (int cost = 0; cost <= Hand.MAX_COST; cost++) {
+            Hand picked = new Hand();
+            for (int i = 0; i < deck.size(); i++) {
+                picked.addCard(deck.getCard(i));
+            }
+            picked.addCard(new Card(0, 99, CardType.CREATURE, 0, cost, 1, 1, "", 0, 0, 0));
+            assert DraftCurve.distance(picked) - DraftCurve.distance(deck) == DraftCurve.distanceChange(deck, cost)
+                    : "Constant time change should match the full distance for cost " + cost;
+        }
+        assert DraftCurve.distanceChange(deck, 3) > 0 : "The 3 cost slot is already full";
+        assert DraftCurve.distanceChange(deck, 2) < 0 : "The 2 cost slot is still missing cards";
+    }
+
+    public void testCardScoreCacheStoresBaseStats() {
+        int[] calls = new int[1];
+        CardScoreCache cache = new CardScoreCache(card -> {
+            calls[0]++;
+            return card.cost * 100 + card.attack * 10 + card.defense;
+        });
+        Card buffed = new Card(5, 1, CardType.CREATURE, 1, 3, 6, 6, "", 0, 0, 0);
+        Card base = new Card(5, 2, CardType.CREATURE, 0, 3, 2, 3, "", 0, 0, 0);
+        Card cheaper = new Card(5, 3, CardType.CREATURE, 0, 2, 2, 3, "", 0, 0, 0);
+
+        assert cache.get(buffed) == 366 && cache.get(base) == 323 : "Scores should follow the stats";
+        assert cache.get(base) == 323 && cache.get(buffed) == 366 && calls[0] == 2
+                : "The hand copy and the buffed board copy should both be stored";
+        buffed.defense = 1;
+        assert cache.get(buffed) == 361 && calls[0] == 3 : "A damaged copy is scored again";
+        assert cache.get(base) == 323 && calls[0] == 3 : "The base entry survives the board copies";
+        assert cache.get(cheaper) == 223 : "Cost is part of the key";
+    }
+}
@@ -0,0 +1,262 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Tunes the BronzeStrategy weight vector with separable CMA-ES (diagonal covariance) on local self-play.
+// Usage: java BronzeTuner [generations] [games per candidate] [checkpoint file] [threads] [seed]
+// Every candidate plays the same batch of seeded games against the default weights on a fork-join pool,
+// so candidates in a generation are compared on equal games. The search state is written to the
+// checkpoint file after each generation and picked up again when the tuner is restarted with it.
+public class BronzeTuner {
+    // Search space: weight = default + scale * x, clamped to the bounds below
+    static final double[] SCALE = { 0.15, 0.3, 0.3, 0.4, 0.5, 1, 0.3, 0.1, 0.1, 1.5, 1.5 };
+    static final double[] LOWER = { 0, 0.2, 0.2, 0.2, 0.2, 0.2, 0.2, 0, 0, 1, 1 };
+    static final double[] UPPER = { 2, 4, 4, 6, 8, 12, 4, 1, 1, 12, 30 };
+
+    final int n = BronzeStrategy.DEFAULT_WEIGHTS.length;
+    final int lambda = 4 + (int) (3 * Math.log(n));
+    final int mu = lambda / 2;
+    final double[] recombination = new double[mu];
+    final double muEff;
+    final double cSigma;
+    final double dSigma;
+    final double cC;
+    final double c1;
+    final double cMu;
+    final double expectedNorm;
+
+    final ForkJoinPool pool;
+    final int gamesPerCandidate;
+    final long seed;
+
+    int generation;
+    double sigma = 1;
+    double[] mean = new double[n];
+    double[] variance = new double[n];
+    double[] pathSigma = new double[n];
+    double[] pathC = new double[n];
+    double bestFitness = -1;
+    double[] bestWeights = BronzeStrategy.DEFAULT_WEIGHTS.clone();
+    long gamesPlayed;
+
+    public BronzeTuner(int gamesPerCandidate, int threads, long seed) {
+        this.pool = new ForkJoinPool(threads);
+        this.gamesPerCandidate = gamesPerCandidate;
+        this.seed = seed;
+        Arrays.fill(variance, 1);
+
+        double sum = 0;
+        for (int i = 0; i < mu; i++) {
+            recombination[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            sum += recombination[i];
+        }
+        double sumSquares = 0;
+        for (int i = 0; i < mu; i++) {
+            recombination[i] /= sum;
+            sumSquares += recombination[i] * recombination[i];
+        }
+        muEff = 1 / sumSquares;
+        cSigma = (muEff + 2) / (n + muEff + 5);
+        dSigma = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (n + 1)) - 1) + cSigma;
+        cC = (4 + muEff / n) / (n + 4 + 2 * muEff / n);
+        // Learning rates of the full covariance version, raised by (n + 2) / 3 for the diagonal one
+        double rank = (n + 2) / 3.0;
+        c1 = Math.min(1, rank * 2 / ((n + 1.3) * (n + 1.3) + muEff));
+        cMu = Math.min(1 - c1, rank * 2 * (muEff - 2 + 1 / muEff) / ((n + 2) * (n + 2) + muEff));
+        expectedNorm = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Path checkpoint = Paths.get(args.length > 2 ? args[2] : "bronze-tuner.properties");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+        BronzeTuner tuner = new BronzeTuner(games, threads, seed);
+        if (Files.exists(checkpoint)) {
+            tuner.load(checkpoint);
+            System.out.println("Resumed from " + checkpoint + " at generation " + tuner.generation);
+        }
+        try {
+            while (tuner.generation < generations) {
+                long start = System.nanoTime();
+                String line = tuner.step();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                tuner.save(checkpoint);
+                System.out.println(String.format("%s, %.0f games/s", line,
+                        tuner.lambda * tuner.gamesPerCandidate / seconds));
+            }
+        } finally {
+            tuner.pool.shutdown();
+        }
+        System.out.println("Best " + String.format("%.1f%%", 100 * tuner.bestFitness) + " "
+                + format(tuner.bestWeights));
+    }
+
+    static double[] decode(double[] x) {
+        double[] weights = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            weights[i] = BronzeStrategy.DEFAULT_WEIGHTS[i] + SCALE[i] * x[i];
+            weights[i] = Math.max(LOWER[i], Math.min(UPPER[i], weights[i]));
+        }
+        return weights;
+    }
+
+    // Runs one generation and returns its report line
+    String step() throws InterruptedException {
+        Random random = new Random(seed * 1_000_003 + generation);
+        double[][] z = new double[lambda][n];
+        double[][] y = new double[lambda][n];
+        double[][] weights = new double[lambda][];
+        for (int k = 0; k < lambda; k++) {
+            double[] x = new double[n];
+            for (int i = 0; i < n; i++) {
+                z[k][i] = random.nextGaussian();
+                y[k][i] = Math.sqrt(variance[i]) * z[k][i];
+                x[i] = mean[i] + sigma * y[k][i];
+            }
+            weights[k] = decode(x);
+        }
+        long gameSeed = random.nextLong();
+        double[] fitness = evaluate(weights, gameSeed);
+
+        Integer[] order = new Integer[lambda];
+        for (int k = 0; k < lambda; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        if (fitness[order[0]] > bestFitness) {
+            bestFitness = fitness[order[0]];
+            bestWeights = weights[order[0]];
+        }
+        update(z, y, order);
+        generation++;
+
+        double meanFitness = Arrays.stream(fitness).average().orElse(0);
+        return String.format("gen %d: best %.1f%%, mean %.1f%%, sigma %.3f, mean %s", generation,
+                100 * fitness[order[0]], 100 * meanFitness, sigma, format(decode(mean)));
+    }
+
+    // Win rate of each weight vector against the default weights, all on the same seeded games
+    double[] evaluate(double[][] candidates, long gameSeed) throws InterruptedException {
+        List<Callable<Boolean>> games = new ArrayList<>();
+        for (double[] candidate : candidates) {
+            for (int g = 0; g < gamesPerCandidate; g++) {
+                int game = g;
+                games.add(() -> {
+                    Strategy tuned = new BronzeStrategy(candidate);
+                    Strategy baseline = new BronzeStrategy();
+                    boolean tunedFirst = game % 2 == 0;
+                    LocalGame localGame = tunedFirst
+                            ? new LocalGame(tuned, baseline, gameSeed + game / 2)
+                            : new LocalGame(baseline, tuned, gameSeed + game / 2);
+                    return (localGame.play() == 0) == tunedFirst;
+                });
+            }
+        }
+        List<Future<Boolean>> results = pool.invokeAll(games);
+        double[] fitness = new double[candidates.length];
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).get()) {
+                    fitness[i / gamesPerCandidate] += 1.0 / gamesPerCandidate;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed", e.getCause());
+        }
+        gamesPlayed += games.size();
+        return fitness;
+    }
+
+    // Separable CMA-ES update of the mean, evolution paths, diagonal covariance and step size
+    void update(double[][] z, double[][] y, Integer[] order) {
+        double[] zMean = new double[n];
+        double[] yMean = new double[n];
+        for (int j = 0; j < mu; j++) {
+            for (int i = 0; i < n; i++) {
+                zMean[i] += recombination[j] * z[order[j]][i];
+                yMean[i] += recombination[j] * y[order[j]][i];
+            }
+        }
+
+        double norm = 0;
+        for (int i = 0; i < n; i++) {
+            mean[i] += sigma * yMean[i];
+            pathSigma[i] = (1 - cSigma) * pathSigma[i] + Math.sqrt(cSigma * (2 - cSigma) * muEff) * zMean[i];
+            norm += pathSigma[i] * pathSigma[i];
+        }
+        norm = Math.sqrt(norm);
+        boolean stalled = norm / Math.sqrt(1 - Math.pow(1 - cSigma, 2 * (generation + 1)))
+                >= (1.4 + 2.0 / (n + 1)) * expectedNorm;
+
+        for (int i = 0; i < n; i++) {
+            pathC[i] = (1 - cC) * pathC[i] + (stalled ? 0 : Math.sqrt(cC * (2 - cC) * muEff) * yMean[i]);
+            double rankMu = 0;
+            for (int j = 0; j < mu; j++) {
+                rankMu += recombination[j] * y[order[j]][i] * y[order[j]][i];
+            }
+            double rankOne = pathC[i] * pathC[i] + (stalled ? cC * (2 - cC) * variance[i] : 0);
+            variance[i] = (1 - c1 - cMu) * variance[i] + c1 * rankOne + cMu * rankMu;
+        }
+        sigma *= Math.exp(cSigma / dSigma * (norm / expectedNorm - 1));
+    }
+
+    void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("generation", Integer.toString(generation));
+        properties.setProperty("sigma", Double.toString(sigma));
+        properties.setProperty("mean", join(mean));
+        properties.setProperty("variance", join(variance));
+        properties.setProperty("pathSigma", join(pathSigma));
+        properties.setProperty("pathC", join(pathC));
+        properties.setProperty("bestFitness", Double.toString(bestFitness));
+        properties.setProperty("bestWeights", join(bestWeights));
+        properties.setProperty("gamesPlayed", Long.toString(gamesPlayed));
+        // Write then rename, so a tuner killed mid write keeps the previous checkpoint
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp)) {
+            properties.store(out, "BronzeTuner checkpoint, weights: " + String.join(" ", BronzeStrategy.WEIGHT_NAMES));
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+        }
+        generation = Integer.parseInt(properties.getProperty("generation"));
+        sigma = Double.parseDouble(properties.getProperty("sigma"));
+        mean = split(properties.getProperty("mean"));
+        variance = split(properties.getProperty("variance"));
+        pathSigma = split(properties.getProperty("pathSigma"));
+        pathC = split(properties.getProperty("pathC"));
+        bestFitness = Double.parseDouble(properties.getProperty("bestFitness"));
+        bestWeights = split(properties.getProperty("bestWeights"));
+        gamesPlayed = Long.parseLong(properties.getProperty("gamesPlayed"));
+    }
+
+    static String join(double[] values) {
+        StringBuilder joined = new StringBuilder();
+        for (double value : values) {
+            joined.append(joined.length() == 0 ? "" : ",").append(value);
+        }
+        return joined.toString();
+    }
+
+    static double[] split(String values) {
+        return Arrays.stream(values.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    // Weights as a Java array literal, ready to paste into BronzeStrategy.DEFAULT_WEIGHTS
+    static String format(double[] weights) {
+        StringBuilder formatted = new StringBuilder("{ ");
+        for (int i = 0; i < weights.length; i++) {
+            formatted.append(i == 0 ? "" : ", ").append(String.format("%.3f", weights[i]));
+        }
+        return formatted.append(" }").toString();
+    }
+}
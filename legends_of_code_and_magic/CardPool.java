@@ -0,0 +1,105 @@
+import java.util.*;
+
+// Offline stand-in for the 160 base cards of Legends of Code and Magic. The real card list is not part of
+// this repository, so the pool is generated from a fixed seed with the same layout as the game: cards
+// 1-116 are creatures, 117-139 green items, 140-151 red items and 152-160 blue items, with a similar
+// mana curve and stat budget per cost.
+class CardPool {
+    static final int SIZE = 160;
+    static final int[] CREATURES_PER_COST = { 0, 12, 20, 20, 17, 14, 11, 8, 6, 3, 2, 1, 2 };
+
+    private static final Card[] CARDS = build(new Random(160));
+
+    public static Card get(int cardNumber) {
+        return CARDS[cardNumber - 1];
+    }
+
+    // Fresh copy of a base card so games can change its stats
+    public static Card create(int cardNumber, int instanceId) {
+        Card card = get(cardNumber);
+        return new Card(card.cardNumber, instanceId, card.cardType, 0, card.cost, card.attack, card.defense,
+                card.abilities, card.myHealthChange, card.opponentHealthChange, card.cardDraw);
+    }
+
+    private static Card[] build(Random random) {
+        Card[] cards = new Card[SIZE];
+        int cardNumber = 1;
+        for (int cost = 0; cost < CREATURES_PER_COST.length; cost++) {
+            for (int i = 0; i < CREATURES_PER_COST[cost]; i++, cardNumber++) {
+                cards[cardNumber - 1] = creature(random, cardNumber, cost);
+            }
+        }
+        for (; cardNumber <= 139; cardNumber++) {
+            cards[cardNumber - 1] = item(random, cardNumber, CardType.GREEN_ITEM);
+        }
+        for (; cardNumber <= 151; cardNumber++) {
+            cards[cardNumber - 1] = item(random, cardNumber, CardType.RED_ITEM);
+        }
+        for (; cardNumber <= SIZE; cardNumber++) {
+            cards[cardNumber - 1] = item(random, cardNumber, CardType.BLUE_ITEM);
+        }
+        return cards;
+    }
+
+    private static Card creature(Random random, int cardNumber, int cost) {
+        int budget = 2 * cost + 1;
+        int mask = 0;
+        for (CardAbility ability : CardAbility.values()) {
+            if (budget > 2 && random.nextInt(100) < 12) {
+                mask |= ability.mask();
+                budget -= ability == CardAbility.LETHAL ? 2 : 1;
+            }
+        }
+        int myHealthChange = 0;
+        int opponentHealthChange = 0;
+        int cardDraw = 0;
+        if (budget > 3 && random.nextInt(100) < 10) {
+            cardDraw = 1;
+            budget -= 2;
+        } else if (budget > 3 && random.nextInt(100) < 10) {
+            opponentHealthChange = -1 - random.nextInt(2);
+            budget += opponentHealthChange;
+        } else if (budget > 3 && random.nextInt(100) < 10) {
+            myHealthChange = 1 + random.nextInt(3);
+            budget -= 1;
+        }
+        int attack = random.nextInt(budget);
+        int defense = Math.max(1, budget - attack);
+        return new Card(cardNumber, -1, CardType.CREATURE, 0, cost, attack, defense, CardAbility.fromMask(mask),
+                myHealthChange, opponentHealthChange, cardDraw);
+    }
+
+    private static Card item(Random random, int cardNumber, CardType type) {
+        int cost = random.nextInt(8);
+        int budget = cost + 1;
+        int attack = 0;
+        int defense = 0;
+        int mask = 0;
+        int myHealthChange = 0;
+        int opponentHealthChange = 0;
+        int cardDraw = random.nextInt(100) < 15 ? 1 : 0;
+        switch (type) {
+            case GREEN_ITEM:
+                attack = random.nextInt(budget + 1);
+                defense = budget - attack;
+                if (random.nextInt(100) < 30) {
+                    mask = CardAbility.values()[random.nextInt(CardAbility.values().length)].mask();
+                }
+                break;
+            case RED_ITEM:
+                defense = -budget;
+                attack = -random.nextInt(2);
+                if (random.nextInt(100) < 25) {
+                    mask = (1 << CardAbility.values().length) - 1; // removes every ability
+                }
+                break;
+            default:
+                defense = -random.nextInt(budget + 1);
+                opponentHealthChange = -random.nextInt(budget + 1);
+                myHealthChange = random.nextInt(3);
+                break;
+        }
+        return new Card(cardNumber, -1, type, 0, cost, attack, defense, CardAbility.fromMask(mask),
+                myHealthChange, opponentHealthChange, cardDraw);
+    }
+}
@@ -0,0 +1,27 @@
+// BronzeStrategy with draft picks weighted by DraftCurve instead of the cost balance factor
+class CurveDraftStrategy extends BronzeStrategy {
+    static final double CURVE_WEIGHT = 0.1;
+
+    // exp(-weight * change) for every possible distance change, so scoring a pick needs no Math.exp
+    private final double[] curveFactors = new double[DraftCurve.MAX_CHANGE - DraftCurve.MIN_CHANGE + 1];
+
+    public CurveDraftStrategy() {
+        this(CURVE_WEIGHT);
+    }
+
+    public CurveDraftStrategy(double curveWeight) {
+        for (int i = 0; i < curveFactors.length; i++) {
+            curveFactors[i] = Math.exp(-curveWeight * (i + DraftCurve.MIN_CHANGE));
+        }
+    }
+
+    @Override
+    public double getDraftScore(Card card, GameState gameState) {
+        if (card.cost > maxDraftCost) {
+            return 0;
+        }
+        double value = getCardScore(card) / Math.max(1, card.cost);
+        int change = DraftCurve.distanceChange(gameState.playerDeck, card.cost);
+        return value * curveFactors[Math.min(change, DraftCurve.MAX_CHANGE) - DraftCurve.MIN_CHANGE];
+    }
+}
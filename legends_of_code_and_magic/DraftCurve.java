@@ -0,0 +1,26 @@
+// Scores draft picks by their effect on the whole 30 card mana curve. The curve distance is the sum over
+// costs of (target count - current count)^2, so one more card of a cost changes a single term and the
+// change can be read from the Hand histogram in constant time.
+class DraftCurve {
+    static final int DECK_SIZE = 30;
+    // Target number of cards per cost in the finished deck, sums to DECK_SIZE
+    static final int[] TARGET = { 1, 3, 5, 6, 5, 4, 3, 1, 1, 1, 0, 0, 0 };
+    // Bounds of distanceChange while the deck has at most DECK_SIZE cards
+    static final int MIN_CHANGE = 1 - 2 * 6;
+    static final int MAX_CHANGE = 1 + 2 * DECK_SIZE;
+
+    // Negative when the pick brings the deck closer to the target curve
+    static int distanceChange(Hand deck, int cost) {
+        int missing = TARGET[Math.max(0, Math.min(Hand.MAX_COST, cost))] - deck.getCostCount(cost);
+        return 1 - 2 * missing;
+    }
+
+    static int distance(Hand deck) {
+        int distance = 0;
+        for (int cost = 0; cost <= Hand.MAX_COST; cost++) {
+            int missing = TARGET[cost] - deck.getCostCount(cost);
+            distance += missing * missing;
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.*;
+
+// Short battle between two 30 card decks with a fast policy on both sides, for judging draft picks.
+// Turns follow LocalGame: mana ramps to 12, one draw a turn plus rune draws, and the second player
+// starts with an extra card. Each turn the player plays its most expensive affordable card until none is
+// left (items on the strongest target), then attacks the first guard or face with every ready creature.
+// A battle that is still running after TURNS turns goes to the player BoardEvaluator prefers. The decks
+// are only read, so one array of cards can be shared by several threads each with its own DraftRollout.
+class DraftRollout {
+    static final int TURNS = 20; // counting both players' turns
+    static final int DECK_SIZE = DraftCurve.DECK_SIZE;
+    static final int MAX_MANA = 12;
+
+    private final PackedState state = new PackedState();
+    private final Card[][] decks = new Card[2][];
+    // Deck indices of the cards left to draw, top at the end, and of the cards in hand
+    private final int[][] piles = new int[2][DECK_SIZE];
+    private final int[] pileCounts = new int[2];
+    private final int[][] hands = new int[2][PackedState.HAND_SIZE];
+    private final int[] handCounts = new int[2];
+    private final int[] maxMana = new int[2];
+    private final int[] attackers = new int[PackedState.BOARD_SIZE];
+    private int current;
+
+    // Returns 1 when the first deck wins and 0 when the second does. Instance ids are the deck index plus
+    // one, offset by DECK_SIZE for the second deck.
+    public int play(Card[] first, Card[] second, SplittableRandom random) {
+        decks[0] = first;
+        decks[1] = second;
+        for (int player = 0; player < 2; player++) {
+            for (int i = 0; i < DECK_SIZE; i++) {
+                int j = random.nextInt(i + 1);
+                piles[player][i] = piles[player][j];
+                piles[player][j] = i;
+            }
+            pileCounts[player] = DECK_SIZE;
+            handCounts[player] = 0;
+            maxMana[player] = 0;
+            state.health[player] = 30;
+            state.rune[player] = 25;
+            state.mana[player] = 0;
+            state.draw[player] = 0;
+            state.boardCount[player] = 0;
+        }
+        for (int i = 0; i < 5; i++) {
+            if (i < 4) {
+                hands[0][handCounts[0]++] = piles[0][--pileCounts[0]];
+            }
+            hands[1][handCounts[1]++] = piles[1][--pileCounts[1]];
+        }
+        current = 0;
+        loadHand();
+
+        for (int turn = 0; turn < TURNS; turn++) {
+            startTurn();
+            if (state.health[0] > 0) {
+                playTurn();
+            }
+            if (state.health[1] <= 0) {
+                return current == 0 ? 1 : 0;
+            }
+            if (state.health[0] <= 0) {
+                return current == 0 ? 0 : 1;
+            }
+            endTurn();
+        }
+        boolean currentLeads = BoardEvaluator.evaluate(state) > 0;
+        return currentLeads == (current == 0) ? 1 : 0;
+    }
+
+    private void startTurn() {
+        maxMana[current] = Math.min(MAX_MANA, maxMana[current] + 1);
+        state.mana[0] = maxMana[current];
+        int draws = 1 + state.draw[0];
+        state.draw[0] = 0;
+        for (int i = 0; i < draws; i++) {
+            if (pileCounts[current] == 0) {
+                // Drawing from an empty deck costs the next rune
+                BattleSimulator.changeHealth(state, 0, state.rune[0] - state.health[0]);
+            } else {
+                int card = piles[current][--pileCounts[current]];
+                if (state.handCount < PackedState.HAND_SIZE) {
+                    addToHand(card);
+                }
+            }
+        }
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            state.canAttack[i] = true;
+        }
+        state.deck[0] = pileCounts[current];
+        state.deck[1] = pileCounts[1 - current];
+        state.opponentHandCount = handCounts[1 - current];
+    }
+
+    private void playTurn() {
+        while (playBestCard()) {
+            if (state.health[1] <= 0) {
+                return;
+            }
+        }
+        int count = 0;
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            if (state.canAttack[i] && state.attack[i] > 0) {
+                attackers[count++] = state.instanceId[i];
+            }
+        }
+        for (int a = 0; a < count && state.health[1] > 0; a++) {
+            BattleSimulator.attack(state, attackers[a], guardTarget());
+        }
+    }
+
+    // Plays the most expensive card that can be played, returns false when there is none
+    private boolean playBestCard() {
+        int best = -1;
+        int target = -1;
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            if (state.cost[i] > state.mana[0] || best >= 0 && state.cost[i] <= state.cost[best]) {
+                continue;
+            }
+            int type = state.cardType[i];
+            if (type == CardType.CREATURE.ordinal()) {
+                if (state.boardCount[0] < PackedState.BOARD_SIZE) {
+                    best = i;
+                }
+            } else if (type == CardType.GREEN_ITEM.ordinal()) {
+                if (state.boardCount[0] > 0) {
+                    best = i;
+                    target = strongest(0);
+                }
+            } else if (type == CardType.RED_ITEM.ordinal()) {
+                if (state.boardCount[1] > 0) {
+                    best = i;
+                    target = guardTarget() >= 0 ? guardTarget() : strongest(1);
+                }
+            } else {
+                best = i;
+                target = -1;
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        int id = state.instanceId[best];
+        if (state.cardType[best] == CardType.CREATURE.ordinal()) {
+            return BattleSimulator.summon(state, id);
+        }
+        return BattleSimulator.use(state, id, target);
+    }
+
+    private int guardTarget() {
+        for (int i = PackedState.boardStart(1), end = i + state.boardCount[1]; i < end; i++) {
+            if (state.hasAbility(i, CardAbility.GUARD)) {
+                return state.instanceId[i];
+            }
+        }
+        return -1;
+    }
+
+    private int strongest(int side) {
+        int best = PackedState.boardStart(side);
+        for (int i = best + 1, end = best + state.boardCount[side]; i < end; i++) {
+            if (state.attack[i] > state.attack[best]) {
+                best = i;
+            }
+        }
+        return state.instanceId[best];
+    }
+
+    private void endTurn() {
+        handCounts[current] = state.handCount;
+        for (int i = 0; i < state.handCount; i++) {
+            hands[current][i] = state.instanceId[PackedState.HAND + i] - 1 - current * DECK_SIZE;
+        }
+        LocalGame.swapSides(state);
+        current = 1 - current;
+        loadHand();
+    }
+
+    private void loadHand() {
+        state.handCount = 0;
+        for (int i = 0; i < handCounts[current]; i++) {
+            addToHand(hands[current][i]);
+        }
+    }
+
+    private void addToHand(int card) {
+        int slot = state.addToHand(decks[current][card]);
+        state.instanceId[slot] = card + 1 + current * DECK_SIZE;
+    }
+}
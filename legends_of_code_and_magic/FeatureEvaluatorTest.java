@@ -0,0 +1,70 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+public class FeatureEvaluatorTest {
+    public static void main(String[] args) throws IOException {
+        FeatureEvaluatorTest test = new FeatureEvaluatorTest();
+        test.testDefaultWeightsMatchBoardEvaluator();
+        test.testBatchMatchesSingleStates();
+        test.testWeightsLoadFromFile();
+    }
+
+    public void testDefaultWeightsMatchBoardEvaluator() {
+        Random random = new Random(21);
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+        for (int round = 0; round < 2000; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            state.draw[random.nextInt(2)] = random.nextInt(3);
+            if (round % 50 == 0) {
+                state.health[round % 100 == 0 ? 0 : 1] = 0;
+            }
+            double expected = BoardEvaluator.evaluate(state);
+            assert Math.abs(evaluator.evaluate(state) - expected) < 1e-9 : "Round " + round + ": "
+                    + evaluator.evaluate(state) + " vs " + expected;
+        }
+    }
+
+    public void testBatchMatchesSingleStates() {
+        Random random = new Random(22);
+        double[] weights = new double[FeatureEvaluator.FEATURES];
+        for (int f = 0; f < weights.length; f++) {
+            weights[f] = random.nextGaussian();
+        }
+        FeatureEvaluator evaluator = new FeatureEvaluator(weights);
+        FeatureEvaluator.Batch batch = new FeatureEvaluator.Batch(333);
+        PackedState[] states = new PackedState[batch.capacity()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = TranspositionTableTest.randomState(random);
+            assert batch.add(states[i]) == i;
+        }
+        double[] scores = new double[batch.size];
+        evaluator.score(batch, scores);
+        for (int i = 0; i < states.length; i++) {
+            assert Math.abs(scores[i] - evaluator.evaluate(states[i])) < 1e-9 : "State " + i;
+        }
+    }
+
+    public void testWeightsLoadFromFile() throws IOException {
+        Path file = Files.createTempFile("weights", ".properties");
+        try {
+            Files.write(file, Arrays.asList("# tuned", "health = 3", "opponent.lethals=-10"));
+            FeatureEvaluator evaluator = FeatureEvaluator.load(file.toFile());
+            assert evaluator.weights[FeatureEvaluator.HEALTH] == 3;
+            int opponentLethals = FeatureEvaluator.SIDE + FeatureEvaluator.SIDE_FEATURES + FeatureEvaluator.LETHALS;
+            assert evaluator.weights[opponentLethals] == -10;
+            assert evaluator.weights[FeatureEvaluator.HAND] == FeatureEvaluator.DEFAULT_WEIGHTS[FeatureEvaluator.HAND]
+                    : "Unnamed features keep their default";
+
+            Files.write(file, Arrays.asList("helth=3"));
+            try {
+                FeatureEvaluator.load(file.toFile());
+                assert false : "Misspelled features should be rejected";
+            } catch (IllegalArgumentException e) {
+                assert e.getMessage().contains("helth");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.io.*;
+import java.util.*;
+
+public class GameStateTest {
+    public static void main(String[] args) {
+        GameStateTest test = new GameStateTest();
+        test.testReadTurnKeepsCardIdentity();
+        test.testReadTurnMatchesReadGameState();
+    }
+
+    static String stats(int mana) {
+        return "30 " + mana + " 20 25 0\n28 " + mana + " 20 25 0\n";
+    }
+
+    static String card(int cardNumber, int instanceId, int location, int attack, int defense, String abilities) {
+        return cardNumber + " " + instanceId + " " + location + " 0 3 " + attack + " " + defense + " " + abilities
+                + " 0 0 0\n";
+    }
+
+    static InputReader input(String text) {
+        return new InputReader(new ByteArrayInputStream(text.getBytes()));
+    }
+
+    public void testReadTurnKeepsCardIdentity() {
+        GameState gameState = GameState.readGameState(input(stats(3) + "5 0\n3\n" + card(10, 1, 0, 3, 3, "------")
+                + card(11, 2, 1, 2, 2, "---G--") + card(12, 3, -1, 4, 4, "------")), false);
+        Card inHand = gameState.playerHand.getCard(0);
+        Card onBoard = gameState.getPlayerBoardCard(0);
+        CardTracker tracker = gameState.cardTracker;
+        assert tracker.size() == 3 && tracker.getCreated() == 3;
+
+        // Card 1 was summoned, 2 was damaged and 3 died
+        gameState.readTurn(input(stats(4) + "5 1\n12 ATTACK 3 2\n2\n" + card(10, 1, 1, 3, 3, "------")
+                + card(11, 2, 1, 2, 1, "---G--")), false);
+        assert gameState.getPlayerBoardCard(0) == onBoard && gameState.getPlayerBoardCard(1) == inHand
+                || gameState.getPlayerBoardCard(0) == inHand && gameState.getPlayerBoardCard(1) == onBoard;
+        assert gameState.playerHand.size() == 0 && gameState.opponentBoard.isEmpty();
+        assert inHand.location == 1 && onBoard.defense == 1 : onBoard;
+        assert tracker.getCreated() == 0 && tracker.getMoved() == 1 && tracker.getChanged() == 1;
+        assert tracker.getRemoved().size() == 1 && tracker.getRemoved().get(0).instanceId == 3;
+        assert tracker.get(3) == null && tracker.size() == 2;
+        assert gameState.getPlayerMana() == 4 && gameState.opponentActions.size() == 1;
+
+        // Stats a strategy changed during its turn are reset from the input
+        onBoard.takeDamage(inHand);
+        gameState.readTurn(input(stats(5) + "5 0\n2\n" + card(10, 1, 1, 3, 3, "------")
+                + card(11, 2, 1, 2, 1, "---G--")), false);
+        assert onBoard.defense == 1 && tracker.getChanged() == 1 && tracker.getRemoved().isEmpty();
+    }
+
+    public void testReadTurnMatchesReadGameState() {
+        String[] turns = {
+                stats(1) + "4 0\n3\n" + card(10, 1, 0, 1, 2, "-C----") + card(11, 2, 0, 2, 2, "------")
+                        + card(12, 3, -1, 3, 3, "---G--"),
+                stats(2) + "4 1\n12 SUMMON 3\n4\n" + card(10, 1, 1, 1, 2, "-C----") + card(11, 2, 0, 2, 2, "------")
+                        + card(12, 3, -1, 3, 3, "---G--") + card(13, 4, 0, 5, 5, "B-----"),
+                stats(3) + "3 0\n2\n" + card(11, 2, 1, 2, 2, "------") + card(13, 4, 0, 5, 5, "B-----"),
+        };
+        GameState fresh = null;
+        GameState persistent = null;
+        for (String turn : turns) {
+            fresh = GameState.readGameState(input(turn), false, fresh);
+            if (persistent == null) {
+                persistent = GameState.readGameState(input(turn), false);
+            } else {
+                persistent.readTurn(input(turn), false);
+            }
+            assert describe(fresh).equals(describe(persistent)) : describe(fresh) + " vs " + describe(persistent);
+        }
+    }
+
+    static String describe(GameState gameState) {
+        return gameState.getPlayerMana() + " " + gameState.playerHand + " " + gameState.playerBoard + " "
+                + gameState.opponentBoard + " " + gameState.opponentActions;
+    }
+}
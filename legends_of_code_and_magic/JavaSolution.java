@@ -1,10 +1,21 @@
 import java.util.*;
 import java.io.*;
 import java.math.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 class Hand {
+    static final int MAX_COST = 12;
+
     private ArrayList<Card> hand;
+    // Kept up to date by addCard and removeCard so draft scoring never has to loop over the cards
+    private final int[] costCounts = new int[MAX_COST + 1];
+    private final int[] typeCounts = new int[CardType.values().length];
+    private int totalCost;
+    private int totalAttack;
+    private int totalDefense;
 
     public Hand() {
         this.hand = new ArrayList<Card>();
@@ -12,6 +23,29 @@ class Hand {
 
     public void addCard(Card card) {
         this.hand.add(card);
+        count(card, 1);
+    }
+
+    public boolean removeCard(Card card) {
+        if (!this.hand.remove(card)) {
+            return false;
+        }
+        count(card, -1);
+        return true;
+    }
+
+    public Card removeCard(int index) {
+        Card card = this.hand.remove(index);
+        count(card, -1);
+        return card;
+    }
+
+    private void count(Card card, int delta) {
+        costCounts[Math.max(0, Math.min(MAX_COST, card.cost))] += delta;
+        typeCounts[card.cardType.ordinal()] += delta;
+        totalCost += delta * card.cost;
+        totalAttack += delta * card.attack;
+        totalDefense += delta * card.defense;
     }
 
     public int size() {
@@ -22,12 +56,49 @@ class Hand {
         return this.hand.get(index);
     }
 
+    // Number of cards with this cost, costs above MAX_COST are counted as MAX_COST
+    public int getCostCount(int cost) {
+        return costCounts[Math.max(0, Math.min(MAX_COST, cost))];
+    }
+
+    public int getTypeCount(CardType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    public int getTotalCost() {
+        return totalCost;
+    }
+
+    public double getAverageCost() {
+        return (double) totalCost / hand.size();
+    }
+
+    // Attack and defense as they were when the cards were added
+    public int getTotalAttack() {
+        return totalAttack;
+    }
+
+    public int getTotalDefense() {
+        return totalDefense;
+    }
+
+    public void clear() {
+        this.hand.clear();
+        Arrays.fill(costCounts, 0);
+        Arrays.fill(typeCounts, 0);
+        totalCost = 0;
+        totalAttack = 0;
+        totalDefense = 0;
+    }
+
     public Map<Integer, Long> getCardCostDistribution() {
-        return hand.stream()
-            .collect(Collectors.groupingBy(
-                c -> c.cost,
-                Collectors.counting()
-            ));
+        Map<Integer, Long> distribution = new HashMap<>();
+        for (int cost = 0; cost <= MAX_COST; cost++) {
+            if (costCounts[cost] > 0) {
+                distribution.put(cost, (long) costCounts[cost]);
+            }
+        }
+        return distribution;
     }
 
     @Override
@@ -42,7 +113,10 @@ enum CardType {
     CREATURE,
     GREEN_ITEM,
     RED_ITEM,
-    BLUE_ITEM
+    BLUE_ITEM;
+
+    // values() clones its array on every call, which the parser would do once per card
+    static final CardType[] VALUES = values();
 }
 
 enum CardAbility {
@@ -53,6 +127,8 @@ enum CardAbility {
     LETHAL('L'),
     WARD('W');
 
+    static final String INPUT_ORDER = "BCDGLW";
+
     private final char code;
 
     CardAbility(char code) {
@@ -62,6 +138,39 @@ enum CardAbility {
     public char getCode() {
         return code;
     }
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(String abilities) {
+        int mask = 0;
+        for (CardAbility ability : values()) {
+            if (abilities.indexOf(ability.code) != -1) {
+                mask |= ability.mask();
+            }
+        }
+        return mask;
+    }
+
+    // Same layout as the game input, e.g. "B--G-W"
+    public static String fromMask(int mask) {
+        char[] chars = new char[INPUT_ORDER.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char code = INPUT_ORDER.charAt(i);
+            chars[i] = (mask & fromCode(code).mask()) != 0 ? code : '-';
+        }
+        return new String(chars);
+    }
+
+    public static CardAbility fromCode(char code) {
+        for (CardAbility ability : values()) {
+            if (ability.code == code) {
+                return ability;
+            }
+        }
+        return null;
+    }
 }
 
 class Card {
@@ -73,6 +182,7 @@ class Card {
     int attack;
     int defense;
     String abilities;
+    int abilityMask;
     int myHealthChange;
     int opponentHealthChange;
     int cardDraw;
@@ -87,6 +197,7 @@ class Card {
         this.attack = attack;
         this.defense = defense;
         this.abilities = abilities;
+        this.abilityMask = CardAbility.maskOf(abilities);
         this.myHealthChange = myHealthChange;
         this.opponentHealthChange = opponentHealthChange;
         this.cardDraw = cardDraw;
@@ -103,7 +214,12 @@ class Card {
     }
 
     public Boolean hasAbility(CardAbility ability) {
-        return this.abilities.indexOf(ability.getCode()) != -1;
+        return (this.abilityMask & ability.mask()) != 0;
+    }
+
+    public void setAbilities(String abilities) {
+        this.abilities = abilities;
+        this.abilityMask = CardAbility.maskOf(abilities);
     }
 
     public void takeDamage(Card attacker) {
@@ -125,6 +241,10 @@ class SummonAction implements Action {
         this.instanceId = instanceId;
     }
 
+    public int getInstanceId() {
+        return instanceId;
+    }
+
     public String toString() {
         return String.format("SUMMON %d", instanceId);
     }
@@ -139,6 +259,14 @@ class AttackAction implements Action {
         this.targetId = targetId;
     }
 
+    public int getAttackerId() {
+        return attackerId;
+    }
+
+    public int getTargetId() {
+        return targetId;
+    }
+
     public String toString() {
         return String.format("ATTACK %d %d", this.attackerId, this.targetId);
     }
@@ -153,6 +281,14 @@ class UseAction implements Action {
         this.creatureId = creatureId;
     }
 
+    public int getItemId() {
+        return itemId;
+    }
+
+    public int getCreatureId() {
+        return creatureId;
+    }
+
     public String toString() {
         return String.format("USE %d %d", this.itemId, this.creatureId);
     }
@@ -171,6 +307,10 @@ class PickAction implements Action {
         this.instanceId = instanceId;
     }
 
+    public int getInstanceId() {
+        return instanceId;
+    }
+
     public String toString() {
         return "PICK " + instanceId;
     }
@@ -185,67 +325,75 @@ interface Strategy {
     public ArrayList<AttackAction> chooseAttacks(GameState gameState);
 
     public double getCardScore(Card card);
-}
 
-class BasicStrategy implements Strategy {
-    ArrayList<AttackAction> attackActions = new ArrayList<>();
-    ArrayList<SummonAction> summonActions = new ArrayList<>();
-
-    public Action chooseDrafts(GameState gameState) {
-        // Just pick first one
-        return new PassAction();
+    // Whole battle turn in output order; strategies that plan summons and attacks together override this
+    public default ArrayList<Action> chooseTurn(GameState gameState) {
+        ArrayList<Action> actions = new ArrayList<Action>();
+        actions.addAll(chooseAttacks(gameState));
+        actions.addAll(chooseSummons(gameState));
+        return actions;
     }
 
-    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
-        // Summon greedily
-        if (gameState.playerBoard.size() != 6) {
-            for (int i = 0; i < gameState.playerHand.size(); i++) {
-                Card card = gameState.playerHand.getCard(i);
-
-                if (card.cost <= gameState.getPlayerMana()) {
-                    gameState.setPlayerMana(gameState.getPlayerMana() - card.cost);
-                    summonActions.add(new SummonAction(card.instanceId));
-                }
-            }
-        }
-
-        return summonActions;
+    // Strategies that search until a deadline keep this and poll it, the default ignores it
+    public default void setTimeManager(TimeManager timeManager) {
     }
 
-    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
-        // By default attack face
-        // Attack guards first strategy
-        int targetId = gameState.opponentGuardCard()
-                .map(target -> target.instanceId)
-                .orElse(-1);
-
-        for (int i = 0; i < gameState.playerBoard.size(); i++) {
-            Card card = gameState.getPlayerBoardCard(i);
-            attackActions.add(new AttackAction(card.instanceId, targetId));
+    // chooseTurn as packed moves; search strategies override this to skip the Action objects
+    public default void chooseTurnMoves(GameState gameState, MoveList out) {
+        out.clear();
+        for (Action action : chooseTurn(gameState)) {
+            out.add(Move.fromAction(action));
         }
-
-        return attackActions;
-    }
-
-    public double getCardScore(Card card) {
-        return card.attack + card.defense;
     }
 }
 
 class BronzeStrategy implements Strategy {
+    // Indices into the weight vector, see DEFAULT_WEIGHTS. BronzeTuner searches over this vector.
+    static final int DEFENSE = 0;
+    static final int BREAKTHROUGH = 1;
+    static final int CHARGE = 2;
+    static final int DRAIN = 3;
+    static final int GUARD = 4;
+    static final int LETHAL = 5;
+    static final int WARD = 6;
+    static final int MY_HEALTH = 7;
+    static final int OPPONENT_HEALTH = 8;
+    static final int MAX_DRAFT_COST = 9;
+    static final int MAX_COST_COPIES = 10;
+    static final String[] WEIGHT_NAMES = { "defense", "breakthrough", "charge", "drain", "guard", "lethal", "ward",
+            "myHealth", "opponentHealth", "maxDraftCost", "maxCostCopies" };
+    static final double[] DEFAULT_WEIGHTS = { 0.25, 1, 0.9, 1.6, 2, 4, 1.2, 0.2, 0.2, 6, 6 };
+
     ArrayList<AttackAction> attackActions = new ArrayList<>();
     ArrayList<SummonAction> summonActions = new ArrayList<>();
+    final CardScoreCache scoreCache = new CardScoreCache(this::computeCardScore);
+    final double[] weights;
+    final int maxDraftCost;
+    final int maxCostCopies;
+    private double[] summonTable = new double[0];
+
+    public BronzeStrategy() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    public BronzeStrategy(double[] weights) {
+        this.weights = weights.clone();
+        this.maxDraftCost = (int) Math.round(weights[MAX_DRAFT_COST]);
+        this.maxCostCopies = (int) Math.round(weights[MAX_COST_COPIES]);
+    }
 
     public Action chooseDrafts(GameState gameState) {
         Card bestCard = null;
         int bestCardIndex = 0;
+        double bestScore = 0;
         for (int i = 0; i < gameState.playerHand.size(); i++) {
             Card currCard = gameState.playerHand.getCard(i);
             if (currCard.cardType == CardType.CREATURE) {
-                if (bestCard == null
-                        || getDraftScore(currCard, gameState) > getDraftScore(bestCard, gameState)) {
+                double score = getDraftScore(currCard, gameState);
+                if (bestCard == null || score > bestScore) {
                     bestCard = currCard;
                     bestCardIndex = i;
+                    bestScore = score;
                 }
             }
         }
@@ -259,34 +407,52 @@ class BronzeStrategy implements Strategy {
     }
 
     public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        summonActions = new ArrayList<>();
         // Summon based on best attack power card
         int mana = gameState.getPlayerMana();
-        double[][] dp = new double[gameState.playerHand.size() + 1][gameState.getPlayerMana() + 1]; // Hand size to
-                                                                                                    // mana, 2D array -
-                                                                                                    // stores optimal
-                                                                                                    // score
-        // Knapsack alg - item either in or out, take max of either case
-        if (gameState.playerBoard.size() == 6) {
+        int slots = 6 - gameState.playerBoard.size();
+        int cards = gameState.playerHand.size();
+        // Knapsack alg - item either in or out, take max of either case. Creatures also take one of the free
+        // board slots, so the table is hand size x mana x free slots, stored flat and reused between turns
+        if (slots <= 0) {
             return summonActions;
         }
-        for (int i = 1; i <= gameState.playerHand.size(); i++) {
+        int manaSize = mana + 1;
+        int slotSize = slots + 1;
+        int size = (cards + 1) * manaSize * slotSize;
+        if (summonTable.length < size) {
+            summonTable = new double[size];
+        }
+        double[] dp = summonTable;
+        Arrays.fill(dp, 0, manaSize * slotSize, 0);
+        for (int i = 1; i <= cards; i++) {
             Card card = gameState.playerHand.getCard(i - 1);
-            for (int m = 0; m <= gameState.getPlayerMana(); m++) {
-                if (card.cost <= m) {
-                    dp[i][m] = Math.max(dp[i - 1][m], dp[i - 1][m - card.cost] + getCardScore(card));
-                } else {
-                    dp[i][m] = dp[i - 1][m];
+            int slotCost = card.cardType == CardType.CREATURE ? 1 : 0;
+            double score = getCardScore(card);
+            int row = i * manaSize * slotSize;
+            int previous = row - manaSize * slotSize;
+            for (int m = 0; m <= mana; m++) {
+                for (int s = 0; s <= slots; s++) {
+                    int cell = m * slotSize + s;
+                    if (card.cost <= m && slotCost <= s) {
+                        dp[row + cell] = Math.max(dp[previous + cell],
+                                dp[previous + (m - card.cost) * slotSize + s - slotCost] + score);
+                    } else {
+                        dp[row + cell] = dp[previous + cell];
+                    }
                 }
             }
         }
 
         // Adding the optimal actions via backtracking (the cards which contributed to
         // the optimal solution)
-        for (int i = gameState.playerHand.size(); i > 0 && mana > 0; i--) {
-            if (dp[i][mana] != dp[i - 1][mana]) {
+        for (int i = cards; i > 0 && mana > 0; i--) {
+            int cell = mana * slotSize + slots;
+            if (dp[i * manaSize * slotSize + cell] != dp[(i - 1) * manaSize * slotSize + cell]) {
                 Card card = gameState.playerHand.getCard(i - 1);
                 summonActions.add(new SummonAction(card.instanceId));
                 mana -= card.cost;
+                slots -= card.cardType == CardType.CREATURE ? 1 : 0;
             }
         }
         Collections.reverse(summonActions);
@@ -295,6 +461,7 @@ class BronzeStrategy implements Strategy {
     }
 
     public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        attackActions = new ArrayList<>();
         // By default attack face
         // Attack guards first strategy
 
@@ -331,42 +498,46 @@ class BronzeStrategy implements Strategy {
     }
 
     public double getCardScore(Card card) {
+        return scoreCache.get(card);
+    }
+
+    double computeCardScore(Card card) {
         if (card.cardType != CardType.CREATURE) {
             return 0;
         }
 
-        double score = card.attack + (0.25 * card.defense);
+        double score = card.attack + (weights[DEFENSE] * card.defense);
 
         if (card.hasAbility(CardAbility.BREAKTHROUGH)) {
-            score = score * 1;
+            score = score * weights[BREAKTHROUGH];
         }
 
         if (card.hasAbility(CardAbility.CHARGE)) {
-            score = score * 0.9; // My strategy doesnt support charging yet
+            score = score * weights[CHARGE]; // My strategy doesnt support charging yet
         }
 
         if (card.hasAbility(CardAbility.DRAIN)) {
-            score = score * 1.6;
+            score = score * weights[DRAIN];
         }
 
         if (card.hasAbility(CardAbility.GUARD)) {
-            score = score * 2;
+            score = score * weights[GUARD];
         }
 
         if (card.hasAbility(CardAbility.LETHAL)) {
-            score = score * 4;
+            score = score * weights[LETHAL];
         }
 
         if (card.hasAbility(CardAbility.WARD)) {
-            score = score * 1.2;
+            score = score * weights[WARD];
         }
 
         if (card.myHealthChange > 0) {
-            score = score * (1 + (0.2 * card.myHealthChange));
+            score = score * (1 + (weights[MY_HEALTH] * card.myHealthChange));
         }
 
         if (card.opponentHealthChange < 0) {
-            score = score * (1 + (0.2 * -card.opponentHealthChange));
+            score = score * (1 + (weights[OPPONENT_HEALTH] * -card.opponentHealthChange));
         }
 
         score = score * (card.cardDraw + 1);
@@ -375,14 +546,13 @@ class BronzeStrategy implements Strategy {
 
     public double getDraftScore(Card card, GameState gameState) {
         double averageDraftCost = gameState.getAverageDraftCost();
-        Map<Integer, Long> costDist = gameState.playerDeck.getCardCostDistribution();
-        if (card.cost > 6) { // Too big is a waste to lethal
+        if (card.cost > maxDraftCost) { // Too big is a waste to lethal
             return 0;
         }
 
         
-        long costFreq = costDist.getOrDefault(card.cost, 0L);
-        if (costFreq >= 6) {
+        long costFreq = gameState.playerDeck.getCostCount(card.cost);
+        if (costFreq >= maxCostCopies) {
             return -costFreq; // Too many of this cost already
         }
         double idealCost = 0;
@@ -395,196 +565,2183 @@ class BronzeStrategy implements Strategy {
 
 }
 
-class GameState {
-    private int playerHealth;
-    private int playerMana;
-    private int countPlayerDeck;
-    private int playerRune;
-    private int countPlayerDrawn;
+class InputReader {
+    private static final String ABILITY_ORDER = CardAbility.INPUT_ORDER;
+    private static final String[] ABILITY_STRINGS = new String[1 << ABILITY_ORDER.length()];
 
-    private int opponentHealth;
-    private int opponentMana;
-    private int opponentDeck;
-    private int opponentRune;
-    private int opponentDraw;
-    private int opponentHand;
+    static {
+        // Every ability string the referee sends is one of 64 patterns, so share one instance per pattern
+        for (int mask = 0; mask < ABILITY_STRINGS.length; mask++) {
+            char[] chars = new char[ABILITY_ORDER.length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (mask & (1 << i)) != 0 ? ABILITY_ORDER.charAt(i) : '-';
+            }
+            ABILITY_STRINGS[mask] = new String(chars);
+        }
+    }
 
-    ArrayList<String> opponentActions;
+    private final InputStream in;
+    private final byte[] buffer;
+    private int length;
+    private int pointer;
+    private boolean waitingForTurn;
+    private long turnStartNanos;
+    private byte[] lineBuffer = new byte[64];
 
-    Hand playerHand;
-    Hand playerDeck; // This does not get parsed via the game input - have to manually update
-    ArrayList<Card> playerBoard;
-    ArrayList<Card> opponentBoard;
+    public InputReader(InputStream in) {
+        this(in, 1 << 16);
+    }
 
-    public GameState(Hand playerDeck) {
-        this.playerHand = new Hand();
-        this.playerDeck = playerDeck;
-        this.playerBoard = new ArrayList<>();
-        this.opponentBoard = new ArrayList<>();
-        this.opponentActions = new ArrayList<>();
+    public InputReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
     }
 
-    public static void readPlayerStats(Scanner in, GameState gameState) {
-        gameState.playerHealth = in.nextInt();
-        gameState.playerMana = in.nextInt();
-        gameState.countPlayerDeck = in.nextInt();
-        gameState.playerRune = in.nextInt();
-        gameState.countPlayerDrawn = in.nextInt();
+    private int peek() {
+        if (pointer == length) {
+            try {
+                length = in.read(buffer, 0, buffer.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (waitingForTurn) {
+                turnStartNanos = System.nanoTime();
+                waitingForTurn = false;
+            }
+            pointer = 0;
+            if (length <= 0) {
+                length = 0;
+                return -1;
+            }
+        }
+        return buffer[pointer];
+    }
 
-        gameState.opponentHealth = in.nextInt();
-        gameState.opponentMana = in.nextInt();
-        gameState.opponentDeck = in.nextInt();
-        gameState.opponentRune = in.nextInt();
-        gameState.opponentDraw = in.nextInt();
+    private int read() {
+        int c = peek();
+        if (c != -1) {
+            pointer++;
+        }
+        return c;
     }
 
-    public static void readOpponentActions(Scanner in, GameState gameState) {
-        gameState.opponentHand = in.nextInt();
-        int numOpponentActions = in.nextInt();
+    // Tokens stop at the delimiter without consuming it, so line handling after a number still sees the line end
+    private int skipWhitespace() {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            pointer++;
+            c = peek();
+        }
+        if (c == -1) {
+            throw new NoSuchElementException();
+        }
+        return c;
+    }
+
+    public int nextInt() {
+        int c = skipWhitespace();
+        boolean negative = c == '-';
+        if (negative) {
+            pointer++;
+            c = peek();
+        }
+        int result = 0;
+        while (c >= '0' && c <= '9') {
+            result = result * 10 + (c - '0');
+            pointer++;
+            c = peek();
+        }
+        return negative ? -result : result;
+    }
 
-        if (in.hasNextLine()) {
-            in.nextLine();
+    public String next() {
+        int c = skipWhitespace();
+        int len = 0;
+        while (c > ' ') {
+            len = appendToLine(len, c);
+            pointer++;
+            c = peek();
         }
+        return new String(lineBuffer, 0, len);
+    }
 
-        for (int i = 0; i < numOpponentActions; i++) {
-            if (in.hasNextLine()) {
-                gameState.opponentActions.add(in.nextLine());
+    public String nextAbilities() {
+        int c = skipWhitespace();
+        int mask = 0;
+        int len = 0;
+        boolean canonical = true;
+        while (c > ' ') {
+            if (len >= ABILITY_ORDER.length()) {
+                canonical = false;
+            } else if (c == ABILITY_ORDER.charAt(len)) {
+                mask |= 1 << len;
+            } else if (c != '-') {
+                canonical = false;
             }
+            len = appendToLine(len, c);
+            pointer++;
+            c = peek();
+        }
+        if (canonical && len == ABILITY_ORDER.length()) {
+            return ABILITY_STRINGS[mask];
         }
+        return new String(lineBuffer, 0, len);
     }
 
-    public static void initialiseCards(Scanner in, GameState gameState, Boolean isDraftTurn) {
-        int cardCount = in.nextInt();
+    // The turn clock starts when the referee's input arrives, not when we start waiting for it
+    public void markTurn() {
+        if (pointer < length) {
+            turnStartNanos = System.nanoTime();
+            waitingForTurn = false;
+        } else {
+            waitingForTurn = true;
+        }
+    }
 
-        for (int i = 0; i < cardCount; i++) {
-            int cardNumber = in.nextInt();
-            int instanceId = in.nextInt();
-            int location = in.nextInt();
-            CardType cardType = CardType.values()[in.nextInt()];
-            int cost = in.nextInt();
-            int attack = in.nextInt();
-            int defense = in.nextInt();
-            String abilities = in.next();
-            int myHealthChange = in.nextInt();
-            int opponentHealthChange = in.nextInt();
-            int cardDraw = in.nextInt();
+    public long getTurnStartNanos() {
+        return turnStartNanos;
+    }
 
-            Card card = new Card(cardNumber, instanceId, cardType, location, cost, attack, defense, abilities,
-                    myHealthChange, opponentHealthChange, cardDraw);
+    public boolean hasNextLine() {
+        return peek() != -1;
+    }
 
-            if (!isDraftTurn) {
-                switch (location) {
-                    case 0:
-                        gameState.playerHand.addCard(card);
-                        break;
-                    case 1:
-                        gameState.playerBoard.add(card);
-                        break;
-                    case -1:
-                        gameState.opponentBoard.add(card);
-                        break;
-                }
-            } else {
-                gameState.playerHand.addCard(card);
+    public String nextLine() {
+        int len = 0;
+        int c = read();
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                len = appendToLine(len, c);
             }
+            c = read();
         }
+        return new String(lineBuffer, 0, len);
     }
 
-    public int getPlayerMana() {
-        return this.playerMana;
+    public void skipLine() {
+        int c = read();
+        while (c != -1 && c != '\n') {
+            c = read();
+        }
     }
 
-    public void setPlayerMana(int mana) {
-        this.playerMana = mana;
+    private int appendToLine(int len, int c) {
+        if (len == lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, len * 2);
+        }
+        lineBuffer[len] = (byte) c;
+        return len + 1;
     }
+}
 
-    public static GameState readGameState(Scanner in, Boolean isDraftTurn) {
-        return readGameState(in, isDraftTurn, null); // first time: no previous state
+// Struct-of-arrays copy of a GameState for search: fixed-size primitive arrays so copies never allocate.
+// Slots [0, 6) are the player board, [6, 12) the opponent board and [12, 20) the player hand.
+class PackedState {
+    static final int BOARD_SIZE = 6;
+    static final int HAND_SIZE = 8;
+    static final int HAND = 2 * BOARD_SIZE;
+    static final int SLOTS = HAND + HAND_SIZE;
+
+    final int[] instanceId = new int[SLOTS];
+    final int[] cardNumber = new int[SLOTS];
+    final int[] cardType = new int[SLOTS];
+    final int[] cost = new int[SLOTS];
+    final int[] attack = new int[SLOTS];
+    final int[] defense = new int[SLOTS];
+    final int[] abilities = new int[SLOTS]; // CardAbility mask
+    final int[] myHealthChange = new int[SLOTS];
+    final int[] opponentHealthChange = new int[SLOTS];
+    final int[] cardDraw = new int[SLOTS];
+    final boolean[] canAttack = new boolean[SLOTS];
+
+    // Per side stats, index 0 is the player and 1 the opponent
+    final int[] health = new int[2];
+    final int[] mana = new int[2];
+    final int[] deck = new int[2];
+    final int[] rune = new int[2];
+    final int[] draw = new int[2];
+    final int[] boardCount = new int[2];
+    int handCount;
+    int opponentHandCount;
+
+    // Zobrist key of the position. BattleSimulator keeps it up to date; code that writes the arrays
+    // directly calls rehash() afterwards.
+    long hash;
+
+    // Set while a search makes and unmakes moves on this state: every slot is recorded before it changes
+    UndoStack undo;
+
+    static int boardStart(int side) {
+        return side * BOARD_SIZE;
+    }
 
+    public static PackedState fromGameState(GameState gameState) {
+        PackedState packed = new PackedState();
+        packed.load(gameState);
+        return packed;
     }
-    public static GameState readGameState(Scanner in, Boolean isDraftTurn, GameState prevGameState) {
-        Hand deck = (prevGameState != null) ? prevGameState.playerDeck : new Hand();
-        GameState gameState = new GameState(deck); // persist the playerDeck
-        readPlayerStats(in, gameState);
-        readOpponentActions(in, gameState);
-        initialiseCards(in, gameState, isDraftTurn);
 
-        return gameState;
+    public void load(GameState gameState) {
+        health[0] = gameState.getPlayerHealth();
+        mana[0] = gameState.getPlayerMana();
+        deck[0] = gameState.getCountPlayerDeck();
+        rune[0] = gameState.getPlayerRune();
+        draw[0] = gameState.getCountPlayerDrawn();
+        health[1] = gameState.getOpponentHealth();
+        mana[1] = gameState.getOpponentMana();
+        deck[1] = gameState.getOpponentDeck();
+        rune[1] = gameState.getOpponentRune();
+        draw[1] = gameState.getOpponentDraw();
+        opponentHandCount = gameState.getOpponentHand();
+
+        boardCount[0] = 0;
+        boardCount[1] = 0;
+        handCount = 0;
+        for (Card card : gameState.playerBoard) {
+            canAttack[addToBoard(0, card)] = true;
+        }
+        for (Card card : gameState.opponentBoard) {
+            addToBoard(1, card);
+        }
+        for (int i = 0; i < gameState.playerHand.size(); i++) {
+            addToHand(gameState.playerHand.getCard(i));
+        }
+        rehash();
     }
 
-    public Card getPlayerBoardCard(int index) {
-        return playerBoard.get(index);
+    public void rehash() {
+        long key = sideKey(0) ^ sideKey(1);
+        for (int side = 0; side < 2; side++) {
+            for (int i = boardStart(side), end = i + boardCount[side]; i < end; i++) {
+                key ^= slotKey(i);
+            }
+        }
+        for (int i = HAND, end = HAND + handCount; i < end; i++) {
+            key ^= slotKey(i);
+        }
+        hash = key;
     }
 
-    public Card getOpponentBoardCard(int index) {
-        return opponentBoard.get(index);
+    long slotKey(int slot) {
+        return Zobrist.card(slot >= HAND ? 2 : slot / BOARD_SIZE, instanceId[slot], attack[slot], defense[slot],
+                abilities[slot], canAttack[slot]);
     }
 
-    public Card getOpponentBoardCardById(int id) {
-        return opponentBoard.stream()
-        .filter(c -> c.instanceId == id)
-        .findFirst()
-        .orElse(null); // returns null if not found
+    long sideKey(int side) {
+        return Zobrist.side(side, health[side], mana[side], draw[side]);
     }
 
-    public Optional<Card> opponentGuardCard() {
-        return opponentBoard.stream().filter(card -> card.abilities.contains("G")).findFirst();
+    // Adds or removes a card or the stats of a side from the hash, XOR makes both the same operation
+    void toggleSlot(int slot) {
+        // BattleSimulator toggles a slot out of the hash before it changes the card, so that is where the
+        // old card is saved for undo
+        if (undo != null) {
+            undo.saveSlot(this, slot, false);
+        }
+        hash ^= slotKey(slot);
     }
 
-    public Optional<Card> opponentHighestScoreCard(Strategy strategy) {
-        return opponentBoard.stream().max(Comparator.comparingDouble(c -> strategy.getCardScore(c)));
+    void toggleSide(int side) {
+        hash ^= sideKey(side);
     }
 
-    public double getAverageDraftCost() {
-        double cost = 0;
-        for (int i = 0; i < this.playerHand.size(); i++) {
-            Card card = this.playerHand.getCard(i);
-            cost += card.cost;
-        }
-        return cost / this.playerHand.size();
+    public PackedState copy() {
+        PackedState copy = new PackedState();
+        copyInto(copy);
+        return copy;
     }
-}
 
-class Player {
-    private static Boolean isDraftTurn = true;
-    private static GameState gameState;
+    public void copyInto(PackedState target) {
+        System.arraycopy(instanceId, 0, target.instanceId, 0, SLOTS);
+        System.arraycopy(cardNumber, 0, target.cardNumber, 0, SLOTS);
+        System.arraycopy(cardType, 0, target.cardType, 0, SLOTS);
+        System.arraycopy(cost, 0, target.cost, 0, SLOTS);
+        System.arraycopy(attack, 0, target.attack, 0, SLOTS);
+        System.arraycopy(defense, 0, target.defense, 0, SLOTS);
+        System.arraycopy(abilities, 0, target.abilities, 0, SLOTS);
+        System.arraycopy(myHealthChange, 0, target.myHealthChange, 0, SLOTS);
+        System.arraycopy(opponentHealthChange, 0, target.opponentHealthChange, 0, SLOTS);
+        System.arraycopy(cardDraw, 0, target.cardDraw, 0, SLOTS);
+        System.arraycopy(canAttack, 0, target.canAttack, 0, SLOTS);
+        System.arraycopy(health, 0, target.health, 0, 2);
+        System.arraycopy(mana, 0, target.mana, 0, 2);
+        System.arraycopy(deck, 0, target.deck, 0, 2);
+        System.arraycopy(rune, 0, target.rune, 0, 2);
+        System.arraycopy(draw, 0, target.draw, 0, 2);
+        System.arraycopy(boardCount, 0, target.boardCount, 0, 2);
+        target.handCount = handCount;
+        target.opponentHandCount = opponentHandCount;
+        target.hash = hash;
+    }
 
-    public static void main(String args[]) {
-        int turnNum = 0;
+    public int addToBoard(int side, Card card) {
+        int slot = boardStart(side) + boardCount[side]++;
+        setCard(slot, card);
+        return slot;
+    }
 
-        Scanner in = new Scanner(System.in);
+    public int addToHand(Card card) {
+        int slot = HAND + handCount++;
+        setCard(slot, card);
+        return slot;
+    }
 
-        // game loop
-        while (true) {
-            turnNum++;
-            if (turnNum == 31) {
-                isDraftTurn = false;
+    public void setCard(int slot, Card card) {
+        instanceId[slot] = card.instanceId;
+        cardNumber[slot] = card.cardNumber;
+        cardType[slot] = card.cardType.ordinal();
+        cost[slot] = card.cost;
+        attack[slot] = card.attack;
+        defense[slot] = card.defense;
+        abilities[slot] = card.abilityMask;
+        myHealthChange[slot] = card.myHealthChange;
+        opponentHealthChange[slot] = card.opponentHealthChange;
+        cardDraw[slot] = card.cardDraw;
+        canAttack[slot] = false;
+    }
+
+    public void copySlot(int from, int to) {
+        instanceId[to] = instanceId[from];
+        cardNumber[to] = cardNumber[from];
+        cardType[to] = cardType[from];
+        cost[to] = cost[from];
+        attack[to] = attack[from];
+        defense[to] = defense[from];
+        abilities[to] = abilities[from];
+        myHealthChange[to] = myHealthChange[from];
+        opponentHealthChange[to] = opponentHealthChange[from];
+        cardDraw[to] = cardDraw[from];
+        canAttack[to] = canAttack[from];
+    }
+
+    // Removes a slot from its zone, shifting later cards down so the zone order is kept
+    public void removeSlot(int slot) {
+        if (undo != null) {
+            undo.saveSlot(this, slot, true);
+        }
+        int end;
+        if (slot >= HAND) {
+            end = HAND + --handCount;
+        } else {
+            int side = slot / BOARD_SIZE;
+            end = boardStart(side) + --boardCount[side];
+        }
+        for (int i = slot; i < end; i++) {
+            copySlot(i + 1, i);
+        }
+    }
+
+    public int findSlot(int id) {
+        for (int side = 0; side < 2; side++) {
+            for (int i = boardStart(side), end = i + boardCount[side]; i < end; i++) {
+                if (instanceId[i] == id) {
+                    return i;
+                }
             }
-            
-            if (gameState == null) {
-                gameState = GameState.readGameState(in, isDraftTurn);
-            } else {
-                gameState = GameState.readGameState(in, isDraftTurn, gameState);
+        }
+        for (int i = HAND, end = HAND + handCount; i < end; i++) {
+            if (instanceId[i] == id) {
+                return i;
             }
+        }
+        return -1;
+    }
 
-            ArrayList<Action> actions = new ArrayList<Action>();
-            Strategy bronzeStrategy = new BronzeStrategy();
+    public boolean hasAbility(int slot, CardAbility ability) {
+        return (abilities[slot] & ability.mask()) != 0;
+    }
 
-            if (isDraftTurn) { // Draft Strategies
-                actions.add(bronzeStrategy.chooseDrafts(gameState));
-            } else { // Battle Strategies
+    public int location(int slot) {
+        if (slot >= HAND) {
+            return 0;
+        }
+        return slot < BOARD_SIZE ? 1 : -1;
+    }
+
+    public Card toCard(int slot) {
+        return new Card(cardNumber[slot], instanceId[slot], CardType.VALUES[cardType[slot]], location(slot),
+                cost[slot], attack[slot], defense[slot], CardAbility.fromMask(abilities[slot]),
+                myHealthChange[slot], opponentHealthChange[slot], cardDraw[slot]);
+    }
+}
+
+// Zobrist keys for PackedState. A position hashes to the XOR of one key per card and one per side, so
+// the hash can be updated one card at a time. Cards are keyed by instance id and zone instead of slot
+// index: removing or summoning cards shifts slots, and two orders of the same actions should still meet.
+// The stats of a card are mixed into its key rather than XORed as separate keys, otherwise two cards
+// could swap their attack values without changing the hash.
+class Zobrist {
+    static final int ZONES = 3; // player board, opponent board, hand
+    static final int IDS = 256;
+    static final int HEALTH_VALUES = 128;
+    static final int MANA_VALUES = 16;
+    static final int DRAW_VALUES = 16;
+
+    private static final long[] CARD_KEYS = new long[ZONES * IDS];
+    private static final long[] HEALTH_KEYS = new long[2 * HEALTH_VALUES];
+    private static final long[] MANA_KEYS = new long[2 * MANA_VALUES];
+    private static final long[] DRAW_KEYS = new long[2 * DRAW_VALUES];
+
+    static {
+        long seed = 0x4C6F434D;
+        for (long[] keys : new long[][] { CARD_KEYS, HEALTH_KEYS, MANA_KEYS, DRAW_KEYS }) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = mix(seed += 0x9E3779B97F4A7C15L);
+            }
+        }
+    }
+
+    // SplitMix64 finaliser
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 
-                actions.addAll(bronzeStrategy.chooseAttacks(gameState));
-                actions.addAll(bronzeStrategy.chooseSummons(gameState));
+    static long card(int zone, int instanceId, int attack, int defense, int abilities, boolean canAttack) {
+        long stats = (attack & 0xFFFL) << 20 | (defense & 0xFFFL) << 8 | (abilities & 0x3F) << 1
+                | (canAttack ? 1 : 0);
+        return mix(CARD_KEYS[zone * IDS + (instanceId & (IDS - 1))] + stats);
+    }
+
+    static long side(int side, int health, int mana, int draw) {
+        return HEALTH_KEYS[side * HEALTH_VALUES + (health & (HEALTH_VALUES - 1))]
+                ^ MANA_KEYS[side * MANA_VALUES + (mana & (MANA_VALUES - 1))]
+                ^ DRAW_KEYS[side * DRAW_VALUES + (draw & (DRAW_VALUES - 1))];
+    }
+}
 
-                if (actions.size() == 0) {
-                    actions.add(new PassAction());
+// Forward model for the battle phase. Actions are applied in place for the player to move (side 0) and
+// return false, leaving the state untouched, when the referee would reject them.
+class BattleSimulator {
+    static final int[] RUNES = { 25, 20, 15, 10, 5 };
+
+    public static PackedState next(PackedState state, Action action) {
+        PackedState next = state.copy();
+        apply(next, action);
+        return next;
+    }
+
+    public static boolean apply(PackedState state, Action action) {
+        if (action instanceof SummonAction) {
+            return summon(state, ((SummonAction) action).getInstanceId());
+        }
+        if (action instanceof AttackAction) {
+            AttackAction attack = (AttackAction) action;
+            return attack(state, attack.getAttackerId(), attack.getTargetId());
+        }
+        if (action instanceof UseAction) {
+            UseAction use = (UseAction) action;
+            return use(state, use.getItemId(), use.getCreatureId());
+        }
+        return action instanceof PassAction;
+    }
+
+    public static boolean summon(PackedState state, int instanceId) {
+        int slot = state.findSlot(instanceId);
+        if (slot < PackedState.HAND || state.cardType[slot] != CardType.CREATURE.ordinal()
+                || state.cost[slot] > state.mana[0] || state.boardCount[0] == PackedState.BOARD_SIZE) {
+            return false;
+        }
+        spendMana(state, state.cost[slot]);
+        int boardSlot = PackedState.boardStart(0) + state.boardCount[0]++;
+        state.copySlot(slot, boardSlot);
+        state.canAttack[boardSlot] = state.hasAbility(boardSlot, CardAbility.CHARGE);
+        state.toggleSlot(boardSlot);
+        applyCardEffects(state, boardSlot);
+        state.toggleSlot(slot);
+        state.removeSlot(slot);
+        return true;
+    }
+
+    public static boolean use(PackedState state, int itemId, int targetId) {
+        int slot = state.findSlot(itemId);
+        if (slot < PackedState.HAND || state.cost[slot] > state.mana[0]) {
+            return false;
+        }
+        int target = targetId == -1 ? -1 : state.findSlot(targetId);
+        int type = state.cardType[slot];
+        if (type == CardType.GREEN_ITEM.ordinal()) {
+            if (target < 0 || state.location(target) != 1) {
+                return false;
+            }
+            state.toggleSlot(target);
+            state.attack[target] += state.attack[slot];
+            state.defense[target] += state.defense[slot];
+            state.abilities[target] |= state.abilities[slot];
+            state.toggleSlot(target);
+        } else if (type == CardType.RED_ITEM.ordinal() || type == CardType.BLUE_ITEM.ordinal()) {
+            if (target == -1 && targetId == -1 && type == CardType.BLUE_ITEM.ordinal()) {
+                changeHealth(state, 1, state.defense[slot]);
+            } else if (target >= 0 && state.location(target) == -1) {
+                // Abilities are removed before the damage lands, so an item that strips ward also hits
+                state.toggleSlot(target);
+                state.abilities[target] &= ~state.abilities[slot];
+                state.attack[target] = Math.max(0, state.attack[target] + state.attack[slot]);
+                dealDamage(state, target, -state.defense[slot], false);
+                if (state.defense[target] <= 0) {
+                    state.removeSlot(target);
+                } else {
+                    state.toggleSlot(target);
+                }
+            } else {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        spendMana(state, state.cost[slot]);
+        applyCardEffects(state, slot);
+        state.toggleSlot(slot);
+        state.removeSlot(slot);
+        return true;
+    }
+
+    public static boolean attack(PackedState state, int attackerId, int targetId) {
+        int attacker = state.findSlot(attackerId);
+        if (attacker < 0 || state.location(attacker) != 1 || !state.canAttack[attacker]) {
+            return false;
+        }
+        int target = targetId == -1 ? -1 : state.findSlot(targetId);
+        if (targetId != -1 && (target < 0 || state.location(target) != -1)) {
+            return false;
+        }
+        if (hasGuard(state, 1) && (target < 0 || !state.hasAbility(target, CardAbility.GUARD))) {
+            return false;
+        }
+        state.toggleSlot(attacker);
+        state.canAttack[attacker] = false;
+        int power = state.attack[attacker];
+
+        if (target == -1) {
+            state.toggleSlot(attacker);
+            changeHealth(state, 1, -power);
+            if (power > 0 && state.hasAbility(attacker, CardAbility.DRAIN)) {
+                changeHealth(state, 0, power);
+            }
+            return true;
+        }
+
+        state.toggleSlot(target);
+        int defenderDefense = state.defense[target];
+        int dealt = dealDamage(state, target, power, state.hasAbility(attacker, CardAbility.LETHAL));
+        dealDamage(state, attacker, state.attack[target], state.hasAbility(target, CardAbility.LETHAL));
+
+        if (dealt > 0 && state.hasAbility(attacker, CardAbility.BREAKTHROUGH) && power > defenderDefense) {
+            changeHealth(state, 1, defenderDefense - power);
+        }
+        if (dealt > 0 && state.hasAbility(attacker, CardAbility.DRAIN)) {
+            changeHealth(state, 0, dealt);
+        }
+
+        // Opponent slots come after player slots, so remove the target first to keep the attacker slot valid
+        if (state.defense[target] <= 0) {
+            state.removeSlot(target);
+        } else {
+            state.toggleSlot(target);
+        }
+        if (state.defense[attacker] <= 0) {
+            state.removeSlot(attacker);
+        } else {
+            state.toggleSlot(attacker);
+        }
+        return true;
+    }
+
+    public static boolean hasGuard(PackedState state, int side) {
+        for (int i = PackedState.boardStart(side), end = i + state.boardCount[side]; i < end; i++) {
+            if (state.hasAbility(i, CardAbility.GUARD)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the damage that landed; ward absorbs one hit and lethal kills on any damage
+    static int dealDamage(PackedState state, int slot, int amount, boolean lethal) {
+        if (amount <= 0) {
+            return 0;
+        }
+        if (state.hasAbility(slot, CardAbility.WARD)) {
+            state.abilities[slot] &= ~CardAbility.WARD.mask();
+            return 0;
+        }
+        state.defense[slot] = lethal ? 0 : state.defense[slot] - amount;
+        return amount;
+    }
+
+    static void applyCardEffects(PackedState state, int slot) {
+        changeHealth(state, 0, state.myHealthChange[slot]);
+        changeHealth(state, 1, state.opponentHealthChange[slot]);
+        state.toggleSide(0);
+        state.draw[0] += state.cardDraw[slot];
+        state.toggleSide(0);
+    }
+
+    static void spendMana(PackedState state, int amount) {
+        state.toggleSide(0);
+        state.mana[0] -= amount;
+        state.toggleSide(0);
+    }
+
+    // Each rune the health falls to breaks and gives its owner an extra card next turn
+    static void changeHealth(PackedState state, int side, int amount) {
+        state.toggleSide(side);
+        state.health[side] += amount;
+        while (state.rune[side] > 0 && state.health[side] <= state.rune[side]) {
+            state.rune[side] -= 5;
+            state.draw[side]++;
+        }
+        state.toggleSide(side);
+    }
+
+    public static boolean isWon(PackedState state) {
+        return state.health[1] <= 0;
+    }
+}
+
+// Make/unmake for depth-first search on one mutable PackedState. make() saves the side stats and hash,
+// then applies the move with the state attached, so BattleSimulator saves each card before changing it
+// (toggleSlot) or removing it (removeSlot). unmake() replays those records backwards: changed cards are
+// written back and removed ones are inserted again at their slot. A typical move records two to four
+// cards of 12 ints each in place of copying the whole state, and nothing is allocated once the arrays
+// have grown to the search depth.
+class UndoStack {
+    static final int SIDE_STATS = 11;
+    static final int ENTRY = 12; // slot, then the 11 per card fields
+    static final int REMOVED = 1 << 8;
+
+    private int[] entries = new int[64 * ENTRY];
+    private int entryCount;
+    private int[] frames = new int[32];
+    private int[] sideStats = new int[32 * SIDE_STATS];
+    private long[] hashes = new long[32];
+    private int depth;
+    private int saved; // slots already saved by the current make, bit per slot
+
+    public int depth() {
+        return depth;
+    }
+
+    // Forgets every frame without restoring anything, for callers that keep the moves made so far
+    public void clear() {
+        depth = 0;
+        entryCount = 0;
+    }
+
+    // Applies the move and returns true, or returns false and leaves the state and stack as they were
+    public boolean make(PackedState state, int move) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, 2 * depth);
+            sideStats = Arrays.copyOf(sideStats, 2 * depth * SIDE_STATS);
+            hashes = Arrays.copyOf(hashes, 2 * depth);
+        }
+        frames[depth] = entryCount;
+        hashes[depth] = state.hash;
+        int s = depth * SIDE_STATS;
+        for (int side = 0; side < 2; side++) {
+            sideStats[s++] = state.health[side];
+            sideStats[s++] = state.mana[side];
+            sideStats[s++] = state.rune[side];
+            sideStats[s++] = state.draw[side];
+            sideStats[s++] = state.boardCount[side];
+        }
+        sideStats[s] = state.handCount;
+        depth++;
+        saved = 0;
+
+        state.undo = this;
+        boolean legal = Move.apply(state, move);
+        state.undo = null;
+        if (!legal) {
+            unmake(state);
+        }
+        return legal;
+    }
+
+    public void unmake(PackedState state) {
+        depth--;
+        int start = frames[depth];
+        for (int e = entryCount - ENTRY; e >= start; e -= ENTRY) {
+            int slot = entries[e] & (REMOVED - 1);
+            if ((entries[e] & REMOVED) != 0) {
+                int end = slot >= PackedState.HAND ? PackedState.HAND + state.handCount
+                        : PackedState.boardStart(slot / PackedState.BOARD_SIZE)
+                                + state.boardCount[slot / PackedState.BOARD_SIZE];
+                for (int i = end; i > slot; i--) {
+                    state.copySlot(i - 1, i);
+                }
+                if (slot >= PackedState.HAND) {
+                    state.handCount++;
+                } else {
+                    state.boardCount[slot / PackedState.BOARD_SIZE]++;
+                }
+            }
+            restoreSlot(state, slot, e + 1);
+        }
+        entryCount = start;
+
+        int s = depth * SIDE_STATS;
+        for (int side = 0; side < 2; side++) {
+            state.health[side] = sideStats[s++];
+            state.mana[side] = sideStats[s++];
+            state.rune[side] = sideStats[s++];
+            state.draw[side] = sideStats[s++];
+            state.boardCount[side] = sideStats[s++];
+        }
+        state.handCount = sideStats[s];
+        state.hash = hashes[depth];
+    }
+
+    void saveSlot(PackedState state, int slot, boolean removed) {
+        // The first save of a slot in a move holds its card from before the move, later changes add nothing.
+        // A removal shifts the later slots of its zone down, so those have to be saved again.
+        if (removed) {
+            int zoneEnd = slot >= PackedState.HAND ? PackedState.SLOTS
+                    : PackedState.boardStart(slot / PackedState.BOARD_SIZE) + PackedState.BOARD_SIZE;
+            saved &= ~((1 << zoneEnd) - (1 << slot));
+        } else if ((saved & 1 << slot) != 0) {
+            return;
+        } else {
+            saved |= 1 << slot;
+        }
+        if (entryCount + ENTRY > entries.length) {
+            entries = Arrays.copyOf(entries, 2 * entries.length);
+        }
+        int e = entryCount;
+        entries[e++] = removed ? slot | REMOVED : slot;
+        entries[e++] = state.instanceId[slot];
+        entries[e++] = state.cardNumber[slot];
+        entries[e++] = state.cardType[slot];
+        entries[e++] = state.cost[slot];
+        entries[e++] = state.attack[slot];
+        entries[e++] = state.defense[slot];
+        entries[e++] = state.abilities[slot];
+        entries[e++] = state.myHealthChange[slot];
+        entries[e++] = state.opponentHealthChange[slot];
+        entries[e++] = state.cardDraw[slot];
+        entries[e] = state.canAttack[slot] ? 1 : 0;
+        entryCount += ENTRY;
+    }
+
+    private void restoreSlot(PackedState state, int slot, int e) {
+        state.instanceId[slot] = entries[e++];
+        state.cardNumber[slot] = entries[e++];
+        state.cardType[slot] = entries[e++];
+        state.cost[slot] = entries[e++];
+        state.attack[slot] = entries[e++];
+        state.defense[slot] = entries[e++];
+        state.abilities[slot] = entries[e++];
+        state.myHealthChange[slot] = entries[e++];
+        state.opponentHealthChange[slot] = entries[e++];
+        state.cardDraw[slot] = entries[e++];
+        state.canAttack[slot] = entries[e] != 0;
+    }
+}
+
+// Moves packed into one int for search: type << 24 | first << 12 | (second + 1), 12 bits per instance id
+// and -1 (no target) stored as 0. Search generates, applies and stores these without allocating; they are
+// turned into Action objects or protocol text only for the final output.
+class Move {
+    static final int PASS = 0;
+    static final int SUMMON = 1;
+    static final int ATTACK = 2;
+    static final int USE = 3;
+    static final int MAX_MOVES = 128;
+
+    static int encode(int type, int first, int second) {
+        return type << 24 | (first & 0xFFF) << 12 | ((second + 1) & 0xFFF);
+    }
+
+    static int type(int move) {
+        return move >>> 24;
+    }
+
+    static int first(int move) {
+        return (move >>> 12) & 0xFFF;
+    }
+
+    static int second(int move) {
+        return (move & 0xFFF) - 1;
+    }
+
+    static boolean apply(PackedState state, int move) {
+        switch (type(move)) {
+            case SUMMON:
+                return BattleSimulator.summon(state, first(move));
+            case ATTACK:
+                return BattleSimulator.attack(state, first(move), second(move));
+            case USE:
+                return BattleSimulator.use(state, first(move), second(move));
+            default:
+                return true;
+        }
+    }
+
+    static Action toAction(int move) {
+        switch (type(move)) {
+            case SUMMON:
+                return new SummonAction(first(move));
+            case ATTACK:
+                return new AttackAction(first(move), second(move));
+            case USE:
+                return new UseAction(first(move), second(move));
+            default:
+                return new PassAction();
+        }
+    }
+
+    static int fromAction(Action action) {
+        if (action instanceof SummonAction) {
+            return encode(SUMMON, ((SummonAction) action).getInstanceId(), -1);
+        } else if (action instanceof AttackAction) {
+            AttackAction attack = (AttackAction) action;
+            return encode(ATTACK, attack.getAttackerId(), attack.getTargetId());
+        } else if (action instanceof UseAction) {
+            UseAction use = (UseAction) action;
+            return encode(USE, use.getItemId(), use.getCreatureId());
+        } else if (action instanceof PassAction) {
+            return encode(PASS, 0, -1);
+        }
+        throw new IllegalArgumentException("No battle move for " + action);
+    }
+
+    static void generate(PackedState state, MoveList out) {
+        out.clear();
+        out.size = generate(state, out.ensureCapacity(MAX_MOVES));
+    }
+
+    // Legal actions for the player to move, PASS (end the turn) first
+    static int generate(PackedState state, int[] out) {
+        int count = 0;
+        out[count++] = encode(PASS, 0, -1);
+        int board = PackedState.boardStart(0);
+        int opponent = PackedState.boardStart(1);
+        int opponentEnd = opponent + state.boardCount[1];
+        boolean guarded = BattleSimulator.hasGuard(state, 1);
+
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            if (state.cost[i] > state.mana[0]) {
+                continue;
+            }
+            int id = state.instanceId[i];
+            int type = state.cardType[i];
+            if (type == CardType.CREATURE.ordinal()) {
+                if (state.boardCount[0] < PackedState.BOARD_SIZE) {
+                    out[count++] = encode(SUMMON, id, -1);
+                }
+            } else if (type == CardType.GREEN_ITEM.ordinal()) {
+                for (int t = board, tEnd = board + state.boardCount[0]; t < tEnd; t++) {
+                    out[count++] = encode(USE, id, state.instanceId[t]);
+                }
+            } else {
+                if (type == CardType.BLUE_ITEM.ordinal()) {
+                    out[count++] = encode(USE, id, -1);
+                }
+                for (int t = opponent; t < opponentEnd; t++) {
+                    out[count++] = encode(USE, id, state.instanceId[t]);
+                }
+            }
+        }
+
+        for (int i = board, end = board + state.boardCount[0]; i < end; i++) {
+            if (!state.canAttack[i]) {
+                continue;
+            }
+            int id = state.instanceId[i];
+            if (!guarded) {
+                out[count++] = encode(ATTACK, id, -1);
+            }
+            for (int t = opponent; t < opponentEnd; t++) {
+                if (!guarded || state.hasAbility(t, CardAbility.GUARD)) {
+                    out[count++] = encode(ATTACK, id, state.instanceId[t]);
+                }
+            }
+        }
+        return count;
+    }
+}
+
+// Growable list of packed moves that search code clears and refills instead of allocating new lists
+class MoveList {
+    int[] moves;
+    int size;
+
+    public MoveList() {
+        this(Move.MAX_MOVES);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Drops everything after the first size moves, to back out of a line
+    public void truncate(int size) {
+        this.size = Math.min(this.size, size);
+    }
+
+    // Backing array with room for capacity moves, for code that fills an int[] directly
+    int[] ensureCapacity(int capacity) {
+        if (moves.length < capacity) {
+            moves = Arrays.copyOf(moves, Math.max(capacity, 2 * moves.length));
+        }
+        return moves;
+    }
+
+    public ArrayList<Action> toActions() {
+        ArrayList<Action> actions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            actions.add(Move.toAction(moves[i]));
+        }
+        return actions;
+    }
+}
+
+// Builds the turn output ("SUMMON 3;ATTACK 3 -1", "PICK 1", "PASS") straight from packed moves into a
+// reused byte buffer, so printing a turn needs no String.format, no joined Strings and no Action objects
+class ProtocolWriter {
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    public ProtocolWriter reset() {
+        length = 0;
+        return this;
+    }
+
+    // Appends the moves separated by ';', or PASS when there are none
+    public ProtocolWriter moves(MoveList moves) {
+        if (moves.isEmpty()) {
+            return move(Move.encode(Move.PASS, 0, -1));
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            move(moves.get(i));
+        }
+        return this;
+    }
+
+    public ProtocolWriter move(int move) {
+        separate();
+        switch (Move.type(move)) {
+            case Move.SUMMON:
+                text("SUMMON ").number(Move.first(move));
+                break;
+            case Move.ATTACK:
+                text("ATTACK ").number(Move.first(move)).text(" ").number(Move.second(move));
+                break;
+            case Move.USE:
+                text("USE ").number(Move.first(move)).text(" ").number(Move.second(move));
+                break;
+            default:
+                text("PASS");
+                break;
+        }
+        return this;
+    }
+
+    public ProtocolWriter pick(int index) {
+        separate();
+        return text("PICK ").number(index);
+    }
+
+    // Draft picks and battle actions that only exist as Action objects
+    public ProtocolWriter action(Action action) {
+        if (action instanceof PickAction) {
+            return pick(((PickAction) action).getInstanceId());
+        }
+        return move(Move.fromAction(action));
+    }
+
+    private void separate() {
+        if (length > 0) {
+            text(";");
+        }
+    }
+
+    private ProtocolWriter text(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    private ProtocolWriter number(int value) {
+        ensure(11);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+        return this;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, length + extra));
+        }
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Writes the line and flushes, the referee waits for it
+    public void writeTo(PrintStream out) {
+        out.write(buffer, 0, length);
+        out.write('\n');
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, java.nio.charset.StandardCharsets.US_ASCII);
+    }
+}
+
+// Scores of the 160 base cards, filled lazily by cardNumber. Only cards in hand or offered in the draft are
+// stored there, since those always have their base stats. A buffed or damaged copy on the board (takeDamage,
+// items) goes to a small direct-mapped table keyed by cardNumber and stats instead, so it is scored once per
+// distinct set of stats rather than on every call. clear() is for when the scoring itself changes.
+class CardScoreCache {
+    static final int CARD_POOL_SIZE = 160;
+    static final int MODIFIED_BITS = 8;
+    private static final int FILLED = 1 << 30; // set in every stored key, so 0 means empty
+
+    private final ToDoubleFunction<Card> scorer;
+    private final int[] keys = new int[CARD_POOL_SIZE + 1];
+    private final double[] scores = new double[CARD_POOL_SIZE + 1];
+    private final long[] modifiedKeys = new long[1 << MODIFIED_BITS];
+    private final double[] modifiedScores = new double[1 << MODIFIED_BITS];
+
+    public CardScoreCache(ToDoubleFunction<Card> scorer) {
+        this.scorer = scorer;
+    }
+
+    public double get(Card card) {
+        int cardNumber = card.cardNumber;
+        if (cardNumber < 0 || cardNumber > CARD_POOL_SIZE) {
+            return scorer.applyAsDouble(card);
+        }
+        int key = statsKey(card) | FILLED;
+        if (keys[cardNumber] == key) {
+            return scores[cardNumber];
+        }
+        if (card.location == 0) {
+            double score = scorer.applyAsDouble(card);
+            keys[cardNumber] = key;
+            scores[cardNumber] = score;
+            return score;
+        }
+        long modifiedKey = (long) cardNumber << 32 | key;
+        int slot = (int) ((modifiedKey * 0x9E3779B97F4A7C15L) >>> (64 - MODIFIED_BITS)); // Fibonacci hashing
+        if (modifiedKeys[slot] != modifiedKey) {
+            modifiedKeys[slot] = modifiedKey;
+            modifiedScores[slot] = scorer.applyAsDouble(card);
+        }
+        return modifiedScores[slot];
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(modifiedKeys, 0);
+    }
+
+    // Type, health changes and card draw are fixed per cardNumber; the key holds every stat that can differ
+    // between two cards with the same number
+    static int statsKey(Card card) {
+        return (card.cost & 0x1F) << 24 | (card.attack & 0xFF) << 16 | (card.defense & 0xFF) << 8
+                | card.abilityMask;
+    }
+}
+
+// Answers "can we win this turn?" before any other planning. damageBound is an upper bound on the face
+// damage still possible this turn: every ready attacker hits face as if there were no guards, and the hand
+// cards that can add damage (charge attackers, buffs, blue items, opponentHealthChange) are chosen by a
+// knapsack over the mana left. If the bound is below the opponent's health there is no lethal. Otherwise a
+// depth-first search tries the moves that can matter for face damage (face and guard attacks, guard
+// removal, damage items, charge summons), pruning every position whose bound falls short and every position
+// already reached. It stops at the first winning line, or reports UNKNOWN when the node budget or the
+// LETHAL phase deadline runs out. The search makes and unmakes moves on a single copy of the state.
+// NO_LETHAL is a proof that no line of this turn wins, so BeamPlanner and MctsStrategy then search without
+// their win checks; UNKNOWN falls through to them with the checks kept.
+class LethalSolver {
+    static final int NO_LETHAL = 0;
+    static final int LETHAL = 1;
+    static final int UNKNOWN = 2;
+    static final int MAX_DEPTH = 32;
+    static final int DEFAULT_MAX_NODES = 100_000;
+    static final int SEEN_BITS = 14;
+    static final int MAX_PROBES = 8;
+    static final int MAX_MANA = 12;
+
+    private final int maxNodes;
+    private final PackedState state = new PackedState();
+    private final UndoStack undo = new UndoStack();
+    private final int[][] moves = new int[MAX_DEPTH][Move.MAX_MOVES];
+    private final int[] line = new int[MAX_DEPTH];
+    private final long[] seenKeys = new long[1 << SEEN_BITS];
+    private final int[] seenStamps = new int[1 << SEEN_BITS];
+    private int stamp;
+    private final int[] knapsack = new int[MAX_MANA + 1];
+    private TimeManager timeManager;
+    private boolean expired;
+
+    int nodes;
+    int bound;
+
+    public LethalSolver() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    public LethalSolver(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    // The caller starts the LETHAL phase; without a TimeManager only the node budget bounds the search
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    // Returns LETHAL with the winning line in out, NO_LETHAL when no line can win, or UNKNOWN when the
+    // search ran out of nodes or time. The state is not changed.
+    public int solve(PackedState state, MoveList out) {
+        out.clear();
+        nodes = 0;
+        expired = false;
+        bound = damageBound(state);
+        if (bound < state.health[1]) {
+            return NO_LETHAL;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+        state.copyInto(this.state);
+        int depth = search(0);
+        if (depth < 0) {
+            return nodes >= maxNodes || expired ? UNKNOWN : NO_LETHAL;
+        }
+        for (int i = 0; i < depth; i++) {
+            out.add(line[i]);
+        }
+        return LETHAL;
+    }
+
+    // Returns the length of a winning line from the current state, or -1
+    private int search(int depth) {
+        if (state.health[1] <= 0) {
+            return depth;
+        }
+        if (depth == MAX_DEPTH || nodes >= maxNodes || expired || damageBound(state) < state.health[1]
+                || !markSeen(state.hash)) {
+            return -1;
+        }
+        if (timeManager != null && timeManager.isExpired()) {
+            expired = true;
+            return -1;
+        }
+        nodes++;
+        int[] candidates = moves[depth];
+        int count = Move.generate(state, candidates);
+        // Face attacks first, they finish most lethal lines without any branching
+        for (int pass = 0; pass < 2; pass++) {
+            for (int m = 1; m < count; m++) {
+                int move = candidates[m];
+                boolean face = Move.type(move) == Move.ATTACK && Move.second(move) == -1;
+                if (face != (pass == 0) || !canAddDamage(state, move)) {
+                    continue;
+                }
+                if (!undo.make(state, move)) {
+                    continue;
+                }
+                line[depth] = move;
+                int found = search(depth + 1);
+                undo.unmake(state);
+                if (found >= 0) {
+                    return found;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Moves that can lead to more face damage. Trading into creatures without guard, removal on them and
+    // plain summons never do, so they are left out.
+    static boolean canAddDamage(PackedState state, int move) {
+        int first = state.findSlot(Move.first(move));
+        int target = Move.second(move) == -1 ? -1 : state.findSlot(Move.second(move));
+        switch (Move.type(move)) {
+            case Move.ATTACK:
+                return target < 0 || state.hasAbility(target, CardAbility.GUARD);
+            case Move.SUMMON:
+                return state.hasAbility(first, CardAbility.CHARGE) || state.opponentHealthChange[first] < 0
+                        || chargeInHand(state);
+            case Move.USE:
+                int type = state.cardType[first];
+                if (type == CardType.GREEN_ITEM.ordinal()) {
+                    return state.attack[first] > 0 || state.opponentHealthChange[first] < 0
+                            || state.hasAbility(first, CardAbility.CHARGE);
+                }
+                if (state.opponentHealthChange[first] < 0) {
+                    return true;
+                }
+                return target < 0 ? type == CardType.BLUE_ITEM.ordinal() && state.defense[first] < 0
+                        : state.hasAbility(target, CardAbility.GUARD);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean chargeInHand(PackedState state) {
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            if (state.cardType[i] == CardType.GREEN_ITEM.ordinal() && state.hasAbility(i, CardAbility.CHARGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Most face damage the player can still deal this turn, ignoring guards and board slots
+    public int damageBound(PackedState state) {
+        int damage = 0;
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            if (state.canAttack[i]) {
+                damage += Math.max(0, state.attack[i]);
+            }
+        }
+        int mana = Math.max(0, Math.min(state.mana[0], MAX_MANA));
+        Arrays.fill(knapsack, 0, mana + 1, 0);
+        boolean charge = chargeInHand(state);
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            int cost = Math.max(0, state.cost[i]);
+            int value = handDamage(state, i, charge);
+            if (cost > mana || value <= 0) {
+                continue;
+            }
+            for (int m = mana; m >= cost; m--) {
+                knapsack[m] = Math.max(knapsack[m], knapsack[m - cost] + value);
+            }
+        }
+        return damage + knapsack[mana];
+    }
+
+    private static int handDamage(PackedState state, int slot, boolean chargeInHand) {
+        int damage = Math.max(0, -state.opponentHealthChange[slot]);
+        int type = state.cardType[slot];
+        if (type == CardType.CREATURE.ordinal()) {
+            if (chargeInHand || state.hasAbility(slot, CardAbility.CHARGE)) {
+                damage += Math.max(0, state.attack[slot]);
+            }
+        } else if (type == CardType.GREEN_ITEM.ordinal()) {
+            damage += Math.max(0, state.attack[slot]);
+        } else if (type == CardType.BLUE_ITEM.ordinal()) {
+            damage += Math.max(0, -state.defense[slot]);
+        }
+        return damage;
+    }
+
+    private boolean markSeen(long key) {
+        int mask = seenKeys.length - 1;
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+            if (seenStamps[index] != stamp) {
+                seenStamps[index] = stamp;
+                seenKeys[index] = key;
+                return true;
+            }
+            if (seenKeys[index] == key) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
+
+// Battle cards kept from turn to turn, keyed by instanceId. Each turn the input is applied as a diff: known
+// cards get their location and stats updated in place, new cards are created once, and cards missing from
+// the input (dead creatures, used items) are dropped and listed in getRemoved(). Card objects therefore keep
+// their identity for the whole battle, so strategies can cache per-card data across turns.
+class CardTracker {
+    private Card[] cards = new Card[128];
+    private int[] seenTurn = new int[128];
+    private int[] live = new int[64];
+    private int liveCount;
+    private final ArrayList<Card> removed = new ArrayList<>();
+    private int turn;
+    private int created;
+    private int moved;
+    private int changed;
+
+    public void beginTurn() {
+        turn++;
+        removed.clear();
+        created = 0;
+        moved = 0;
+        changed = 0;
+    }
+
+    // Returns the tracked card for the instance with its values set from this turn's input
+    public Card track(int cardNumber, int instanceId, CardType cardType, int location, int cost, int attack,
+            int defense, String abilities, int myHealthChange, int opponentHealthChange, int cardDraw) {
+        if (instanceId >= cards.length) {
+            int length = Math.max(2 * cards.length, instanceId + 1);
+            cards = Arrays.copyOf(cards, length);
+            seenTurn = Arrays.copyOf(seenTurn, length);
+        }
+        Card card = cards[instanceId];
+        if (card == null || card.cardNumber != cardNumber) {
+            card = new Card(cardNumber, instanceId, cardType, location, cost, attack, defense, abilities,
+                    myHealthChange, opponentHealthChange, cardDraw);
+            if (cards[instanceId] == null) {
+                if (liveCount == live.length) {
+                    live = Arrays.copyOf(live, 2 * live.length);
+                }
+                live[liveCount++] = instanceId;
+            }
+            cards[instanceId] = card;
+            created++;
+        } else {
+            if (card.location != location) {
+                card.location = location;
+                moved++;
+            }
+            // Strategies may have changed the card during the last turn (takeDamage), the input is the truth
+            if (card.attack != attack || card.defense != defense || !card.abilities.equals(abilities)
+                    || card.cost != cost) {
+                card.cost = cost;
+                card.attack = attack;
+                card.defense = defense;
+                card.abilities = abilities;
+                card.abilityMask = CardAbility.maskOf(abilities);
+                changed++;
+            }
+        }
+        seenTurn[instanceId] = turn;
+        return card;
+    }
+
+    // Drops every card that was not in this turn's input
+    public void endTurn() {
+        int kept = 0;
+        for (int i = 0; i < liveCount; i++) {
+            int instanceId = live[i];
+            if (seenTurn[instanceId] == turn) {
+                live[kept++] = instanceId;
+            } else {
+                removed.add(cards[instanceId]);
+                cards[instanceId] = null;
+            }
+        }
+        liveCount = kept;
+    }
+
+    public Card get(int instanceId) {
+        return instanceId >= 0 && instanceId < cards.length ? cards[instanceId] : null;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    // Cards that left play this turn, valid until the next beginTurn
+    public List<Card> getRemoved() {
+        return removed;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getMoved() {
+        return moved;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+}
+
+class GameState {
+    private int playerHealth;
+    private int playerMana;
+    private int countPlayerDeck;
+    private int playerRune;
+    private int countPlayerDrawn;
+
+    private int opponentHealth;
+    private int opponentMana;
+    private int opponentDeck;
+    private int opponentRune;
+    private int opponentDraw;
+    private int opponentHand;
+
+    ArrayList<String> opponentActions;
+    CardTracker cardTracker; // battle cards, kept across turns like playerDeck
+
+    Hand playerHand;
+    Hand playerDeck; // This does not get parsed via the game input - have to manually update
+    ArrayList<Card> playerBoard;
+    ArrayList<Card> opponentBoard;
+
+    public GameState(Hand playerDeck) {
+        this(playerDeck, new CardTracker());
+    }
+
+    // Later turns pass the tracker on from the previous state instead of allocating a new one
+    public GameState(Hand playerDeck, CardTracker cardTracker) {
+        this.playerHand = new Hand();
+        this.playerDeck = playerDeck;
+        this.playerBoard = new ArrayList<>();
+        this.opponentBoard = new ArrayList<>();
+        this.opponentActions = new ArrayList<>();
+        this.cardTracker = cardTracker;
+    }
+
+    public static void readPlayerStats(InputReader in, GameState gameState) {
+        gameState.playerHealth = in.nextInt();
+        gameState.playerMana = in.nextInt();
+        gameState.countPlayerDeck = in.nextInt();
+        gameState.playerRune = in.nextInt();
+        gameState.countPlayerDrawn = in.nextInt();
+
+        gameState.opponentHealth = in.nextInt();
+        gameState.opponentMana = in.nextInt();
+        gameState.opponentDeck = in.nextInt();
+        gameState.opponentRune = in.nextInt();
+        gameState.opponentDraw = in.nextInt();
+    }
+
+    public static void readOpponentActions(InputReader in, GameState gameState) {
+        gameState.opponentHand = in.nextInt();
+        int numOpponentActions = in.nextInt();
+
+        in.skipLine();
+
+        for (int i = 0; i < numOpponentActions; i++) {
+            if (in.hasNextLine()) {
+                gameState.opponentActions.add(in.nextLine());
+            }
+        }
+    }
+
+    public static void initialiseCards(InputReader in, GameState gameState, Boolean isDraftTurn) {
+        int cardCount = in.nextInt();
+        if (!isDraftTurn) {
+            gameState.cardTracker.beginTurn();
+        }
+
+        for (int i = 0; i < cardCount; i++) {
+            int cardNumber = in.nextInt();
+            int instanceId = in.nextInt();
+            int location = in.nextInt();
+            CardType cardType = CardType.VALUES[in.nextInt()];
+            int cost = in.nextInt();
+            int attack = in.nextInt();
+            int defense = in.nextInt();
+            String abilities = in.nextAbilities();
+            int myHealthChange = in.nextInt();
+            int opponentHealthChange = in.nextInt();
+            int cardDraw = in.nextInt();
+
+            if (!isDraftTurn) {
+                Card card = gameState.cardTracker.track(cardNumber, instanceId, cardType, location, cost, attack,
+                        defense, abilities, myHealthChange, opponentHealthChange, cardDraw);
+                switch (location) {
+                    case 0:
+                        gameState.playerHand.addCard(card);
+                        break;
+                    case 1:
+                        gameState.playerBoard.add(card);
+                        break;
+                    case -1:
+                        gameState.opponentBoard.add(card);
+                        break;
+                }
+            } else {
+                // Draft offers all have instanceId -1 and the picked one is kept in playerDeck, so never reuse them
+                gameState.playerHand.addCard(new Card(cardNumber, instanceId, cardType, location, cost, attack,
+                        defense, abilities, myHealthChange, opponentHealthChange, cardDraw));
+            }
+        }
+        if (!isDraftTurn) {
+            gameState.cardTracker.endTurn();
+        }
+    }
+
+    public int getPlayerHealth() {
+        return this.playerHealth;
+    }
+
+    public int getPlayerMana() {
+        return this.playerMana;
+    }
+
+    public int getCountPlayerDeck() {
+        return this.countPlayerDeck;
+    }
+
+    public int getPlayerRune() {
+        return this.playerRune;
+    }
+
+    public int getCountPlayerDrawn() {
+        return this.countPlayerDrawn;
+    }
+
+    public int getOpponentHealth() {
+        return this.opponentHealth;
+    }
+
+    public int getOpponentMana() {
+        return this.opponentMana;
+    }
+
+    public int getOpponentDeck() {
+        return this.opponentDeck;
+    }
+
+    public int getOpponentRune() {
+        return this.opponentRune;
+    }
+
+    public int getOpponentDraw() {
+        return this.opponentDraw;
+    }
+
+    public int getOpponentHand() {
+        return this.opponentHand;
+    }
+
+    public void setPlayerMana(int mana) {
+        this.playerMana = mana;
+    }
+
+    public static GameState readGameState(InputReader in, Boolean isDraftTurn) {
+        return readGameState(in, isDraftTurn, null); // first time: no previous state
+
+    }
+    public static GameState readGameState(InputReader in, Boolean isDraftTurn, GameState prevGameState) {
+        // persist the playerDeck; battle cards in cardTracker are updated in place
+        GameState gameState = prevGameState == null ? new GameState(new Hand())
+                : new GameState(prevGameState.playerDeck, prevGameState.cardTracker);
+        readPlayerStats(in, gameState);
+        readOpponentActions(in, gameState);
+        initialiseCards(in, gameState, isDraftTurn);
+
+        return gameState;
+    }
+
+    // Reads the next turn into this state instead of building a new one: the lists are reused and battle
+    // cards come from cardTracker, so a turn only allocates for cards that were not in play before
+    public void readTurn(InputReader in, boolean isDraftTurn) {
+        playerHand.clear();
+        playerBoard.clear();
+        opponentBoard.clear();
+        opponentActions.clear();
+        readPlayerStats(in, this);
+        readOpponentActions(in, this);
+        initialiseCards(in, this, isDraftTurn);
+    }
+
+    // Builds a GameState view of a packed state so any Strategy can read it. The view has no cardTracker.
+    public static GameState fromPacked(PackedState packed, Hand playerDeck) {
+        GameState gameState = new GameState(playerDeck, null);
+        gameState.playerHealth = packed.health[0];
+        gameState.playerMana = packed.mana[0];
+        gameState.countPlayerDeck = packed.deck[0];
+        gameState.playerRune = packed.rune[0];
+        gameState.countPlayerDrawn = packed.draw[0];
+
+        gameState.opponentHealth = packed.health[1];
+        gameState.opponentMana = packed.mana[1];
+        gameState.opponentDeck = packed.deck[1];
+        gameState.opponentRune = packed.rune[1];
+        gameState.opponentDraw = packed.draw[1];
+        gameState.opponentHand = packed.opponentHandCount;
+
+        for (int i = 0; i < packed.handCount; i++) {
+            gameState.playerHand.addCard(packed.toCard(PackedState.HAND + i));
+        }
+        for (int i = 0; i < packed.boardCount[0]; i++) {
+            gameState.playerBoard.add(packed.toCard(PackedState.boardStart(0) + i));
+        }
+        for (int i = 0; i < packed.boardCount[1]; i++) {
+            gameState.opponentBoard.add(packed.toCard(PackedState.boardStart(1) + i));
+        }
+        return gameState;
+    }
+
+    public Card getPlayerBoardCard(int index) {
+        return playerBoard.get(index);
+    }
+
+    public Card getOpponentBoardCard(int index) {
+        return opponentBoard.get(index);
+    }
+
+    public Card getOpponentBoardCardById(int id) {
+        return opponentBoard.stream()
+        .filter(c -> c.instanceId == id)
+        .findFirst()
+        .orElse(null); // returns null if not found
+    }
+
+    public Optional<Card> opponentGuardCard() {
+        return opponentBoard.stream().filter(card -> card.hasAbility(CardAbility.GUARD)).findFirst();
+    }
+
+    public Optional<Card> opponentHighestScoreCard(Strategy strategy) {
+        return opponentBoard.stream().max(Comparator.comparingDouble(c -> strategy.getCardScore(c)));
+    }
+
+    public double getAverageDraftCost() {
+        return this.playerHand.getAverageCost();
+    }
+}
+
+enum TurnPhase {
+    PARSE,
+    DRAFT,
+    LETHAL,
+    ATTACKS,
+    SUMMONS,
+    TURN_PLAN, // strategies that plan the whole battle turn at once
+    OUTPUT
+}
+
+// Log-linear latency histogram in microseconds in the style of HdrHistogram: 16 sub-buckets per power of
+// two keeps every bucket within ~6% of its value, and recording never allocates.
+class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long count;
+    private long max;
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts[bucketOf(micros)]++;
+        count++;
+        max = Math.max(max, micros);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketStart(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxMicros() {
+        return max;
+    }
+
+    public long percentileMicros(double percentile) {
+        long target = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, target)) {
+                return Math.min(bucketStart(i), max);
+            }
+        }
+        return max;
+    }
+}
+
+// Per-phase turn timings plus a watchdog thread. If the turn is still running close to the referee's
+// time limit, the watchdog prints the best plan offered so far (PASS by default) and the late output of
+// the main thread is dropped.
+class TurnMonitor {
+    static final long FIRST_TURN_NANOS = 1000_000_000L;
+    static final long TURN_NANOS = 100_000_000L;
+    static final long SAFETY_MARGIN_NANOS = 15_000_000L;
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[TurnPhase.values().length];
+    private final LatencyHistogram turns = new LatencyHistogram();
+    private final PrintStream out;
+    private final Object lock = new Object();
+    private final AtomicBoolean outputSent = new AtomicBoolean(true);
+    private volatile String fallback = "PASS";
+    private long deadline = Long.MAX_VALUE;
+    private long turnStart;
+    private TurnPhase currentPhase;
+    private long phaseStart;
+    private int timeouts;
+
+    public TurnMonitor(PrintStream out) {
+        this.out = out;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        Thread watchdog = new Thread(this::watch, "turn-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    public void startTurn(long turnStartNanos, boolean firstTurn) {
+        startTurn(turnStartNanos, firstTurn, "PASS");
+    }
+
+    // The initial fallback is installed under the lock that arms the deadline, so the watchdog can never see
+    // the previous turn's plan
+    public void startTurn(long turnStartNanos, boolean firstTurn, String initialFallback) {
+        synchronized (lock) {
+            turnStart = turnStartNanos;
+            fallback = initialFallback;
+            outputSent.set(false);
+            deadline = turnStartNanos + (firstTurn ? FIRST_TURN_NANOS : TURN_NANOS) - SAFETY_MARGIN_NANOS;
+            lock.notifyAll();
+        }
+        phases[TurnPhase.PARSE.ordinal()].recordNanos(System.nanoTime() - turnStartNanos);
+    }
+
+    public void offerFallback(String plan) {
+        fallback = plan;
+    }
+
+    public void start(TurnPhase phase) {
+        long now = System.nanoTime();
+        if (currentPhase != null) {
+            phases[currentPhase.ordinal()].recordNanos(now - phaseStart);
+        }
+        currentPhase = phase;
+        phaseStart = now;
+    }
+
+    public void stop() {
+        start(null);
+    }
+
+    // Prints the turn output unless the watchdog already answered for this turn
+    public boolean submit(String output) {
+        boolean sent = outputSent.compareAndSet(false, true);
+        if (sent) {
+            out.println(output);
+        }
+        return finishTurn(sent);
+    }
+
+    public boolean submit(ProtocolWriter output) {
+        boolean sent = outputSent.compareAndSet(false, true);
+        if (sent) {
+            output.writeTo(out);
+        }
+        return finishTurn(sent);
+    }
+
+    private boolean finishTurn(boolean sent) {
+        stop();
+        synchronized (lock) {
+            deadline = Long.MAX_VALUE;
+        }
+        turns.recordNanos(System.nanoTime() - turnStart);
+        return sent;
+    }
+
+    private void watch() {
+        synchronized (lock) {
+            while (true) {
+                try {
+                    long wait = deadline - System.nanoTime();
+                    if (deadline == Long.MAX_VALUE) {
+                        lock.wait();
+                    } else if (wait > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, wait);
+                    } else {
+                        if (outputSent.compareAndSet(false, true)) {
+                            out.println(fallback);
+                            timeouts++;
+                        }
+                        deadline = Long.MAX_VALUE;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getTimeouts() {
+        synchronized (lock) {
+            return timeouts;
+        }
+    }
+
+    public LatencyHistogram getHistogram(TurnPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("phase      count    p50(ms)    p99(ms)    max(ms)\n");
+        for (TurnPhase phase : TurnPhase.values()) {
+            appendRow(report, phase.name(), phases[phase.ordinal()]);
+        }
+        appendRow(report, "TURN", turns);
+        report.append("watchdog fallbacks: ").append(getTimeouts());
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        report.append(String.format("%-10s %5d %10.3f %10.3f %10.3f%n", name, histogram.getCount(),
+                histogram.percentileMicros(50) / 1000.0, histogram.percentileMicros(99) / 1000.0,
+                histogram.getMaxMicros() / 1000.0));
+    }
+}
+
+// Deadlines for the current turn and phase. Draft turns get a small budget and battle turns most of the
+// 100ms, both measured from the arrival of the turn input. A phase gets a share of what is left of the turn,
+// and search loops poll isExpired(), which only reads the clock every CHECK_INTERVAL calls.
+// The first turn allows a full second, so Player spends most of it in warmUp: the hot search and evaluation
+// paths run on synthetic states until the JIT has compiled them, instead of running interpreted on turn 31.
+class TimeManager {
+    static final long DRAFT_BUDGET_NANOS = 30_000_000L;
+    static final long BATTLE_BUDGET_NANOS = TurnMonitor.TURN_NANOS - TurnMonitor.SAFETY_MARGIN_NANOS - 5_000_000L;
+    static final long WARM_UP_NANOS = 600_000_000L; // of the first turn's FIRST_TURN_NANOS
+    static final int CHECK_INTERVAL = 64;
+    static final int WARM_UP_LETHAL_NODES = 5_000; // keeps one hard synthetic state from eating the warm-up
+
+    private long turnStart;
+    private long turnDeadline = Long.MAX_VALUE;
+    private long phaseDeadline = Long.MAX_VALUE;
+    private int countdown;
+    private boolean expired;
+
+    long warmUpNanos;
+    int warmUpRounds;
+
+    public void startTurn(long turnStartNanos, boolean firstTurn, boolean draftTurn) {
+        turnStart = turnStartNanos;
+        long budget = draftTurn ? DRAFT_BUDGET_NANOS : BATTLE_BUDGET_NANOS;
+        if (firstTurn) {
+            budget = TurnMonitor.FIRST_TURN_NANOS - TurnMonitor.SAFETY_MARGIN_NANOS - 5_000_000L;
+        }
+        turnDeadline = turnStartNanos + budget;
+        setPhaseDeadline(turnDeadline);
+    }
+
+    // Gives the phase its share of the turn time that is left
+    public void startPhase(TurnPhase phase) {
+        long now = System.nanoTime();
+        setPhaseDeadline(now + (long) (share(phase) * Math.max(0, turnDeadline - now)));
+    }
+
+    // Attacks leave time for the summons that follow them, and the lethal check for the planning that follows
+    // it when there is no lethal; every other phase is the last of its turn
+    static double share(TurnPhase phase) {
+        switch (phase) {
+            case LETHAL:
+                return 0.1;
+            case ATTACKS:
+                return 0.6;
+            default:
+                return 1;
+        }
+    }
+
+    private void setPhaseDeadline(long deadline) {
+        phaseDeadline = deadline;
+        countdown = 0;
+        expired = false;
+    }
+
+    public long remainingNanos() {
+        return phaseDeadline - System.nanoTime();
+    }
+
+    public long turnRemainingNanos() {
+        return turnDeadline - System.nanoTime();
+    }
+
+    public long getPhaseDeadline() {
+        return phaseDeadline;
+    }
+
+    public long getTurnStart() {
+        return turnStart;
+    }
+
+    public boolean isExpired() {
+        if (expired) {
+            return true;
+        }
+        if (--countdown > 0) {
+            return false;
+        }
+        countdown = CHECK_INTERVAL;
+        expired = System.nanoTime() >= phaseDeadline;
+        return expired;
+    }
+
+    // Runs draft picks, the lethal check and battle turns of the strategies on seeded synthetic states until
+    // the deadline, through the same calls Player makes: GameState in, PackedState.load and LethalSolver, the
+    // strategy's chooseTurnMoves (BattleSimulator and UndoStack at depth in the solver) and ProtocolWriter
+    // out. Pass fresh instances of the strategies Player plays, so no caches or search state carry over.
+    public int warmUp(long deadlineNanos, Strategy... strategies) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(31);
+        MoveList moves = new MoveList();
+        LethalSolver lethal = new LethalSolver(WARM_UP_LETHAL_NODES);
+        PackedState lethalState = new PackedState();
+        ProtocolWriter output = new ProtocolWriter();
+        Hand deck = new Hand();
+        int rounds = 0;
+        while (System.nanoTime() < deadlineNanos) {
+            Strategy strategy = strategies[rounds % strategies.length];
+            if (deck.size() == 30) {
+                deck = new Hand();
+            }
+            PackedState draft = new PackedState();
+            draft.health[0] = draft.health[1] = 30;
+            for (int i = 0; i < 3; i++) {
+                draft.addToHand(syntheticCard(random, -1));
+            }
+            output.reset().action(strategy.chooseDrafts(GameState.fromPacked(draft, deck)));
+            // Both the solver and the strategy run on every state, lethal or not, so both get compiled
+            GameState battle = GameState.fromPacked(syntheticBattle(random), deck);
+            lethalState.load(battle);
+            lethal.solve(lethalState, moves);
+            strategy.chooseTurnMoves(battle, moves);
+            output.reset().moves(moves);
+            rounds++;
+        }
+        setPhaseDeadline(turnDeadline);
+        warmUpNanos = System.nanoTime() - start;
+        warmUpRounds = rounds;
+        return rounds;
+    }
+
+    static PackedState syntheticBattle(SplittableRandom random) {
+        PackedState state = new PackedState();
+        state.health[0] = 1 + random.nextInt(30);
+        state.health[1] = 1 + random.nextInt(30);
+        state.rune[0] = state.rune[1] = 25;
+        state.mana[0] = 1 + random.nextInt(12);
+        state.deck[0] = state.deck[1] = random.nextInt(25);
+        state.opponentHandCount = random.nextInt(8);
+        int instanceId = 1;
+        for (int i = random.nextInt(7); i > 0; i--) {
+            state.canAttack[state.addToBoard(0, syntheticCreature(random, instanceId++))] = random.nextInt(4) > 0;
+        }
+        for (int i = random.nextInt(7); i > 0; i--) {
+            state.addToBoard(1, syntheticCreature(random, instanceId++));
+        }
+        for (int i = random.nextInt(9); i > 0; i--) {
+            state.addToHand(syntheticCard(random, instanceId++));
+        }
+        state.rehash();
+        return state;
+    }
+
+    static Card syntheticCard(SplittableRandom random, int instanceId) {
+        if (random.nextInt(4) > 0) {
+            return syntheticCreature(random, instanceId);
+        }
+        CardType type = CardType.VALUES[1 + random.nextInt(3)];
+        int cost = random.nextInt(8);
+        int sign = type == CardType.GREEN_ITEM ? 1 : -1;
+        return new Card(117 + random.nextInt(44), instanceId, type, 0, cost, sign * random.nextInt(cost + 2),
+                sign * random.nextInt(cost + 2), syntheticAbilities(random), 0, -random.nextInt(3),
+                random.nextInt(2));
+    }
+
+    static Card syntheticCreature(SplittableRandom random, int instanceId) {
+        int cost = random.nextInt(13);
+        return new Card(1 + random.nextInt(116), instanceId, CardType.CREATURE, 0, cost,
+                random.nextInt(cost + 3), 1 + random.nextInt(cost + 3), syntheticAbilities(random),
+                random.nextInt(3), -random.nextInt(2), random.nextInt(2));
+    }
+
+    private static String syntheticAbilities(SplittableRandom random) {
+        char[] abilities = "------".toCharArray();
+        for (int i = 0; i < abilities.length; i++) {
+            if (random.nextInt(5) == 0) {
+                abilities[i] = CardAbility.INPUT_ORDER.charAt(i);
+            }
+        }
+        return new String(abilities);
+    }
+}
+
+// Times every Strategy call into the TurnMonitor phases and offers finished attacks as the fallback plan
+class MonitoredStrategy implements Strategy {
+    private final Strategy delegate;
+    private final TurnMonitor monitor;
+    private final TimeManager timeManager;
+    private final boolean plansWholeTurn;
+
+    public MonitoredStrategy(Strategy delegate, TurnMonitor monitor) {
+        this(delegate, monitor, new TimeManager());
+    }
+
+    public MonitoredStrategy(Strategy delegate, TurnMonitor monitor, TimeManager timeManager) {
+        this.delegate = delegate;
+        this.monitor = monitor;
+        this.timeManager = timeManager;
+        delegate.setTimeManager(timeManager);
+        boolean overridden;
+        try {
+            overridden = delegate.getClass().getMethod("chooseTurn", GameState.class).getDeclaringClass()
+                    != Strategy.class;
+        } catch (NoSuchMethodException e) {
+            overridden = false;
+        }
+        this.plansWholeTurn = overridden;
+    }
+
+    public Action chooseDrafts(GameState gameState) {
+        monitor.start(TurnPhase.DRAFT);
+        timeManager.startPhase(TurnPhase.DRAFT);
+        Action pick = delegate.chooseDrafts(gameState);
+        monitor.stop();
+        return pick;
+    }
+
+    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        monitor.start(TurnPhase.SUMMONS);
+        timeManager.startPhase(TurnPhase.SUMMONS);
+        ArrayList<SummonAction> summons = delegate.chooseSummons(gameState);
+        monitor.stop();
+        return summons;
+    }
+
+    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        monitor.start(TurnPhase.ATTACKS);
+        timeManager.startPhase(TurnPhase.ATTACKS);
+        ArrayList<AttackAction> attacks = delegate.chooseAttacks(gameState);
+        monitor.stop();
+        if (!attacks.isEmpty()) {
+            monitor.offerFallback(attacks.stream().map(Action::toString).collect(Collectors.joining(";")));
+        }
+        return attacks;
+    }
+
+    public ArrayList<Action> chooseTurn(GameState gameState) {
+        if (!plansWholeTurn) {
+            return Strategy.super.chooseTurn(gameState);
+        }
+        monitor.start(TurnPhase.TURN_PLAN);
+        timeManager.startPhase(TurnPhase.TURN_PLAN);
+        ArrayList<Action> actions = delegate.chooseTurn(gameState);
+        monitor.stop();
+        return actions;
+    }
+
+    public double getCardScore(Card card) {
+        return delegate.getCardScore(card);
+    }
+}
+
+class Player {
+    private static Boolean isDraftTurn = true;
+    private static GameState gameState;
+
+    public static void main(String args[]) {
+        int turnNum = 0;
+
+        InputReader in = new InputReader(System.in);
+        TurnMonitor monitor = new TurnMonitor(System.out);
+        // kept across turns so its card score cache survives
+        TimeManager timeManager = new TimeManager();
+        Strategy bronzeStrategy = new MonitoredStrategy(new BronzeStrategy(), monitor, timeManager);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(monitor.report())));
+        MoveList moves = new MoveList();
+        ProtocolWriter output = new ProtocolWriter();
+        LethalSolver lethal = new LethalSolver();
+        lethal.setTimeManager(timeManager);
+        PackedState lethalState = new PackedState();
+
+        // game loop
+        while (true) {
+            turnNum++;
+            if (turnNum == 31) {
+                isDraftTurn = false;
+            }
+
+            in.markTurn();
+            try {
+                if (gameState == null) {
+                    gameState = GameState.readGameState(in, isDraftTurn);
+                } else {
+                    gameState.readTurn(in, isDraftTurn);
+                }
+            } catch (NoSuchElementException e) {
+                break; // referee closed the input, the game is over
+            }
+            monitor.startTurn(in.getTurnStartNanos(), turnNum == 1);
+            timeManager.startTurn(in.getTurnStartNanos(), turnNum == 1, isDraftTurn);
+            if (turnNum == 1) {
+                // Fresh instances, so the warm-up leaves no cached scores behind
+                timeManager.warmUp(in.getTurnStartNanos() + TimeManager.WARM_UP_NANOS, new BronzeStrategy());
+                System.err.println(String.format("Warm-up: %d rounds in %.0f ms", timeManager.warmUpRounds,
+                        timeManager.warmUpNanos / 1e6));
+            }
+
+            if (isDraftTurn) { // Draft Strategies
+                Action pick = bronzeStrategy.chooseDrafts(gameState);
+                monitor.start(TurnPhase.OUTPUT);
+                output.reset().action(pick);
+            } else { // Battle Strategies
+                monitor.start(TurnPhase.LETHAL);
+                timeManager.startPhase(TurnPhase.LETHAL);
+                lethalState.load(gameState);
+                if (lethal.solve(lethalState, moves) != LethalSolver.LETHAL) {
+                    monitor.stop();
+                    bronzeStrategy.chooseTurnMoves(gameState, moves);
                 }
+                monitor.start(TurnPhase.OUTPUT);
+                output.reset().moves(moves); // PASS when there are no moves
             }
-            String output = actions.stream()
-                    .map(Action::toString)
-                    .collect(Collectors.joining(";"));
-            System.out.println(output);
+            monitor.submit(output);
         }
     }
 }
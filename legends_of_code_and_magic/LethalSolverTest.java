@@ -0,0 +1,161 @@
+import java.util.*;
+
+public class LethalSolverTest {
+    public static void main(String[] args) {
+        LethalSolverTest test = new LethalSolverTest();
+        test.testBoundProvesNoLethal();
+        test.testRedItemRemovesGuardForLethal();
+        test.testChargeAndBlueItemFinish();
+        test.testBreakthroughThroughGuard();
+        test.testMatchesBruteForce();
+        test.testFullBoardStopsAtDeadline();
+    }
+
+    static Card creature(int instanceId, int attack, int defense, String abilities) {
+        return new Card(1, instanceId, CardType.CREATURE, 0, 2, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState state(int mana, int opponentHealth) {
+        PackedState state = new PackedState();
+        state.health[0] = 30;
+        state.health[1] = opponentHealth;
+        state.rune[0] = state.rune[1] = 25;
+        state.mana[0] = mana;
+        return state;
+    }
+
+    static int solve(LethalSolver solver, PackedState state, MoveList line) {
+        state.rehash();
+        int result = solver.solve(state, line);
+        if (result == LethalSolver.LETHAL) {
+            PackedState copy = new PackedState();
+            state.copyInto(copy);
+            for (int i = 0; i < line.size(); i++) {
+                assert Move.apply(copy, line.get(i)) : "Illegal move in " + line.toActions();
+            }
+            assert copy.health[1] <= 0 : "Line does not win: " + line.toActions();
+        }
+        return result;
+    }
+
+    public void testBoundProvesNoLethal() {
+        PackedState state = state(3, 10);
+        state.canAttack[state.addToBoard(0, creature(1, 4, 4, "------"))] = true;
+        state.addToHand(new Card(160, 2, CardType.BLUE_ITEM, 0, 3, 0, -3, "------", 0, -2, 0));
+        state.addToHand(creature(3, 9, 9, "-C----")); // costs 2, so no mana left for the blue item
+        state.cost[PackedState.HAND + 1] = 4;
+
+        LethalSolver solver = new LethalSolver();
+        assert solve(solver, state, new MoveList()) == LethalSolver.NO_LETHAL;
+        assert solver.bound == 9 && solver.nodes == 0 : "The bound alone proves it. Bound " + solver.bound;
+    }
+
+    public void testRedItemRemovesGuardForLethal() {
+        PackedState state = state(2, 7);
+        state.canAttack[state.addToBoard(0, creature(1, 4, 4, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 3, 1, "------"))] = true;
+        state.addToBoard(1, creature(10, 1, 8, "---G--"));
+        state.addToHand(new Card(150, 3, CardType.RED_ITEM, 0, 2, 0, 0, "BCDGLW", 0, 0, 0));
+
+        MoveList line = new MoveList();
+        assert solve(new LethalSolver(), state, line) == LethalSolver.LETHAL;
+        assert line.get(0) == Move.encode(Move.USE, 3, 10) : line.toActions();
+    }
+
+    public void testChargeAndBlueItemFinish() {
+        PackedState state = state(5, 6);
+        state.addToHand(creature(1, 4, 1, "-C----"));
+        state.addToHand(new Card(160, 2, CardType.BLUE_ITEM, 0, 3, 0, -2, "------", 0, 0, 0));
+        state.addToHand(creature(3, 8, 8, "------"));
+
+        MoveList line = new MoveList();
+        assert solve(new LethalSolver(), state, line) == LethalSolver.LETHAL;
+        assert line.size() == 3 : line.toActions();
+    }
+
+    public void testBreakthroughThroughGuard() {
+        PackedState state = state(0, 3);
+        state.canAttack[state.addToBoard(0, creature(1, 6, 6, "B-----"))] = true;
+        state.addToBoard(1, creature(10, 0, 3, "---G--"));
+        MoveList line = new MoveList();
+        assert solve(new LethalSolver(), state, line) == LethalSolver.LETHAL : "6 into a 3 defense guard";
+
+        state.health[1] = 4;
+        assert solve(new LethalSolver(), state, line) == LethalSolver.NO_LETHAL;
+    }
+
+    // Every move order on small random states: the solver must find lethal exactly when one exists
+    public void testMatchesBruteForce() {
+        Random random = new Random(20);
+        LethalSolver solver = new LethalSolver(1_000_000);
+        int lethal = 0;
+        int proven = 0;
+        for (int round = 0; round < 400; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            state.health[1] = 1 + random.nextInt(15);
+            state.rehash();
+            boolean exists = bruteForce(state, new HashSet<>());
+            int result = solve(solver, state, new MoveList());
+            assert result != LethalSolver.UNKNOWN : "Budget is large enough for these states";
+            assert (result == LethalSolver.LETHAL) == exists : "Round " + round + ": solver " + result
+                    + ", brute force " + exists;
+            lethal += exists ? 1 : 0;
+            proven += !exists && solver.nodes == 0 ? 1 : 0;
+        }
+        assert lethal > 50 && lethal < 350 : "Rounds should mix lethal and not, got " + lethal;
+        assert proven > 0 : "Some rounds should be settled by the bound alone";
+    }
+
+    static boolean bruteForce(PackedState state, Set<Long> seen) {
+        if (state.health[1] <= 0) {
+            return true;
+        }
+        if (!seen.add(state.hash)) {
+            return false;
+        }
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = Move.generate(state, moves);
+        for (int m = 1; m < count; m++) {
+            PackedState child = new PackedState();
+            state.copyInto(child);
+            if (Move.apply(child, moves[m]) && bruteForce(child, seen)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Six ready attackers against six warded guards with buffs and removal in hand: too many orders to search
+    // within the node budget, so the LETHAL phase deadline has to end it
+    static PackedState fullBoard() {
+        PackedState state = state(12, 24);
+        for (int i = 0; i < PackedState.BOARD_SIZE; i++) {
+            state.canAttack[state.addToBoard(0, creature(1 + i, 3, 3, "------"))] = true;
+            state.addToBoard(1, creature(20 + i, 1, 4, "---G-W"));
+        }
+        for (int i = 0; i < 3; i++) {
+            state.addToHand(new Card(120, 10 + i, CardType.GREEN_ITEM, 0, 1, 2, 0, "------", 0, 0, 0));
+            state.addToHand(new Card(150, 13 + i, CardType.RED_ITEM, 0, 3, 0, -2, "-----W", 0, 0, 0));
+        }
+        state.rehash();
+        return state;
+    }
+
+    public void testFullBoardStopsAtDeadline() {
+        PackedState state = fullBoard();
+        assert new LethalSolver().damageBound(state) >= state.health[1] : "The bound must not settle it";
+        LethalSolver solver = new LethalSolver(Integer.MAX_VALUE);
+        TimeManager timeManager = new TimeManager();
+        solver.setTimeManager(timeManager);
+        long start = System.nanoTime();
+        timeManager.startTurn(start, false, false);
+        timeManager.startPhase(TurnPhase.LETHAL);
+        long budget = timeManager.getPhaseDeadline() - start;
+        int result = solve(solver, state, new MoveList());
+        long elapsed = System.nanoTime() - start;
+        assert result == LethalSolver.UNKNOWN : "Only the deadline can stop this search, got " + result;
+        // Without the deadline the 100k node budget takes seconds here; the margin allows for a loaded machine
+        assert elapsed < budget + 100_000_000L : "Took " + elapsed / 1_000_000 + " ms of a "
+                + budget / 1_000_000 + " ms phase";
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.*;
+
+// Plays one complete game (30 draft turns then battle) between two strategies without the referee.
+// Battle actions go through BattleSimulator; actions it rejects are ignored like the referee does.
+// Simplifications: both players see the same three draft cards, and the second player starts with an
+// extra card but no bonus mana.
+class LocalGame {
+    static final int DRAFT_TURNS = 30;
+    static final int DRAFT_CHOICES = 3;
+    static final int MAX_MANA = 12;
+    static final int MAX_TURNS = 200;
+
+    // One side of the game: a pick for each draft turn and each battle turn whole, in output order
+    interface Seat {
+        Action chooseDrafts(GameState gameState);
+
+        List<Action> chooseTurn(GameState gameState);
+    }
+
+    private final Seat[] seats;
+    private final Random random;
+    private final Hand[] draftedDecks = { new Hand(), new Hand() };
+    private final List<List<Card>> drawPiles = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+    private final List<List<Card>> hands = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+    private final int[] maxMana = new int[2];
+    // Action lines of the turn being played, given to the other player next turn as its opponentActions
+    private final ArrayList<String> lastActions = new ArrayList<>();
+    private final PackedState state = new PackedState();
+    private int current;
+    private int nextInstanceId = 1;
+    int turns;
+
+    public LocalGame(Strategy first, Strategy second, long seed) {
+        this(seat(first), seat(second), seed);
+    }
+
+    public LocalGame(Seat first, Seat second, long seed) {
+        this.seats = new Seat[] { first, second };
+        this.random = new Random(seed);
+    }
+
+    static Seat seat(Strategy strategy) {
+        return new Seat() {
+            public Action chooseDrafts(GameState gameState) {
+                return strategy.chooseDrafts(gameState);
+            }
+
+            public List<Action> chooseTurn(GameState gameState) {
+                return strategy.chooseTurn(gameState);
+            }
+        };
+    }
+
+    // Returns the index of the winner, 0 for the first player
+    public int play() {
+        draft();
+        return battle();
+    }
+
+    private void draft() {
+        int[] choices = new int[DRAFT_CHOICES];
+        for (int turn = 0; turn < DRAFT_TURNS; turn++) {
+            for (int i = 0; i < DRAFT_CHOICES; i++) {
+                choices[i] = 1 + random.nextInt(CardPool.SIZE);
+            }
+            for (int player = 0; player < 2; player++) {
+                PackedState draftState = new PackedState();
+                draftState.health[0] = draftState.health[1] = 30;
+                draftState.rune[0] = draftState.rune[1] = 25;
+                draftState.deck[0] = draftState.deck[1] = turn;
+                for (int choice : choices) {
+                    draftState.addToHand(CardPool.create(choice, -1));
+                }
+                GameState gameState = GameState.fromPacked(draftState, draftedDecks[player]);
+                Action pick = seats[player].chooseDrafts(gameState);
+                int index = pick instanceof PickAction ? ((PickAction) pick).getInstanceId() : 0;
+                index = Math.max(0, Math.min(DRAFT_CHOICES - 1, index));
+                drawPiles.get(player).add(CardPool.create(choices[index], nextInstanceId++));
+            }
+        }
+    }
+
+    private int battle() {
+        for (int player = 0; player < 2; player++) {
+            Collections.shuffle(drawPiles.get(player), random);
+            state.health[player] = 30;
+            state.rune[player] = 25;
+        }
+        current = 0;
+        for (int i = 0; i < 5; i++) {
+            if (i < 4) {
+                draw(hands.get(0), drawPiles.get(0));
+            }
+            draw(hands.get(1), drawPiles.get(1));
+        }
+        loadHand();
+
+        for (turns = 0; turns < MAX_TURNS; turns++) {
+            startTurn();
+            if (state.health[0] <= 0) {
+                return 1 - current;
+            }
+            GameState gameState = GameState.fromPacked(state, draftedDecks[current]);
+            gameState.opponentActions.addAll(lastActions);
+            lastActions.clear();
+            for (Action action : seats[current].chooseTurn(gameState)) {
+                recordAction(action);
+                BattleSimulator.apply(state, action);
+                if (state.health[1] <= 0) {
+                    return current;
+                }
+            }
+            if (state.health[0] <= 0) {
+                return 1 - current;
+            }
+            endTurn();
+        }
+        return state.health[current] > state.health[1 - current] ? current : 1 - current;
+    }
+
+    private void startTurn() {
+        maxMana[current] = Math.min(MAX_MANA, maxMana[current] + 1);
+        state.mana[0] = maxMana[current];
+        int draws = 1 + state.draw[0];
+        state.draw[0] = 0;
+        List<Card> pile = drawPiles.get(current);
+        for (int i = 0; i < draws; i++) {
+            if (pile.isEmpty()) {
+                // Drawing from an empty deck costs the next rune, or the game once no runes are left
+                BattleSimulator.changeHealth(state, 0, state.rune[0] - state.health[0]);
+            } else if (state.handCount < PackedState.HAND_SIZE) {
+                state.addToHand(pile.remove(pile.size() - 1));
+            } else {
+                pile.remove(pile.size() - 1);
+            }
+        }
+        for (int i = PackedState.boardStart(0), end = i + state.boardCount[0]; i < end; i++) {
+            state.canAttack[i] = true;
+        }
+        state.deck[0] = pile.size();
+        state.deck[1] = drawPiles.get(1 - current).size();
+        state.opponentHandCount = hands.get(1 - current).size();
+    }
+
+    private void endTurn() {
+        List<Card> hand = hands.get(current);
+        hand.clear();
+        for (int i = 0; i < state.handCount; i++) {
+            hand.add(state.toCard(PackedState.HAND + i));
+        }
+        swapSides(state);
+        current = 1 - current;
+        loadHand();
+    }
+
+    // Adds the action as the referee reports it to the opponent, prefixed with the acting card's number
+    private void recordAction(Action action) {
+        int instanceId;
+        if (action instanceof SummonAction) {
+            instanceId = ((SummonAction) action).getInstanceId();
+        } else if (action instanceof AttackAction) {
+            instanceId = ((AttackAction) action).getAttackerId();
+        } else if (action instanceof UseAction) {
+            instanceId = ((UseAction) action).getItemId();
+        } else {
+            return;
+        }
+        for (int slot = 0; slot < PackedState.SLOTS; slot++) {
+            if (state.instanceId[slot] == instanceId && (slot >= PackedState.HAND
+                    ? slot < PackedState.HAND + state.handCount
+                    : slot < PackedState.boardStart(0) + state.boardCount[0])) {
+                lastActions.add(state.cardNumber[slot] + " " + action);
+                return;
+            }
+        }
+    }
+
+    private void loadHand() {
+        state.handCount = 0;
+        for (Card card : hands.get(current)) {
+            state.addToHand(card);
+        }
+    }
+
+    // Switches the state's point of view to the other player; hands are not part of the swap
+    static void swapSides(PackedState state) {
+        int other = PackedState.boardStart(1);
+        for (int i = 0; i < PackedState.BOARD_SIZE; i++) {
+            swapSlot(state, i, other + i);
+        }
+        swap(state.health);
+        swap(state.mana);
+        swap(state.deck);
+        swap(state.rune);
+        swap(state.draw);
+        swap(state.boardCount);
+        state.rehash();
+    }
+
+    private static void swap(int[] pair) {
+        int first = pair[0];
+        pair[0] = pair[1];
+        pair[1] = first;
+    }
+
+    private static void swapSlot(PackedState state, int a, int b) {
+        swap(state.instanceId, a, b);
+        swap(state.cardNumber, a, b);
+        swap(state.cardType, a, b);
+        swap(state.cost, a, b);
+        swap(state.attack, a, b);
+        swap(state.defense, a, b);
+        swap(state.abilities, a, b);
+        swap(state.myHealthChange, a, b);
+        swap(state.opponentHealthChange, a, b);
+        swap(state.cardDraw, a, b);
+        boolean canAttackA = state.canAttack[a];
+        state.canAttack[a] = state.canAttack[b];
+        state.canAttack[b] = canAttackA;
+    }
+
+    private static void swap(int[] values, int a, int b) {
+        int first = values[a];
+        values[a] = values[b];
+        values[b] = first;
+    }
+
+    private static void draw(List<Card> hand, List<Card> pile) {
+        if (!pile.isEmpty() && hand.size() < PackedState.HAND_SIZE) {
+            hand.add(pile.remove(pile.size() - 1));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.*;
+
+// Anytime MCTS over the actions of one battle turn. Each iteration walks the tree with UCT, expands one
+// node, finishes the turn with random legal actions and scores the end of turn with BoardEvaluator.
+// -Dlocm.mctsStats=true prints the simulations, simulations per second and tree size of every search.
+class MctsStrategy implements Strategy {
+    static final int PRUNED = -2; // child count of a node whose position another node already reached
+
+    private final long budgetNanos;
+    private final double exploration;
+    private final int maxNodes;
+    // Simulations per root move below which the search is too shallow to beat the greedy turn
+    static final int MIN_SIMULATIONS_PER_MOVE = 300;
+    static final boolean LOG_STATS = Boolean.getBoolean("locm.mctsStats");
+
+    // Drafts, and plays the battle turns the search had too little time for
+    private final BronzeStrategy greedyStrategy = new BronzeStrategy();
+    private long seed;
+
+    private int[] nodeMove;
+    private int[] nodeFirstChild;
+    private int[] nodeChildCount; // -1 until the node is expanded
+    private int[] nodeParent;
+    private int[] nodeVisits;
+    private double[] nodeValue;
+    private int nodeCount;
+
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private final MoveList line = new MoveList();
+    private long plannedHash;
+    private boolean hasPlan;
+    private TimeManager timeManager;
+    private final TranspositionTable positions;
+    private long salt;
+    private final PackedState root = new PackedState();
+    private final PackedState scratch = new PackedState();
+    private final UndoStack undo = new UndoStack();
+    private final LethalSolver lethal = new LethalSolver();
+    private boolean canWin; // false once LethalSolver proved NO_LETHAL, then no position is checked for a win
+
+    long simulations;
+    long elapsedNanos;
+    long transpositions;
+
+    public MctsStrategy() {
+        this(80_000_000L);
+    }
+
+    public MctsStrategy(long budgetNanos) {
+        this(budgetNanos, 0.5, 1 << 18, 42);
+    }
+
+    public MctsStrategy(long budgetNanos, double exploration, int maxNodes, long seed) {
+        this.budgetNanos = budgetNanos;
+        this.exploration = exploration;
+        this.maxNodes = maxNodes;
+        this.seed = seed;
+        this.nodeMove = new int[maxNodes];
+        this.nodeFirstChild = new int[maxNodes];
+        this.nodeChildCount = new int[maxNodes];
+        this.nodeParent = new int[maxNodes];
+        this.nodeVisits = new int[maxNodes];
+        this.nodeValue = new double[maxNodes];
+        this.positions = new TranspositionTable(maxNodes);
+    }
+
+    public ArrayList<Action> chooseTurn(GameState gameState) {
+        chooseTurnMoves(gameState, line);
+        plannedHash = root.hash;
+        hasPlan = true;
+        return line.toActions();
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+        lethal.setTimeManager(timeManager);
+    }
+
+    public void chooseTurnMoves(GameState gameState, MoveList out) {
+        root.load(gameState);
+        if (timeManager != null) {
+            timeManager.startPhase(TurnPhase.LETHAL);
+        }
+        int lethalResult = lethal.solve(root, out);
+        if (lethalResult == LethalSolver.LETHAL) {
+            return;
+        }
+        canWin = lethalResult != LethalSolver.NO_LETHAL;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        if (timeManager != null) {
+            timeManager.startPhase(TurnPhase.TURN_PLAN);
+            deadline = Math.min(deadline, timeManager.getPhaseDeadline());
+        }
+        nodeCount = 1;
+        nodeChildCount[0] = -1;
+        nodeVisits[0] = 0;
+        nodeValue[0] = 0;
+        nodeParent[0] = -1;
+        nodeMove[0] = Move.encode(Move.PASS, 0, -1);
+        // Node indices are only valid for this search, so salting the keys hides older entries
+        positions.nextGeneration();
+        salt = Zobrist.mix(start);
+        positions.store(root.hash ^ salt, 0, Move.MAX_MOVES);
+        transpositions = 0;
+        long iterations = 0;
+
+        do {
+            iterate();
+            iterations++;
+        } while (System.nanoTime() < deadline);
+
+        simulations = iterations;
+        elapsedNanos = System.nanoTime() - start;
+        boolean shallow = iterations < (long) MIN_SIMULATIONS_PER_MOVE * Math.max(1, nodeChildCount[0]);
+        if (LOG_STATS) {
+            System.err.println(String.format("MCTS: %d simulations, %.0f/s, %d nodes, %d transpositions%s",
+                    simulations, getSimulationsPerSecond(), getTreeSize(), transpositions,
+                    shallow ? ", greedy turn" : ""));
+        }
+        if (shallow) {
+            // Played on a copy, since BronzeStrategy updates the cards it attacks
+            greedyStrategy.chooseTurnMoves(GameState.fromPacked(root, gameState.playerDeck), out);
+        } else {
+            bestLine(out);
+        }
+    }
+
+    // chooseSummons and chooseAttacks split one search: the second call on the same position reuses the line
+    private MoveList plannedLine(GameState gameState) {
+        scratch.load(gameState);
+        if (!hasPlan || scratch.hash != plannedHash) {
+            chooseTurn(gameState);
+        }
+        return line;
+    }
+
+    private void iterate() {
+        root.copyInto(scratch);
+        int node = 0;
+        int depth = 0;
+        while (Move.type(nodeMove[node]) != Move.PASS || node == 0) {
+            if (nodeChildCount[node] < 0) {
+                expand(node);
+                if (nodeChildCount[node] > 0) {
+                    node = nodeFirstChild[node] + nextInt(nodeChildCount[node]);
+                    if (!enterChild(node, depth + 1)) {
+                        node = nodeParent[node];
+                    }
+                }
+                break;
+            }
+            if (nodeChildCount[node] == 0 || isWon()) {
+                break;
+            }
+            node = selectChild(node);
+            depth++;
+            if (!enterChild(node, depth)) {
+                // Finish this iteration from the parent, the child is never selected again
+                node = nodeParent[node];
+                break;
+            }
+        }
+
+        double reward = rollout(node);
+        for (int n = node; n != -1; n = nodeParent[n]) {
+            nodeVisits[n]++;
+            nodeValue[n] += reward;
+        }
+    }
+
+    // Applies the node's move to scratch. Returns false when the node is pruned as a transposition, with the
+    // move unmade again so the rollout starts from the parent's position.
+    private boolean enterChild(int node, int depth) {
+        undo.clear();
+        undo.make(scratch, nodeMove[node]);
+        if (isTransposition(node, depth)) {
+            undo.unmake(scratch);
+            return false;
+        }
+        return true;
+    }
+
+    // On the first visit of a node, prunes it when another order of the same actions already reached its
+    // position. A PASS child has its parent's position and is never pruned.
+    private boolean isTransposition(int node, int depth) {
+        if (nodeVisits[node] != 0 || Move.type(nodeMove[node]) == Move.PASS) {
+            return false;
+        }
+        long key = scratch.hash ^ salt;
+        int owner = positions.probe(key);
+        if (owner != TranspositionTable.MISS && owner != node) {
+            nodeChildCount[node] = PRUNED;
+            transpositions++;
+            return true;
+        }
+        positions.store(key, node, Move.MAX_MOVES - depth);
+        return false;
+    }
+
+    private void expand(int node) {
+        int count = Move.generate(scratch, moves);
+        if (nodeCount + count > maxNodes || isWon()) {
+            nodeChildCount[node] = 0;
+            return;
+        }
+        nodeFirstChild[node] = nodeCount;
+        nodeChildCount[node] = count;
+        for (int i = 0; i < count; i++) {
+            int child = nodeCount++;
+            nodeMove[child] = moves[i];
+            nodeParent[child] = node;
+            nodeChildCount[child] = -1;
+            nodeVisits[child] = 0;
+            nodeValue[child] = 0;
+        }
+    }
+
+    private int selectChild(int node) {
+        int first = nodeFirstChild[node];
+        int best = first;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double logVisits = Math.log(nodeVisits[node] + 1);
+        for (int child = first, end = first + nodeChildCount[node]; child < end; child++) {
+            if (nodeChildCount[child] == PRUNED) {
+                continue;
+            }
+            if (nodeVisits[child] == 0) {
+                return child;
+            }
+            double score = nodeValue[child] / nodeVisits[child]
+                    + exploration * Math.sqrt(logVisits / nodeVisits[child]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Plays random legal actions from the scratch state until PASS, then scores the turn in [0, 1]
+    private double rollout(int node) {
+        if (Move.type(nodeMove[node]) != Move.PASS || node == 0) {
+            while (!isWon()) {
+                int move = moves[nextInt(Move.generate(scratch, moves))];
+                if (Move.type(move) == Move.PASS) {
+                    break;
+                }
+                Move.apply(scratch, move);
+            }
+        }
+        return 1 / (1 + Math.exp(-BoardEvaluator.evaluate(scratch) / 20));
+    }
+
+    // Most visited path from the root, stopping at PASS or at the edge of the tree
+    private void bestLine(MoveList out) {
+        out.clear();
+        int node = 0;
+        while (nodeChildCount[node] > 0) {
+            int best = -1;
+            for (int child = nodeFirstChild[node], end = child + nodeChildCount[node]; child < end; child++) {
+                if (best == -1 || nodeVisits[child] > nodeVisits[best]) {
+                    best = child;
+                }
+            }
+            if (nodeVisits[best] == 0 || Move.type(nodeMove[best]) == Move.PASS) {
+                break;
+            }
+            out.add(nodeMove[best]);
+            node = best;
+        }
+    }
+
+    private boolean isWon() {
+        return canWin && BattleSimulator.isWon(scratch);
+    }
+
+    private int nextInt(int bound) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) ((seed >>> 1) % bound);
+    }
+
+    public int getTreeSize() {
+        return nodeCount;
+    }
+
+    public double getSimulationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : simulations * 1e9 / elapsedNanos;
+    }
+
+    public Action chooseDrafts(GameState gameState) {
+        return greedyStrategy.chooseDrafts(gameState);
+    }
+
+    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        ArrayList<SummonAction> summons = new ArrayList<>();
+        for (Action action : plannedLine(gameState).toActions()) {
+            if (action instanceof SummonAction) {
+                summons.add((SummonAction) action);
+            }
+        }
+        return summons;
+    }
+
+    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        ArrayList<AttackAction> attacks = new ArrayList<>();
+        for (Action action : plannedLine(gameState).toActions()) {
+            if (action instanceof AttackAction) {
+                attacks.add((AttackAction) action);
+            }
+        }
+        return attacks;
+    }
+
+    public double getCardScore(Card card) {
+        return BoardEvaluator.creatureValue(card.attack, card.defense, card.abilityMask);
+    }
+}
@@ -0,0 +1,61 @@
+import java.io.*;
+import java.util.*;
+
+public class MoveTest {
+    public static void main(String[] args) {
+        MoveTest test = new MoveTest();
+        test.testWriterMatchesActionStrings();
+        test.testEmptyTurnPasses();
+        test.testGeneratedMovesRoundTrip();
+        test.testWriterPrintsOneLine();
+    }
+
+    public void testWriterMatchesActionStrings() {
+        List<Action> actions = List.of(new SummonAction(7), new AttackAction(7, -1), new AttackAction(12, 40),
+                new UseAction(4095, 3), new UseAction(9, -1));
+        MoveList moves = new MoveList(1);
+        for (Action action : actions) {
+            moves.add(Move.fromAction(action));
+        }
+        String expected = "SUMMON 7;ATTACK 7 -1;ATTACK 12 40;USE 4095 3;USE 9 -1";
+        ProtocolWriter writer = new ProtocolWriter();
+        assert writer.moves(moves).toString().equals(expected) : writer;
+        assert moves.toActions().toString().equals(actions.toString()) : moves.toActions();
+        assert writer.reset().action(new PickAction(2)).toString().equals("PICK 2") : writer;
+    }
+
+    public void testEmptyTurnPasses() {
+        MoveList moves = new MoveList();
+        moves.add(Move.encode(Move.SUMMON, 1, -1));
+        moves.truncate(0);
+        assert new ProtocolWriter().moves(moves).toString().equals("PASS");
+    }
+
+    public void testGeneratedMovesRoundTrip() {
+        PackedState state = new PackedState();
+        state.health[0] = state.health[1] = 30;
+        state.mana[0] = 12;
+        state.canAttack[state.addToBoard(0, CardPool.create(5, 1))] = true;
+        state.addToBoard(1, CardPool.create(6, 2));
+        for (int cardNumber : new int[] { 3, 120, 145, 155 }) {
+            state.addToHand(CardPool.create(cardNumber, 10 + cardNumber));
+        }
+        MoveList moves = new MoveList(2);
+        Move.generate(state, moves);
+        assert moves.size() > 5 : moves.size();
+        ProtocolWriter writer = new ProtocolWriter();
+        for (int i = 0; i < moves.size(); i++) {
+            Action action = Move.toAction(moves.get(i));
+            assert Move.fromAction(action) == moves.get(i) : action;
+            assert writer.reset().move(moves.get(i)).toString().equals(action.toString()) : writer;
+        }
+    }
+
+    public void testWriterPrintsOneLine() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MoveList moves = new MoveList();
+        moves.add(Move.encode(Move.ATTACK, 3, -1));
+        new ProtocolWriter().moves(moves).writeTo(new PrintStream(bytes));
+        assert bytes.toString().equals("ATTACK 3 -1\n") : bytes;
+    }
+}
@@ -0,0 +1,49 @@
+// One line of the referee's opponent action list, e.g. "116 SUMMON 40" or "99 ATTACK 33 -1"
+class OpponentEvent {
+    final int turn;
+    final int cardNumber;
+    final int type; // Move.SUMMON, ATTACK or USE
+    final int instanceId;
+    final int targetId;
+
+    OpponentEvent(int turn, int cardNumber, int type, int instanceId, int targetId) {
+        this.turn = turn;
+        this.cardNumber = cardNumber;
+        this.type = type;
+        this.instanceId = instanceId;
+        this.targetId = targetId;
+    }
+
+    // Returns null for lines that are not a summon, attack or use
+    static OpponentEvent parse(String line, int turn) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 3) {
+            return null;
+        }
+        int type;
+        switch (parts[1]) {
+            case "SUMMON":
+                type = Move.SUMMON;
+                break;
+            case "ATTACK":
+                type = Move.ATTACK;
+                break;
+            case "USE":
+                type = Move.USE;
+                break;
+            default:
+                return null;
+        }
+        try {
+            int target = parts.length > 3 ? Integer.parseInt(parts[3]) : -1;
+            return new OpponentEvent(turn, Integer.parseInt(parts[0]), type, Integer.parseInt(parts[2]), target);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return cardNumber + " " + Move.toAction(Move.encode(type, instanceId, targetId));
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.*;
+
+// What we know about the opponent across a game. Player does not use it: a strategy that does keeps one per
+// game and passes it every turn's GameState, as RolloutDraftStrategy does for its draft turns.
+// Both players draft from the same three cards, so every offered card may be in the opponent's deck:
+// each offer adds a third of a copy to the pool and each card the opponent plays takes a copy out.
+// The rest of the pool is what the opponent can still hold, and sampleHand draws hands from it.
+class OpponentModel {
+    static final int CARD_NUMBERS = CardScoreCache.CARD_POOL_SIZE + 1;
+    static final double OFFER_WEIGHT = 1.0 / 3;
+
+    private final Card[] knownCards = new Card[CARD_NUMBERS];
+    private final double[] offered = new double[CARD_NUMBERS];
+    private final int[] played = new int[CARD_NUMBERS];
+    private final int[] playedCosts = new int[Hand.MAX_COST + 1];
+    private final ArrayList<OpponentEvent> history = new ArrayList<>();
+    private final double[] cumulative = new double[CARD_NUMBERS];
+    private boolean poolChanged = true;
+    private int turn;
+    private int battleTurns;
+    private int manaSpent;
+    private int faceAttacks;
+    private int creatureAttacks;
+
+    // Called once per turn with the parsed state; opponentActions holds the opponent's last turn
+    public void update(GameState gameState, boolean isDraftTurn) {
+        turn++;
+        for (int i = 0; i < gameState.playerHand.size(); i++) {
+            Card card = gameState.playerHand.getCard(i);
+            learn(card);
+            if (isDraftTurn) {
+                offered[card.cardNumber] += OFFER_WEIGHT;
+                poolChanged = true;
+            }
+        }
+        for (Card card : gameState.opponentBoard) {
+            learn(card);
+        }
+        if (!isDraftTurn) {
+            battleTurns++;
+        }
+        for (String line : gameState.opponentActions) {
+            OpponentEvent event = OpponentEvent.parse(line, turn);
+            if (event != null) {
+                observe(event);
+            }
+        }
+    }
+
+    private void learn(Card card) {
+        if (card.cardNumber > 0 && card.cardNumber < CARD_NUMBERS && knownCards[card.cardNumber] == null) {
+            // Board cards may already be damaged or buffed, draft offers always show the printed stats
+            knownCards[card.cardNumber] = new Card(card.cardNumber, -1, card.cardType, 0, card.cost, card.attack,
+                    card.defense, card.abilities, card.myHealthChange, card.opponentHealthChange, card.cardDraw);
+        }
+    }
+
+    void observe(OpponentEvent event) {
+        history.add(event);
+        if (event.type == Move.ATTACK) {
+            if (event.targetId == -1) {
+                faceAttacks++;
+            } else {
+                creatureAttacks++;
+            }
+            return;
+        }
+        if (event.cardNumber <= 0 || event.cardNumber >= CARD_NUMBERS) {
+            return;
+        }
+        played[event.cardNumber]++;
+        poolChanged = true;
+        Card card = knownCards[event.cardNumber];
+        if (card != null) {
+            playedCosts[Math.min(card.cost, Hand.MAX_COST)]++;
+            manaSpent += card.cost;
+        }
+    }
+
+    public List<OpponentEvent> getHistory() {
+        return history;
+    }
+
+    public int getPlayedCount(int cardNumber) {
+        return played[cardNumber];
+    }
+
+    // Cards the opponent has played at this cost, for cards whose cost we have seen
+    public int getPlayedCostCount(int cost) {
+        return playedCosts[Math.min(cost, Hand.MAX_COST)];
+    }
+
+    public double getManaSpentPerTurn() {
+        return battleTurns == 0 ? 0 : (double) manaSpent / battleTurns;
+    }
+
+    // Share of the opponent's attacks that went face rather than into our creatures, 0.5 before any attack
+    public double getFaceRate() {
+        int attacks = faceAttacks + creatureAttacks;
+        return attacks == 0 ? 0.5 : (double) faceAttacks / attacks;
+    }
+
+    // Expected copies of the card the opponent still holds in hand or deck
+    public double getRemainingWeight(int cardNumber) {
+        return Math.max(0, offered[cardNumber] - played[cardNumber]);
+    }
+
+    public Card getKnownCard(int cardNumber) {
+        return knownCards[cardNumber];
+    }
+
+    // The remaining cards with the highest expected copies times threat, strongest first
+    public int[] likelyThreats(int count) {
+        Integer[] numbers = new Integer[CARD_NUMBERS - 1];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i + 1;
+        }
+        Arrays.sort(numbers, Comparator.comparingDouble(n -> -getRemainingWeight(n) * threat(n)));
+        int found = 0;
+        while (found < Math.min(count, numbers.length) && getRemainingWeight(numbers[found]) > 0) {
+            found++;
+        }
+        int[] threats = new int[found];
+        for (int i = 0; i < found; i++) {
+            threats[i] = numbers[i];
+        }
+        return threats;
+    }
+
+    double threat(int cardNumber) {
+        Card card = knownCards[cardNumber];
+        if (card == null) {
+            return 0;
+        }
+        if (card.cardType == CardType.CREATURE) {
+            return BoardEvaluator.creatureValue(card.attack, card.defense, card.abilityMask);
+        }
+        return Math.abs(card.attack) + Math.abs(card.defense) + Math.abs(card.opponentHealthChange);
+    }
+
+    // Fills out with count card numbers drawn from the remaining pool in proportion to their weight, and
+    // returns how many were drawn: none when nothing is left. O(log n) per card.
+    public int sampleHand(SplittableRandom random, int count, int[] out) {
+        if (poolChanged) {
+            double total = 0;
+            for (int n = 0; n < CARD_NUMBERS; n++) {
+                total += getRemainingWeight(n);
+                cumulative[n] = total;
+            }
+            poolChanged = false;
+        }
+        double total = cumulative[CARD_NUMBERS - 1];
+        if (total <= 0) {
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            index = index < 0 ? -index - 1 : index + 1;
+            out[i] = Math.min(index, CARD_NUMBERS - 1);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+import java.io.*;
+import java.util.*;
+
+public class OpponentModelTest {
+    public static void main(String[] args) throws IOException {
+        OpponentModelTest test = new OpponentModelTest();
+        test.testParsesActionLines();
+        test.testModelPersistsAcrossTurns();
+        test.testSampleHandFollowsRemainingPool();
+        test.testSelfPlayReportsOpponentActions();
+    }
+
+    static String stats() {
+        return "30 0 30 25 0\n30 0 30 25 0\n";
+    }
+
+    static String card(int cardNumber, int instanceId, int location, int type, int cost, int attack, int defense) {
+        return cardNumber + " " + instanceId + " " + location + " " + type + " " + cost + " " + attack + " "
+                + defense + " ------ 0 0 0\n";
+    }
+
+    static GameState read(String input, boolean isDraftTurn, GameState previous) {
+        InputReader in = new InputReader(new ByteArrayInputStream(input.getBytes()));
+        return GameState.readGameState(in, isDraftTurn, previous);
+    }
+
+    public void testParsesActionLines() {
+        OpponentEvent summon = OpponentEvent.parse("116 SUMMON 40", 3);
+        assert summon.type == Move.SUMMON && summon.cardNumber == 116 && summon.instanceId == 40
+                && summon.targetId == -1 : summon;
+        OpponentEvent attack = OpponentEvent.parse("99 ATTACK 33 -1", 3);
+        assert attack.type == Move.ATTACK && attack.targetId == -1 : attack;
+        OpponentEvent use = OpponentEvent.parse("146 USE 44 12", 3);
+        assert use.type == Move.USE && use.instanceId == 44 && use.targetId == 12 : use;
+        assert use.toString().equals("146 USE 44 12") : use;
+        assert OpponentEvent.parse("PASS", 3) == null;
+        assert OpponentEvent.parse("7 SUMMON x", 3) == null;
+    }
+
+    public void testModelPersistsAcrossTurns() {
+        GameState draft = read(stats() + "3 0\n3\n" + card(10, -1, 0, 0, 2, 3, 2) + card(20, -1, 0, 0, 6, 7, 7)
+                + card(30, -1, 0, 1, 1, 1, 1), true, null);
+        OpponentModel model = new OpponentModel();
+        model.update(draft, true);
+        assert Math.abs(model.getRemainingWeight(20) - OpponentModel.OFFER_WEIGHT) < 1e-9;
+
+        GameState battle = read(stats() + "4 3\n10 SUMMON 5\n30 USE 6 5\n10 ATTACK 5 -1\n1\n"
+                + card(10, 5, -1, 0, 2, 4, 3), false, draft);
+        model.update(battle, false);
+        assert model.getHistory().size() == 3 && model.getHistory().get(0).turn == 2;
+        assert model.getPlayedCount(10) == 1 && model.getRemainingWeight(10) == 0;
+        assert model.getPlayedCostCount(2) == 1 && model.getPlayedCostCount(1) == 1;
+        assert model.getManaSpentPerTurn() == 3;
+        assert model.getFaceRate() == 1;
+        assert model.getKnownCard(10).attack == 3 : "Printed stats come from the draft offer";
+        assert Arrays.equals(model.likelyThreats(5), new int[] { 20 }) : Arrays.toString(model.likelyThreats(5));
+    }
+
+    public void testSampleHandFollowsRemainingPool() {
+        OpponentModel model = new OpponentModel();
+        for (int turn = 0; turn < 3; turn++) {
+            model.update(read(stats() + "0 0\n3\n" + card(1, -1, 0, 0, 1, 1, 1) + card(1, -1, 0, 0, 1, 1, 1)
+                    + card(2, -1, 0, 0, 2, 2, 2), true, null), true);
+        }
+        int[] hand = new int[1000];
+        assert model.sampleHand(new SplittableRandom(1), hand.length, hand) == hand.length;
+        int ones = 0;
+        for (int cardNumber : hand) {
+            assert cardNumber == 1 || cardNumber == 2 : cardNumber;
+            ones += cardNumber == 1 ? 1 : 0;
+        }
+        assert ones > 600 && ones < 730 : "Card 1 was offered twice as often, drew " + ones;
+
+        model.observe(new OpponentEvent(4, 2, Move.SUMMON, 1, -1));
+        model.sampleHand(new SplittableRandom(2), hand.length, hand);
+        assert Arrays.stream(hand).allMatch(n -> n == 1) : "Card 2 has been played and left the pool";
+    }
+
+    public void testSelfPlayReportsOpponentActions() {
+        OpponentModel model = new OpponentModel();
+        Strategy spy = new BronzeStrategy() {
+            @Override
+            public Action chooseDrafts(GameState gameState) {
+                model.update(gameState, true);
+                return super.chooseDrafts(gameState);
+            }
+
+            @Override
+            public ArrayList<Action> chooseTurn(GameState gameState) {
+                model.update(gameState, false);
+                return super.chooseTurn(gameState);
+            }
+        };
+        new LocalGame(spy, new BronzeStrategy(), 3).play();
+        assert !model.getHistory().isEmpty() : "LocalGame should report opponent actions";
+        for (OpponentEvent event : model.getHistory()) {
+            assert event.type == Move.ATTACK || model.getKnownCard(event.cardNumber) != null : event;
+        }
+    }
+}
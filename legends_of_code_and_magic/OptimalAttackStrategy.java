@@ -0,0 +1,11 @@
+import java.util.*;
+
+// BronzeStrategy with the attack phase replaced by an exhaustive AttackOptimizer search
+class OptimalAttackStrategy extends BronzeStrategy {
+    final AttackOptimizer optimizer = new AttackOptimizer();
+
+    public ArrayList<AttackAction> chooseAttacks(GameState gameState) {
+        attackActions = optimizer.optimize(PackedState.fromGameState(gameState));
+        return attackActions;
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.*;
+
+// OptimalAttackStrategy that plays its hand with SummonPlanner: cards first, so red items can clear
+// guards and green items buff attackers, then the optimal attacks, then a second plan for the mana and
+// board slots left after the attacks.
+class PlannerStrategy extends OptimalAttackStrategy {
+    private final SummonPlanner planner = new SummonPlanner();
+    private final PackedState state = new PackedState();
+    private final int[] moves = new int[PackedState.HAND_SIZE];
+
+    public ArrayList<Action> chooseTurn(GameState gameState) {
+        ArrayList<Action> actions = new ArrayList<>();
+        state.load(gameState);
+        playPlan(actions);
+        for (AttackAction attack : optimizer.optimize(state)) {
+            if (BattleSimulator.attack(state, attack.getAttackerId(), attack.getTargetId())) {
+                actions.add(attack);
+            }
+        }
+        playPlan(actions);
+        return actions;
+    }
+
+    private void playPlan(ArrayList<Action> actions) {
+        int count = planner.plan(state, moves);
+        for (int i = 0; i < count; i++) {
+            Move.apply(state, moves[i]);
+            actions.add(Move.toAction(moves[i]));
+        }
+    }
+
+    public ArrayList<SummonAction> chooseSummons(GameState gameState) {
+        summonActions = new ArrayList<>();
+        for (Action action : chooseTurn(gameState)) {
+            if (action instanceof SummonAction) {
+                summonActions.add((SummonAction) action);
+            }
+        }
+        return summonActions;
+    }
+}
@@ -0,0 +1,349 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
+
+// Local stand-in for the CodinGame referee that runs the bot as a subprocess over the text protocol.
+// Usage: java Referee <matches> <concurrent> <Opponent[:arg]> [seed] [-- bot command...]
+// The default bot command is this JVM's java running Player with -Xlog:gc on stderr. Each match is a
+// LocalGame against an in-process opponent, where the bot's seat is a BotProcess: it writes the turn
+// input the referee would send, reads one output line and enforces the referee time limits. A timeout,
+// an output line that does not parse or a crash loses the match, like on the real referee; actions that
+// parse but are not legal are ignored by LocalGame. Latency is measured from the end of the turn input
+// to the output line, so the first turn includes JVM startup, and GC pauses are read from the bot's
+// stderr. Matches run concurrently on virtual threads when the JDK has them (21+), else on platform
+// threads; either way each match spends its time waiting on its bot process.
+public class Referee {
+    static final long FIRST_TURN_NANOS = TurnMonitor.FIRST_TURN_NANOS;
+    static final long DRAFT_TURN_NANOS = TurnMonitor.TURN_NANOS;
+    static final long BATTLE_TURN_NANOS = TurnMonitor.TURN_NANOS;
+    static final int FIRST = 0;
+    static final int DRAFT = 1;
+    static final int BATTLE = 2;
+    static final String[] TURN_KINDS = { "first turn", "draft", "battle" };
+
+    final List<String> botCommand;
+    final Supplier<Strategy> opponents;
+    final LatencyHistogram[] latency = { new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram() };
+    final LatencyHistogram gcPauses = new LatencyHistogram();
+    final AtomicInteger botWins = new AtomicInteger();
+    final AtomicInteger matchesPlayed = new AtomicInteger();
+    final AtomicInteger timeouts = new AtomicInteger();
+    final AtomicInteger invalidOutputs = new AtomicInteger();
+    final AtomicInteger crashes = new AtomicInteger();
+    final AtomicInteger turnsWithGc = new AtomicInteger();
+    final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public Referee(List<String> botCommand, Supplier<Strategy> opponents) {
+        this.botCommand = botCommand;
+        this.opponents = opponents;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: java Referee <matches> <concurrent> <Opponent[:arg]> [seed] [-- bot command...]");
+            System.exit(1);
+        }
+        int matches = Integer.parseInt(args[0]);
+        int concurrent = Integer.parseInt(args[1]);
+        int separator = Arrays.asList(args).indexOf("--");
+        long seed = args.length > 3 && separator != 3 ? Long.parseLong(args[3]) : 1;
+        List<String> command = separator >= 0
+                ? Arrays.asList(args).subList(separator + 1, args.length)
+                : defaultBotCommand();
+
+        Referee referee = new Referee(command, Tournament.strategyFactory(args[2]));
+        long start = System.nanoTime();
+        referee.run(matches, concurrent, seed);
+        System.out.println(referee.report(args[2], (System.nanoTime() - start) / 1e9));
+    }
+
+    static List<String> defaultBotCommand() {
+        return List.of(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-Xlog:gc:stderr", "-cp", System.getProperty("java.class.path"), Player.class.getName());
+    }
+
+    // Thread.ofVirtual().factory() when it exists, looked up by reflection so the build stays on Java 17
+    static ThreadFactory threadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    public void run(int matches, int concurrent, long seed) throws InterruptedException {
+        ThreadFactory threads = threadFactory();
+        AtomicInteger nextMatch = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < concurrent; t++) {
+            Thread worker = threads.newThread(() -> {
+                for (int match = nextMatch.getAndIncrement(); match < matches; match = nextMatch.getAndIncrement()) {
+                    playMatch(match, seed + match, threads);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    void playMatch(int match, long matchSeed, ThreadFactory threads) {
+        boolean botStarts = match % 2 == 0;
+        try (BotProcess bot = new BotProcess(this, botCommand, threads)) {
+            LocalGame.Seat opponent = LocalGame.seat(opponents.get());
+            LocalGame game = botStarts ? new LocalGame(bot, opponent, matchSeed)
+                    : new LocalGame(opponent, bot, matchSeed);
+            if ((game.play() == 0) == botStarts) {
+                botWins.incrementAndGet();
+            }
+        } catch (BotFailure e) {
+            failures.add("match " + match + ": " + e.getMessage());
+        } catch (IOException e) {
+            crashes.incrementAndGet();
+            failures.add("match " + match + ": " + e);
+        }
+        matchesPlayed.incrementAndGet();
+    }
+
+    // LatencyHistogram is not thread safe, and every match and stderr reader records into the same ones
+    static void record(LatencyHistogram histogram, long nanos) {
+        synchronized (histogram) {
+            histogram.recordNanos(nanos);
+        }
+    }
+
+    // The bot lost the match by breaking the protocol or the time limit
+    static class BotFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BotFailure(String message) {
+            super(message);
+        }
+    }
+
+    // Referee input for one turn, as GameState.readGameState parses it
+    static String turnInput(GameState gameState) {
+        StringBuilder input = new StringBuilder(1024);
+        input.append(gameState.getPlayerHealth()).append(' ').append(gameState.getPlayerMana()).append(' ')
+                .append(gameState.getCountPlayerDeck()).append(' ').append(gameState.getPlayerRune()).append(' ')
+                .append(gameState.getCountPlayerDrawn()).append('\n');
+        input.append(gameState.getOpponentHealth()).append(' ').append(gameState.getOpponentMana()).append(' ')
+                .append(gameState.getOpponentDeck()).append(' ').append(gameState.getOpponentRune()).append(' ')
+                .append(gameState.getOpponentDraw()).append('\n');
+        input.append(gameState.getOpponentHand()).append(' ').append(gameState.opponentActions.size()).append('\n');
+        for (String action : gameState.opponentActions) {
+            input.append(action).append('\n');
+        }
+        input.append(gameState.playerHand.size() + gameState.playerBoard.size() + gameState.opponentBoard.size())
+                .append('\n');
+        for (int i = 0; i < gameState.playerHand.size(); i++) {
+            appendCard(input, gameState.playerHand.getCard(i), 0);
+        }
+        for (Card card : gameState.playerBoard) {
+            appendCard(input, card, 1);
+        }
+        for (Card card : gameState.opponentBoard) {
+            appendCard(input, card, -1);
+        }
+        return input.toString();
+    }
+
+    private static void appendCard(StringBuilder input, Card card, int location) {
+        input.append(card.cardNumber).append(' ').append(card.instanceId).append(' ').append(location).append(' ')
+                .append(card.cardType.ordinal()).append(' ').append(card.cost).append(' ').append(card.attack)
+                .append(' ').append(card.defense).append(' ').append(card.abilities).append(' ')
+                .append(card.myHealthChange).append(' ').append(card.opponentHealthChange).append(' ')
+                .append(card.cardDraw).append('\n');
+    }
+
+    // Parses one output line into actions, or throws IllegalArgumentException where the referee would
+    // reject the line. Draft turns take a single PICK 0-2 or PASS.
+    static List<Action> parseOutput(String line, boolean draftTurn) {
+        List<Action> actions = new ArrayList<>();
+        for (String command : line.split(";")) {
+            String[] tokens = command.trim().split(" +");
+            Action action;
+            switch (tokens[0]) {
+                case "PASS":
+                    expectArguments(tokens, 0, command);
+                    action = new PassAction();
+                    break;
+                case "PICK":
+                    expectArguments(tokens, 1, command);
+                    int index = Integer.parseInt(tokens[1]);
+                    if (index < 0 || index >= LocalGame.DRAFT_CHOICES) {
+                        throw new IllegalArgumentException("No draft choice " + index);
+                    }
+                    action = new PickAction(index);
+                    break;
+                case "SUMMON":
+                    expectArguments(tokens, 1, command);
+                    action = new SummonAction(Integer.parseInt(tokens[1]));
+                    break;
+                case "ATTACK":
+                    expectArguments(tokens, 2, command);
+                    action = new AttackAction(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                    break;
+                case "USE":
+                    expectArguments(tokens, 2, command);
+                    action = new UseAction(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command '" + command + "'");
+            }
+            if (draftTurn != (action instanceof PickAction) && !(action instanceof PassAction)) {
+                throw new IllegalArgumentException("'" + command + "' in a " + (draftTurn ? "draft" : "battle")
+                        + " turn");
+            }
+            actions.add(action);
+        }
+        if (draftTurn && actions.size() != 1) {
+            throw new IllegalArgumentException("A draft turn takes one command, got '" + line + "'");
+        }
+        return actions;
+    }
+
+    private static void expectArguments(String[] tokens, int count, String command) {
+        if (tokens.length != count + 1) {
+            throw new IllegalArgumentException("Expected " + count + " arguments in '" + command + "'");
+        }
+    }
+
+    // One bot subprocess in a LocalGame seat, so LocalGame drives it like any other player
+    static class BotProcess implements LocalGame.Seat, Closeable {
+        private final Referee referee;
+        private final Process process;
+        private final Writer input;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final AtomicLong gcNanos = new AtomicLong(); // pauses logged during the current turn
+        private int turn;
+
+        BotProcess(Referee referee, List<String> command, ThreadFactory threads) throws IOException {
+            this.referee = referee;
+            this.process = new ProcessBuilder(command).start();
+            this.input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(),
+                    StandardCharsets.US_ASCII));
+            threads.newThread(() -> readOutput(process.getInputStream())).start();
+            threads.newThread(() -> readErrors(process.getErrorStream())).start();
+        }
+
+        private void readOutput(InputStream stream) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                // The process is gone, the next turn times out or fails to write
+            }
+        }
+
+        // Unified GC logging ends each pause line with its duration, e.g. "Pause Young (Normal) ... 2.345ms"
+        private void readErrors(InputStream stream) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    int end = line.lastIndexOf("ms");
+                    if (line.contains("[gc") && line.contains(" Pause ") && end == line.length() - 2) {
+                        long nanos = (long) (Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1, end)) * 1e6);
+                        gcNanos.addAndGet(nanos);
+                        record(referee.gcPauses, nanos);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Stop reading GC pauses, the bot keeps running
+            }
+        }
+
+        private List<Action> play(GameState gameState, boolean draftTurn) {
+            turn++;
+            int kind = turn == 1 ? FIRST : draftTurn ? DRAFT : BATTLE;
+            long limit = turn == 1 ? FIRST_TURN_NANOS : draftTurn ? DRAFT_TURN_NANOS : BATTLE_TURN_NANOS;
+            String line;
+            long nanos;
+            try {
+                input.write(turnInput(gameState));
+                gcNanos.set(0);
+                long start = System.nanoTime();
+                input.flush();
+                line = lines.poll(limit, TimeUnit.NANOSECONDS);
+                nanos = System.nanoTime() - start;
+            } catch (IOException e) {
+                referee.crashes.incrementAndGet();
+                throw new BotFailure("bot exited before turn " + turn);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BotFailure("interrupted in turn " + turn);
+            }
+            if (line == null) {
+                referee.timeouts.incrementAndGet();
+                throw new BotFailure("no output within " + limit / 1_000_000 + " ms in turn " + turn
+                        + (process.isAlive() ? "" : ", exit code " + process.exitValue()));
+            }
+            record(referee.latency[kind], nanos);
+            if (gcNanos.get() > 0) {
+                referee.turnsWithGc.incrementAndGet();
+            }
+            try {
+                return parseOutput(line, draftTurn);
+            } catch (IllegalArgumentException e) {
+                referee.invalidOutputs.incrementAndGet();
+                throw new BotFailure("turn " + turn + ": " + e.getMessage());
+            }
+        }
+
+        public Action chooseDrafts(GameState gameState) {
+            return play(gameState, true).get(0);
+        }
+
+        public List<Action> chooseTurn(GameState gameState) {
+            return play(gameState, false);
+        }
+
+        // Closing stdin ends the game for Player, which then exits with its timing report
+        @Override
+        public void close() {
+            try {
+                input.close();
+                if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    public String report(String opponentName, double seconds) {
+        int matches = matchesPlayed.get();
+        StringBuilder report = new StringBuilder(String.format(
+                "bot vs %s: %d matches, %d won, %.1f s, %.2f matches/s%n"
+                        + "lost to timeouts %d, invalid output %d, crashes %d",
+                opponentName, matches, botWins.get(), seconds, matches / seconds,
+                timeouts.get(), invalidOutputs.get(), crashes.get()));
+        for (int kind = 0; kind < latency.length; kind++) {
+            report.append(String.format("%n%-10s latency us: p50 %d, p99 %d, max %d (%d turns)", TURN_KINDS[kind],
+                    latency[kind].percentileMicros(50), latency[kind].percentileMicros(99),
+                    latency[kind].getMaxMicros(), latency[kind].getCount()));
+        }
+        report.append(String.format("%nGC pauses: %d, p99 %d us, max %d us, in %d turns", gcPauses.getCount(),
+                gcPauses.percentileMicros(99), gcPauses.getMaxMicros(), turnsWithGc.get()));
+        synchronized (failures) {
+            for (String failure : failures) {
+                report.append(System.lineSeparator()).append(failure);
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.*;
+import java.util.*;
+
+public class RefereeTest {
+    public static void main(String[] args) throws InterruptedException {
+        RefereeTest test = new RefereeTest();
+        test.testTurnInputParsesBack();
+        test.testParsesPlayerOutput();
+        test.testRejectsInvalidOutput();
+        test.testMatchAgainstPlayer();
+        test.testStallingBotTimesOut();
+        test.testCrashingBotLoses();
+        test.testInvalidOutputLoses();
+    }
+
+    public void testTurnInputParsesBack() {
+        ScenarioGenerator generator = new ScenarioGenerator(24);
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        for (int round = 0; round < 500; round++) {
+            boolean draftTurn = generator.next(state, drafted) == ScenarioGenerator.DRAFT;
+            GameState sent = GameState.fromPacked(state, drafted);
+            sent.opponentActions.add("12 SUMMON 7");
+            sent.opponentActions.add("150 USE 9 -1");
+            String input = Referee.turnInput(sent);
+
+            GameState received = GameState.readGameState(
+                    new InputReader(new ByteArrayInputStream(input.getBytes())), draftTurn);
+            assert Referee.turnInput(received).equals(input) : "Round " + round + "\n" + input;
+            assert received.opponentActions.equals(sent.opponentActions);
+        }
+    }
+
+    public void testParsesPlayerOutput() {
+        ProtocolWriter output = new ProtocolWriter();
+        MoveList moves = new MoveList();
+        moves.add(Move.encode(Move.SUMMON, 3, -1));
+        moves.add(Move.encode(Move.ATTACK, 4, -1));
+        moves.add(Move.encode(Move.USE, 5, 8));
+        List<Action> actions = Referee.parseOutput(output.reset().moves(moves).toString(), false);
+        assert actions.toString().equals("[SUMMON 3, ATTACK 4 -1, USE 5 8]") : actions.toString();
+
+        assert Referee.parseOutput(output.reset().pick(2).toString(), true).get(0) instanceof PickAction;
+        assert Referee.parseOutput("PASS", true).get(0) instanceof PassAction;
+        assert Referee.parseOutput("PASS", false).get(0) instanceof PassAction;
+    }
+
+    public void testRejectsInvalidOutput() {
+        for (String line : new String[] { "", "PICK 3", "PICK 0;PICK 1", "ATTACK 1", "SUMMON x", "WAIT" }) {
+            assertRejected(line, true);
+        }
+        for (String line : new String[] { "", "PICK 0", "SUMMON 1 2", "USE 1", "ATTACK 1 2;MOVE 3" }) {
+            assertRejected(line, false);
+        }
+        assertRejected("SUMMON 1", true);
+    }
+
+    private static void assertRejected(String line, boolean draftTurn) {
+        try {
+            Referee.parseOutput(line, draftTurn);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        assert false : "'" + line + "' should be rejected in a " + (draftTurn ? "draft" : "battle") + " turn";
+    }
+
+    // One whole match against this classpath's Player, from JVM startup to game over
+    public void testMatchAgainstPlayer() throws InterruptedException {
+        Referee referee = new Referee(Referee.defaultBotCommand(), BronzeStrategy::new);
+        referee.run(1, 1, 5);
+
+        assert referee.failures.isEmpty() : referee.failures.toString();
+        assert referee.matchesPlayed.get() == 1;
+        assert referee.latency[Referee.FIRST].getCount() == 1;
+        assert referee.latency[Referee.DRAFT].getCount() == LocalGame.DRAFT_TURNS - 1;
+        assert referee.latency[Referee.BATTLE].getCount() > 0 : "The match should reach the battle";
+        assert referee.latency[Referee.BATTLE].getMaxMicros() < Referee.BATTLE_TURN_NANOS / 1000;
+    }
+
+    // Reads its input and never answers
+    public void testStallingBotTimesOut() throws InterruptedException {
+        Referee referee = new Referee(List.of("sh", "-c", "cat > /dev/null"), BronzeStrategy::new);
+        long start = System.nanoTime();
+        referee.run(1, 1, 5);
+        long elapsed = System.nanoTime() - start;
+
+        assert referee.timeouts.get() == 1 && referee.failures.size() == 1 : referee.failures.toString();
+        assert referee.failures.get(0).contains("no output within 1000 ms in turn 1") : referee.failures.get(0);
+        assert referee.botWins.get() == 0 && referee.matchesPlayed.get() == 1;
+        assert elapsed >= Referee.FIRST_TURN_NANOS : "The referee waits out the first turn";
+        assert referee.latency[Referee.FIRST].getCount() == 0 : "A timeout records no latency";
+    }
+
+    // Exits before reading its first turn, so the referee either fails to write or sees the exit code
+    public void testCrashingBotLoses() throws InterruptedException {
+        Referee referee = new Referee(List.of("sh", "-c", "exit 3"), BronzeStrategy::new);
+        referee.run(1, 1, 5);
+
+        assert referee.timeouts.get() + referee.crashes.get() == 1 : referee.report("crash", 1);
+        assert referee.failures.size() == 1 && referee.botWins.get() == 0 : referee.failures.toString();
+        assert referee.timeouts.get() == 0 || referee.failures.get(0).contains("exit code 3")
+                : referee.failures.get(0);
+    }
+
+    public void testInvalidOutputLoses() throws InterruptedException {
+        Referee referee = new Referee(List.of("sh", "-c", "read line; echo WAIT; cat > /dev/null"),
+                BronzeStrategy::new);
+        referee.run(1, 1, 5);
+
+        assert referee.invalidOutputs.get() == 1 && referee.failures.size() == 1 : referee.failures.toString();
+        assert referee.failures.get(0).contains("turn 1: Unknown command 'WAIT'") : referee.failures.get(0);
+        assert referee.latency[Referee.FIRST].getCount() == 1 : "The answer came in time";
+    }
+}
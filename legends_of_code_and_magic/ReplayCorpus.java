@@ -0,0 +1,139 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Re-runs a strategy on every decision point of a directory of replays written by ReplayRecorder.
+// Usage: java ReplayCorpus <directory> <Strategy[:arg]> [differences to print]
+// Files are memory mapped and decoded one turn at a time. Each replay gets a fresh strategy and its turns
+// are parsed in order like Player does, so strategies keep their state across a game. The new decision is
+// compared with the recorded output and both are timed.
+public class ReplayCorpus {
+    static final int DRAFT_TURNS = 30;
+
+    final List<Path> files;
+    final LatencyHistogram recordedLatency = new LatencyHistogram();
+    final LatencyHistogram replayedLatency = new LatencyHistogram();
+    final List<String> differences = new ArrayList<>();
+    int maxDifferences = 10;
+    int draftDecisions;
+    int battleDecisions;
+    int draftDifferences;
+    int battleDifferences;
+
+    public ReplayCorpus(Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.locm")) {
+            this.files = new ArrayList<>();
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java ReplayCorpus <directory> <Strategy[:arg]> [differences to print]");
+            System.exit(1);
+        }
+        ReplayCorpus corpus = new ReplayCorpus(Paths.get(args[0]));
+        if (args.length > 2) {
+            corpus.maxDifferences = Integer.parseInt(args[2]);
+        }
+        long start = System.nanoTime();
+        corpus.run(Tournament.strategyFactory(args[1]));
+        System.out.println(corpus.report(args[1], (System.nanoTime() - start) / 1e9));
+    }
+
+    public void run(Supplier<Strategy> strategies) throws IOException {
+        for (Path file : files) {
+            replay(file, strategies.get());
+        }
+    }
+
+    static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    void replay(Path file, Strategy strategy) throws IOException {
+        ByteBuffer in = map(file);
+        if (in.remaining() < 5 || in.getInt() != ReplayRecorder.MAGIC || in.get() != ReplayRecorder.VERSION) {
+            throw new IOException(file + " is not a version " + ReplayRecorder.VERSION + " replay");
+        }
+        ByteArrayOutputStream text = new ByteArrayOutputStream(1 << 12);
+        GameState gameState = null;
+        for (int turn = 1; in.hasRemaining(); turn++) {
+            text.reset();
+            ReplayRecorder.decodeTokens(in, (int) ReplayRecorder.getVarLong(in), text);
+            byte[] output = new byte[(int) ReplayRecorder.getVarLong(in)];
+            in.get(output);
+            long recordedMicros = ReplayRecorder.getVarLong(in);
+
+            boolean isDraftTurn = turn <= DRAFT_TURNS;
+            InputReader reader = new InputReader(new ByteArrayInputStream(text.toByteArray()));
+            gameState = GameState.readGameState(reader, isDraftTurn, gameState);
+
+            long start = System.nanoTime();
+            String decision = decide(strategy, gameState, isDraftTurn);
+            replayedLatency.recordNanos(System.nanoTime() - start);
+            recordedLatency.recordNanos(recordedMicros * 1000);
+
+            String recorded = new String(output, ReplayRecorder.ASCII);
+            if (isDraftTurn) {
+                draftDecisions++;
+            } else {
+                battleDecisions++;
+            }
+            if (!decision.equals(recorded)) {
+                if (isDraftTurn) {
+                    draftDifferences++;
+                } else {
+                    battleDifferences++;
+                }
+                if (differences.size() < maxDifferences) {
+                    differences.add(file.getFileName() + " turn " + turn + ": " + recorded + " -> " + decision);
+                }
+            }
+        }
+    }
+
+    // Same output as Player for the turn
+    static String decide(Strategy strategy, GameState gameState, boolean isDraftTurn) {
+        if (isDraftTurn) {
+            return strategy.chooseDrafts(gameState).toString();
+        }
+        List<Action> actions = strategy.chooseTurn(gameState);
+        if (actions.isEmpty()) {
+            return new PassAction().toString();
+        }
+        return actions.stream().map(Action::toString).collect(Collectors.joining(";"));
+    }
+
+    public String report(String strategyName, double seconds) {
+        int decisions = draftDecisions + battleDecisions;
+        StringBuilder report = new StringBuilder(String.format(
+                "%s on %d replays: %d decisions (%d draft, %d battle), %.0f decisions/s%n"
+                        + "different: %d draft (%.1f%%), %d battle (%.1f%%)%n"
+                        + "recorded latency us: p50 %d, p99 %d, max %d%n"
+                        + "replayed latency us: p50 %d, p99 %d, max %d",
+                strategyName, files.size(), decisions, draftDecisions, battleDecisions, decisions / seconds,
+                draftDifferences, percent(draftDifferences, draftDecisions),
+                battleDifferences, percent(battleDifferences, battleDecisions),
+                recordedLatency.percentileMicros(50), recordedLatency.percentileMicros(99),
+                recordedLatency.getMaxMicros(),
+                replayedLatency.percentileMicros(50), replayedLatency.percentileMicros(99),
+                replayedLatency.getMaxMicros()));
+        for (String difference : differences) {
+            report.append(System.lineSeparator()).append(difference);
+        }
+        return report.toString();
+    }
+
+    private static double percent(int part, int total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.*;
+import java.util.*;
+
+// Records the games the bot plays. Run it in place of Player, e.g. as the Referee bot command:
+//   java -Dlocm.replayDir=<directory> ReplayRecorder
+// It plays Player with System.in and System.out wrapped, so Player itself has no recording code. The referee
+// only sends a turn after the previous answer, so the bytes read since the last output line are that turn's
+// input, and the line the referee got (the watchdog's fallback when it answered) ends the turn. Every turn
+// is appended to one file per game as (input, output, elapsed microseconds) and flushed, so a game killed
+// halfway still leaves the turns played so far. ReplayCorpus reads the files back.
+//
+// File: "LOCM" magic, a version byte, then one record per turn:
+//   varint input size, input tokens, varint output size, output bytes, varint elapsed micros
+// The input is stored as tokens rather than text. Each token starts with a varint of
+// (value << 3 | kind << 1 | line end); numbers keep their value there, ability strings their mask and
+// other text its length followed by the bytes. Most numbers in a turn fit in one byte.
+class ReplayRecorder implements Closeable {
+    static final int MAGIC = 0x4C4F434D;
+    static final int VERSION = 1;
+    static final int NUMBER = 0;
+    static final int ABILITIES = 1;
+    static final int TEXT = 2;
+    static final java.nio.charset.Charset ASCII = java.nio.charset.StandardCharsets.US_ASCII;
+
+    private final OutputStream out;
+    private byte[] input = new byte[1 << 12];
+    private int inputLength;
+    private byte[] record = new byte[1 << 12];
+    private int recordLength;
+    private volatile long turnStartNanos;
+
+    public ReplayRecorder(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(new byte[] { 'L', 'O', 'C', 'M', VERSION });
+    }
+
+    // Creates a new file in the directory named by the locm.replayDir property, or returns null
+    public static ReplayRecorder fromProperty() {
+        String directory = System.getProperty("locm.replayDir");
+        if (directory == null) {
+            return null;
+        }
+        try {
+            File dir = new File(directory);
+            dir.mkdirs();
+            String name = "replay-" + System.currentTimeMillis() + "-" + ProcessHandle.current().pid() + ".locm";
+            File file = new File(dir, name);
+            return new ReplayRecorder(new BufferedOutputStream(new FileOutputStream(file)));
+        } catch (IOException e) {
+            System.err.println("Replay recording disabled: " + e);
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ReplayRecorder recorder = fromProperty();
+        if (recorder == null) {
+            Player.main(args);
+            return;
+        }
+        System.setIn(recorder.recordInput(System.in));
+        System.setOut(new PrintStream(recorder.recordOutput(System.out), true));
+        try {
+            Player.main(args);
+        } finally {
+            recorder.close();
+        }
+    }
+
+    // Passes every byte read to input; the first read of a turn starts its clock
+    public InputStream recordInput(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == 1 ? one[0] & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                if (read > 0) {
+                    input(bytes, offset, read);
+                }
+                return read;
+            }
+        };
+    }
+
+    // Ends the turn at every line written, with the time since its input arrived
+    public OutputStream recordOutput(OutputStream out) {
+        return new FilterOutputStream(out) {
+            private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                if (b == '\n') {
+                    endTurn(line.toString(ASCII).trim(), System.nanoTime() - turnStartNanos);
+                    line.reset();
+                } else {
+                    line.write(b);
+                }
+            }
+        };
+    }
+
+    public synchronized void input(byte[] bytes, int offset, int length) {
+        if (inputLength == 0) {
+            turnStartNanos = System.nanoTime();
+        }
+        if (inputLength + length > input.length) {
+            input = Arrays.copyOf(input, Math.max(2 * input.length, inputLength + length));
+        }
+        System.arraycopy(bytes, offset, input, inputLength, length);
+        inputLength += length;
+    }
+
+    public synchronized void endTurn(String output, long elapsedNanos) {
+        recordLength = 0;
+        encodeTokens(input, inputLength);
+        int tokensLength = recordLength;
+        byte[] outputBytes = output.getBytes(ASCII);
+        try {
+            byte[] header = new byte[10];
+            out.write(header, 0, putVarLong(header, 0, tokensLength));
+            out.write(record, 0, tokensLength);
+            out.write(header, 0, putVarLong(header, 0, outputBytes.length));
+            out.write(outputBytes);
+            out.write(header, 0, putVarLong(header, 0, elapsedNanos / 1000));
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Replay recording failed: " + e);
+        }
+        inputLength = 0;
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void encodeTokens(byte[] text, int length) {
+        int i = 0;
+        while (true) {
+            while (i < length && text[i] <= ' ') {
+                i++;
+            }
+            if (i == length) {
+                return;
+            }
+            int start = i;
+            while (i < length && text[i] > ' ') {
+                i++;
+            }
+            // The referee ends every turn with a line break, so a token cut off by the capture ends a line
+            long lineEnd = i == length || text[i] == '\n' || text[i] == '\r' ? 1 : 0;
+            long number = parseNumber(text, start, i);
+            int mask = CardAbility.INPUT_ORDER.length() == i - start ? abilityMask(text, start) : -1;
+            if (number != Long.MIN_VALUE) {
+                putToken((number << 1 ^ number >> 63) << 3 | NUMBER << 1 | lineEnd);
+            } else if (mask >= 0) {
+                putToken((long) mask << 3 | ABILITIES << 1 | lineEnd);
+            } else {
+                putToken((long) (i - start) << 3 | TEXT << 1 | lineEnd);
+                ensureRecord(i - start);
+                System.arraycopy(text, start, record, recordLength, i - start);
+                recordLength += i - start;
+            }
+        }
+    }
+
+    // Value of a canonical int token, so decoding gives back the same text, else Long.MIN_VALUE
+    private static long parseNumber(byte[] text, int start, int end) {
+        int digits = text[start] == '-' ? start + 1 : start;
+        if (digits == end || end - digits > 9 || (text[digits] == '0' && end - digits > 1)
+                || (text[digits] == '0' && digits > start)) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = digits; i < end; i++) {
+            if (text[i] < '0' || text[i] > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + text[i] - '0';
+        }
+        return digits > start ? -value : value;
+    }
+
+    private static int abilityMask(byte[] text, int start) {
+        int mask = 0;
+        for (int i = 0; i < CardAbility.INPUT_ORDER.length(); i++) {
+            byte c = text[start + i];
+            if (c == CardAbility.INPUT_ORDER.charAt(i)) {
+                mask |= CardAbility.fromCode((char) c).mask();
+            } else if (c != '-') {
+                return -1;
+            }
+        }
+        return mask;
+    }
+
+    private void putToken(long value) {
+        ensureRecord(10);
+        recordLength = putVarLong(record, recordLength, value);
+    }
+
+    private void ensureRecord(int extra) {
+        if (recordLength + extra > record.length) {
+            record = Arrays.copyOf(record, Math.max(2 * record.length, recordLength + extra));
+        }
+    }
+
+    static int putVarLong(byte[] bytes, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[offset++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    static long getVarLong(java.nio.ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // Turns length bytes of tokens back into referee text, one space or line break after each token
+    static void decodeTokens(java.nio.ByteBuffer in, int length, ByteArrayOutputStream text) {
+        int end = in.position() + length;
+        while (in.position() < end) {
+            long token = getVarLong(in);
+            long value = token >>> 3;
+            switch ((int) (token >>> 1 & 3)) {
+                case NUMBER:
+                    long number = value >>> 1 ^ -(value & 1);
+                    byte[] digits = Long.toString(number).getBytes(ASCII);
+                    text.write(digits, 0, digits.length);
+                    break;
+                case ABILITIES:
+                    byte[] abilities = CardAbility.fromMask((int) value).getBytes(ASCII);
+                    text.write(abilities, 0, abilities.length);
+                    break;
+                default:
+                    for (long i = 0; i < value; i++) {
+                        text.write(in.get());
+                    }
+                    break;
+            }
+            text.write((token & 1) != 0 ? '\n' : ' ');
+        }
+    }
+}
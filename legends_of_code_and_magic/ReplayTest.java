@@ -0,0 +1,115 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+
+public class ReplayTest {
+    public static void main(String[] args) throws IOException {
+        ReplayTest test = new ReplayTest();
+        test.testTokensRoundTrip();
+        test.testStreamsEndTurnsAtOutputLines();
+        test.testCorpusReplaysRecordedGame();
+    }
+
+    static String normalise(String text) {
+        return text.trim().replaceAll("[ \t]+", " ").replaceAll(" ?\r?\n ?", "\n") + "\n";
+    }
+
+    public void testTokensRoundTrip() throws IOException {
+        String turn = TurnParserBenchmark.LATE_BATTLE_TURN + "\n";
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(file);
+        byte[] bytes = turn.getBytes(ReplayRecorder.ASCII);
+        recorder.input(bytes, 0, bytes.length);
+        recorder.endTurn("PASS", 1234_000);
+
+        ByteBuffer in = ByteBuffer.wrap(file.toByteArray());
+        assert in.getInt() == ReplayRecorder.MAGIC && in.get() == ReplayRecorder.VERSION : "Header should match";
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        int tokens = (int) ReplayRecorder.getVarLong(in);
+        ReplayRecorder.decodeTokens(in, tokens, text);
+        assert text.toString().equals(normalise(turn)) : "Decoded turn should match the input. Got\n" + text;
+        assert tokens * 5 < bytes.length * 3 : "Tokens should be well under the text size. " + tokens + " of "
+                + bytes.length;
+        byte[] output = new byte[(int) ReplayRecorder.getVarLong(in)];
+        in.get(output);
+        assert new String(output, ReplayRecorder.ASCII).equals("PASS") : "Output should round trip";
+        assert ReplayRecorder.getVarLong(in) == 1234 : "Elapsed time should be stored in micros";
+        assert !in.hasRemaining() : "Nothing should follow the turn";
+    }
+
+    public void testStreamsEndTurnsAtOutputLines() throws IOException {
+        String[] turns = { TurnParserBenchmark.EARLY_BATTLE_TURN + "\n", TurnParserBenchmark.LATE_BATTLE_TURN + "\n" };
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(file);
+        // One read per turn, like a referee that waits for each answer
+        InputStream in = recorder.recordInput(new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(turns[0].getBytes(ReplayRecorder.ASCII)),
+                new ByteArrayInputStream(turns[1].getBytes(ReplayRecorder.ASCII))))));
+        PrintStream out = new PrintStream(recorder.recordOutput(OutputStream.nullOutputStream()), true);
+        byte[] buffer = new byte[1 << 16];
+        for (int turn = 0; turn < turns.length; turn++) {
+            assert in.read(buffer, 0, buffer.length) == turns[turn].length() : "Each turn should be one read";
+            out.println("PASS " + turn);
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(file.toByteArray());
+        records.position(5);
+        for (String turn : turns) {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            ReplayRecorder.decodeTokens(records, (int) ReplayRecorder.getVarLong(records), text);
+            assert text.toString().equals(normalise(turn)) : "Each record should hold one turn. Got\n" + text;
+            byte[] output = new byte[(int) ReplayRecorder.getVarLong(records)];
+            records.get(output);
+            assert new String(output, ReplayRecorder.ASCII).startsWith("PASS") : "The line should end the turn";
+            ReplayRecorder.getVarLong(records);
+        }
+        assert !records.hasRemaining() : "Every line written should end one turn";
+    }
+
+    public void testCorpusReplaysRecordedGame() throws IOException {
+        List<String> game = new ArrayList<>(Collections.nCopies(ReplayCorpus.DRAFT_TURNS,
+                TurnParserBenchmark.DRAFT_TURN));
+        game.add(TurnParserBenchmark.EARLY_BATTLE_TURN);
+        game.add(TurnParserBenchmark.LATE_BATTLE_TURN);
+        List<InputStream> turns = new ArrayList<>();
+        for (String turn : game) {
+            turns.add(new ByteArrayInputStream((turn + "\n").getBytes(ReplayRecorder.ASCII)));
+        }
+
+        Path directory = Files.createTempDirectory("replays");
+        try {
+            // Plays the turns like Player, recording into the directory
+            try (ReplayRecorder recorder = new ReplayRecorder(
+                    new FileOutputStream(directory.resolve("game.locm").toFile()))) {
+                InputReader in = new InputReader(
+                        recorder.recordInput(new SequenceInputStream(Collections.enumeration(turns))));
+                Strategy strategy = new BronzeStrategy();
+                GameState gameState = null;
+                for (int turn = 1; turn <= ReplayCorpus.DRAFT_TURNS + 2; turn++) {
+                    boolean isDraftTurn = turn <= ReplayCorpus.DRAFT_TURNS;
+                    gameState = GameState.readGameState(in, isDraftTurn, gameState);
+                    recorder.endTurn(ReplayCorpus.decide(strategy, gameState, isDraftTurn), 50_000);
+                }
+            }
+
+            ReplayCorpus corpus = new ReplayCorpus(directory);
+            corpus.run(BronzeStrategy::new);
+            assert corpus.draftDecisions == 30 && corpus.battleDecisions == 2
+                    : "Every recorded turn should be replayed. Got " + corpus.draftDecisions + " + "
+                            + corpus.battleDecisions;
+            assert corpus.draftDifferences == 0 && corpus.battleDifferences == 0
+                    : "The same strategy should make the same decisions. " + corpus.differences;
+            assert corpus.recordedLatency.percentileMicros(50) >= 45 : "Recorded latency should be read back";
+
+            corpus = new ReplayCorpus(directory);
+            corpus.run(BasicStrategy::new);
+            int different = corpus.draftDifferences + corpus.battleDifferences;
+            assert different > 0 : "BasicStrategy should not match BronzeStrategy on every turn";
+            assert corpus.differences.size() == Math.min(different, corpus.maxDifferences)
+                    : "Differences should be listed up to the limit";
+        } finally {
+            Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// PlannerStrategy that judges each of the three draft offers by simulated games; it builds on the planner
+// because the rollouts play items and BronzeStrategy's battle turns never do. The offers are split
+// over up to three worker threads, so on three cores every candidate has one to itself. For each rollout
+// a worker completes the deck with the candidate and fast picks (the best card score per mana of three
+// cards drawn from the offers seen so far), then plays a DraftRollout against one of a few opponent
+// decks sampled from its OpponentModel, which learns every offer of the game. Rollout r uses the same opponent deck, offers and shuffles for every
+// candidate, so their win rates differ by the pick rather than by luck. The workers start no game in the
+// last FINISH_NANOS before the draft deadline, so the one they are playing ends in time; the pick never
+// waits past the deadline. The static getDraftScore pick is used when the workers are late or a candidate
+// got fewer than MIN_ROLLOUTS games. Every instance has its own workers, so strategies playing in parallel
+// (Tournament) never queue behind each other's rollouts; idle workers exit after KEEP_ALIVE_SECONDS.
+class RolloutDraftStrategy extends PlannerStrategy {
+    static final int CANDIDATES = 3;
+    static final int OPPONENT_DECKS = 8;
+    static final int MIN_ROLLOUTS = 6;
+    static final long FINISH_NANOS = 5_000_000L; // of the budget, for the workers to end their last game
+    static final int KEEP_ALIVE_SECONDS = 2;
+    private static final int THREADS = Math.min(CANDIDATES, Runtime.getRuntime().availableProcessors());
+
+    private final ThreadPoolExecutor workers;
+    private CountDownLatch running; // the workers of the last call, which may still be finishing a game
+    private final long budgetNanos;
+    private final SplittableRandom random = new SplittableRandom(25);
+    private final DraftRollout[] rollouts = new DraftRollout[CANDIDATES];
+    private final Card[][] candidateDecks = new Card[CANDIDATES][DraftRollout.DECK_SIZE];
+    private final Card[][] opponentDecks = new Card[OPPONENT_DECKS][DraftRollout.DECK_SIZE];
+    private final int[] sampled = new int[DraftRollout.DECK_SIZE];
+    private final Card[] pool = new Card[OpponentModel.CARD_NUMBERS];
+    private final double[] poolValues = new double[OpponentModel.CARD_NUMBERS];
+    private final Card[] offers = new Card[CANDIDATES];
+    private final double[] wins = new double[CANDIDATES];
+    private final int[] games = new int[CANDIDATES];
+    private TimeManager timeManager;
+    private int poolSize;
+    private int drafted;
+    OpponentModel opponentModel = new OpponentModel();
+    private volatile boolean stopped;
+    private volatile boolean failed;
+
+    long rolloutCount;
+    int fallbacks;
+
+    public RolloutDraftStrategy() {
+        this(TimeManager.DRAFT_BUDGET_NANOS);
+    }
+
+    public RolloutDraftStrategy(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        for (int i = 0; i < CANDIDATES; i++) {
+            rollouts[i] = new DraftRollout();
+        }
+        workers = new ThreadPoolExecutor(THREADS, THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "draft-rollout");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    @Override
+    public Action chooseDrafts(GameState gameState) {
+        if (gameState.playerDeck.size() == 0) { // first pick of a new game
+            opponentModel = new OpponentModel();
+        }
+        opponentModel.update(gameState, true);
+        long deadline = System.nanoTime() + budgetNanos;
+        if (timeManager != null) {
+            deadline = Math.min(deadline, timeManager.getPhaseDeadline());
+        }
+        int pick = rolloutPick(gameState, deadline);
+        if (pick < 0) {
+            fallbacks++;
+            return super.chooseDrafts(gameState);
+        }
+        gameState.playerDeck.addCard(gameState.playerHand.getCard(pick));
+        return new PickAction(pick);
+    }
+
+    // Index of the offer with the best rollout win rate, or -1 when the rollouts cannot decide
+    int rolloutPick(GameState gameState, long deadline) {
+        Hand deck = gameState.playerDeck;
+        OpponentModel model = opponentModel;
+        // Late workers of the last call still read the pool and write the decks and results
+        if (running != null && running.getCount() > 0) {
+            return -1;
+        }
+        if (gameState.playerHand.size() != CANDIDATES || deck.size() >= DraftRollout.DECK_SIZE
+                || !preparePool(model)) {
+            return -1;
+        }
+        // Everything the workers read is set up here: they share no state with the caller or each other
+        drafted = deck.size();
+        for (int c = 0; c < CANDIDATES; c++) {
+            offers[c] = gameState.playerHand.getCard(c);
+            for (int i = 0; i < drafted; i++) {
+                candidateDecks[c][i] = deck.getCard(i);
+            }
+            candidateDecks[c][drafted] = offers[c];
+            wins[c] = 0;
+            games[c] = 0;
+        }
+        for (Card[] opponentDeck : opponentDecks) {
+            model.sampleHand(random, DraftRollout.DECK_SIZE, sampled);
+            for (int i = 0; i < sampled.length; i++) {
+                opponentDeck[i] = model.getKnownCard(sampled[i]);
+            }
+        }
+
+        long seed = random.nextLong();
+        long lastStart = deadline - FINISH_NANOS;
+        stopped = false;
+        failed = false;
+        CountDownLatch done = new CountDownLatch(THREADS);
+        running = done;
+        for (int w = 0; w < THREADS; w++) {
+            int worker = w;
+            workers.execute(() -> {
+                try {
+                    runRollouts(worker, seed, lastStart);
+                } catch (RuntimeException e) {
+                    failed = true;
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        if (!awaitWorkers(done, deadline) || failed) {
+            return -1;
+        }
+
+        int best = -1;
+        for (int c = 0; c < CANDIDATES; c++) {
+            rolloutCount += games[c];
+            if (games[c] < MIN_ROLLOUTS) {
+                return -1;
+            }
+            if (best < 0 || wins[c] / games[c] > wins[best] / games[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // False when the workers did not finish by the deadline. Late workers are told to stop but not waited
+    // for; the next call checks running before it touches anything they use.
+    private boolean awaitWorkers(CountDownLatch done, long deadline) {
+        boolean inTime = false;
+        try {
+            inTime = done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        return inTime;
+    }
+
+    // Cards offered so far with their fast pick value, false when there is nothing to sample from
+    private boolean preparePool(OpponentModel model) {
+        poolSize = 0;
+        for (int n = 1; n < OpponentModel.CARD_NUMBERS; n++) {
+            Card card = model.getKnownCard(n);
+            if (card != null && model.getRemainingWeight(n) > 0) {
+                pool[poolSize] = card;
+                poolValues[poolSize++] = getCardScore(card) / Math.max(1, card.cost);
+            }
+        }
+        return poolSize > 0;
+    }
+
+    // Worker w plays the candidates c with c % THREADS == w in turn, one rollout each, until lastStart
+    private void runRollouts(int worker, long seed, long lastStart) {
+        for (int r = 0; ; r++) {
+            for (int c = worker; c < CANDIDATES; c += THREADS) {
+                if (System.nanoTime() >= lastStart || stopped) {
+                    return;
+                }
+                SplittableRandom rolloutRandom = new SplittableRandom(seed + r);
+                Card[] candidateDeck = candidateDecks[c];
+                for (int i = drafted + 1; i < DraftRollout.DECK_SIZE; i++) {
+                    candidateDeck[i] = fastPick(rolloutRandom);
+                }
+                Card[] opponentDeck = opponentDecks[r % OPPONENT_DECKS];
+                wins[c] += r % 2 == 0 ? rollouts[c].play(candidateDeck, opponentDeck, rolloutRandom)
+                        : 1 - rollouts[c].play(opponentDeck, candidateDeck, rolloutRandom);
+                games[c]++;
+            }
+        }
+    }
+
+    private Card fastPick(SplittableRandom random) {
+        int best = random.nextInt(poolSize);
+        for (int i = 1; i < CANDIDATES; i++) {
+            int offer = random.nextInt(poolSize);
+            if (poolValues[offer] > poolValues[best]) {
+                best = offer;
+            }
+        }
+        return pool[best];
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.*;
+
+public class RolloutDraftStrategyTest {
+    public static void main(String[] args) {
+        RolloutDraftStrategyTest test = new RolloutDraftStrategyTest();
+        test.testStrongerDeckWinsRollouts();
+        test.testPicksOfferThatWinsGames();
+        test.testFallsBackToStaticScoreWithoutTime();
+    }
+
+    static Card creature(int cardNumber, int cost, int attack, int defense, String abilities) {
+        return new Card(cardNumber, -1, CardType.CREATURE, 0, cost, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static Card[] deckOf(Card card) {
+        Card[] deck = new Card[DraftRollout.DECK_SIZE];
+        Arrays.fill(deck, card);
+        return deck;
+    }
+
+    public void testStrongerDeckWinsRollouts() {
+        Card[] strong = deckOf(creature(1, 2, 4, 4, "------"));
+        Card[] weak = deckOf(creature(2, 2, 1, 1, "------"));
+        DraftRollout rollout = new DraftRollout();
+        SplittableRandom random = new SplittableRandom(3);
+        int strongWins = 0;
+        for (int game = 0; game < 200; game++) {
+            strongWins += game % 2 == 0 ? rollout.play(strong, weak, random) : 1 - rollout.play(weak, strong, random);
+        }
+        assert strongWins >= 190 : "The 4/4 deck should win nearly every game, won " + strongWins;
+
+        Card[] guards = deckOf(creature(3, 2, 1, 5, "---G--"));
+        int guardWins = 0;
+        for (int game = 0; game < 200; game++) {
+            guardWins += game % 2 == 0 ? rollout.play(guards, weak, random) : 1 - rollout.play(weak, guards, random);
+        }
+        assert guardWins >= 150 : "Guards should hold off 1/1s, won " + guardWins;
+    }
+
+    // Draft turn with a deck of middling creatures, after earlier offers have filled the model's pool
+    static GameState draftTurn(OpponentModel model, Card... offers) {
+        for (int turn = 0; turn < 10; turn++) {
+            GameState earlier = new GameState(new Hand());
+            for (int i = 0; i < 3; i++) {
+                int cost = 1 + (turn + i) % 5;
+                earlier.playerHand.addCard(creature(10 + 3 * turn + i, cost, cost, cost + 1, "------"));
+            }
+            model.update(earlier, true);
+        }
+        Hand deck = new Hand();
+        for (int i = 0; i < 12; i++) {
+            int cost = 1 + i % 5;
+            deck.addCard(creature(50 + i, cost, cost, cost, "------"));
+        }
+        GameState gameState = new GameState(deck);
+        for (Card offer : offers) {
+            gameState.playerHand.addCard(offer);
+        }
+        return gameState;
+    }
+
+    public void testPicksOfferThatWinsGames() {
+        RolloutDraftStrategy strategy = new RolloutDraftStrategy(300_000_000L);
+        GameState gameState = draftTurn(strategy.opponentModel,
+                creature(1, 6, 2, 2, "------"),
+                creature(2, 2, 9, 9, "----LW"),
+                new Card(3, -1, CardType.RED_ITEM, 0, 8, 0, -1, "------", 0, 0, 0));
+        Action pick = strategy.chooseDrafts(gameState);
+
+        assert strategy.fallbacks == 0 : "300 ms is plenty for the rollouts";
+        assert strategy.rolloutCount >= 3 * RolloutDraftStrategy.MIN_ROLLOUTS;
+        assert pick.toString().equals("PICK 1") : "The cheap 9/9 should win the most games, got " + pick;
+        assert gameState.playerDeck.size() == 13 && gameState.playerDeck.getCard(12).cardNumber == 2;
+    }
+
+    public void testFallsBackToStaticScoreWithoutTime() {
+        Card[] offers = { creature(1, 3, 3, 3, "------"), creature(2, 4, 2, 6, "---G--"),
+                creature(3, 1, 1, 2, "------") };
+        RolloutDraftStrategy strategy = new RolloutDraftStrategy(0);
+        GameState gameState = draftTurn(strategy.opponentModel, offers);
+        Action pick = strategy.chooseDrafts(gameState);
+
+        GameState staticState = draftTurn(new OpponentModel(), offers);
+        Action staticPick = new BronzeStrategy().chooseDrafts(staticState);
+        assert strategy.fallbacks == 1 : "No time means no rollouts";
+        assert pick.toString().equals(staticPick.toString()) : pick + " vs " + staticPick;
+        assert gameState.playerDeck.size() == 13;
+    }
+}
@@ -0,0 +1,342 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+// Seeded generator of game states for benchmarks, fuzz tests against brute-force solvers and throughput
+// checks. Kinds are draft turns (three offers and a partly drafted deck), mid-game boards, full boards and
+// low-health endgames. Cards come from CardPool: hands and draft offers are drawn like drafted decks
+// (mostly creatures, otherwise uniform over the pool), board creatures are ones that could have been
+// summoned by that turn, some damaged or buffed. Instance ids are unique like in a real game.
+// Usage: java ScenarioGenerator generate <file> <count> [seed]
+//        java ScenarioGenerator run <file> <Strategy[:arg]>
+//
+// File: "LOCS" magic, a version byte, then one record per scenario until the end of the file:
+//   kind, then per side health, mana, rune, deck, draw, board count, then opponent hand count, hand count,
+//   drafted count and drafted card numbers, hand card numbers, and per board card: card number, attack,
+//   defense, abilities | can attack << 6
+// Everything is one byte. Hand and drafted cards are base cards, so only their number is kept; board
+// cards keep the stats that can change in play, the rest comes from CardPool. A mid-game record is
+// about 45 bytes, and Reader decodes one record at a time into a reused PackedState.
+public class ScenarioGenerator {
+    static final int MAGIC = 0x4C4F4353;
+    static final int VERSION = 1;
+    static final int DRAFT = 0;
+    static final int MID_GAME = 1;
+    static final int FULL_BOARD = 2;
+    static final int ENDGAME = 3;
+    static final int KINDS = 4;
+    static final String[] KIND_NAMES = { "draft", "mid-game", "full board", "endgame" };
+    static final int[] KIND_WEIGHTS = { 2, 5, 1, 2 };
+    static final int DRAFT_TURNS = 30;
+    static final int DECK_SIZE = 30;
+    static final int MAX_MANA = 12;
+    static final int CREATURES = 116;
+    static final int CREATURE_PERCENT = 75;
+
+    // Number of creatures costing at most the index; creatures 1-116 are ordered by cost
+    private static final int[] CREATURES_UP_TO_COST = new int[MAX_MANA + 1];
+
+    static {
+        for (int cardNumber = 1; cardNumber <= CREATURES; cardNumber++) {
+            for (int cost = CardPool.get(cardNumber).cost; cost <= MAX_MANA; cost++) {
+                CREATURES_UP_TO_COST[cost]++;
+            }
+        }
+    }
+
+    private final Random random;
+    private int nextInstanceId;
+
+    public ScenarioGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("generate")) {
+            int count = Integer.parseInt(args[2]);
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+            long start = System.nanoTime();
+            generate(Paths.get(args[1]), count, seed);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d scenarios, %d bytes, %.0f scenarios/s%n", count,
+                    Files.size(Paths.get(args[1])), count / seconds);
+        } else if (args.length == 3 && args[0].equals("run")) {
+            System.out.println(run(Paths.get(args[1]), Tournament.strategyFactory(args[2]), args[2]));
+        } else {
+            System.err.println("Usage: java ScenarioGenerator generate <file> <count> [seed]");
+            System.err.println("       java ScenarioGenerator run <file> <Strategy[:arg]>");
+            System.exit(1);
+        }
+    }
+
+    public static void generate(Path file, int count, long seed) throws IOException {
+        ScenarioGenerator generator = new ScenarioGenerator(seed);
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file), 1 << 16))) {
+            writeHeader(out);
+            for (int i = 0; i < count; i++) {
+                write(out, generator.next(state, drafted), state, drafted);
+            }
+        }
+    }
+
+    // Times one strategy decision per scenario, the same decision Player would output for the turn
+    public static String run(Path file, Supplier<Strategy> strategies, String strategyName) throws IOException {
+        Strategy strategy = strategies.get();
+        LatencyHistogram[] latency = new LatencyHistogram[KINDS];
+        for (int kind = 0; kind < KINDS; kind++) {
+            latency[kind] = new LatencyHistogram();
+        }
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        int decisions = 0;
+        long start = System.nanoTime();
+        try (Reader reader = new Reader(file)) {
+            for (int kind = reader.next(state, drafted); kind >= 0; kind = reader.next(state, drafted)) {
+                GameState gameState = GameState.fromPacked(state, drafted);
+                long decisionStart = System.nanoTime();
+                ReplayCorpus.decide(strategy, gameState, kind == DRAFT);
+                latency[kind].recordNanos(System.nanoTime() - decisionStart);
+                decisions++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%s on %s: %d decisions, %.0f decisions/s",
+                strategyName, file.getFileName(), decisions, decisions / seconds));
+        for (int kind = 0; kind < KINDS; kind++) {
+            report.append(String.format("%n%-10s latency us: p50 %d, p99 %d, max %d", KIND_NAMES[kind],
+                    latency[kind].percentileMicros(50), latency[kind].percentileMicros(99),
+                    latency[kind].getMaxMicros()));
+        }
+        return report.toString();
+    }
+
+    // Fills state with a scenario of a random kind and returns the kind. drafted is cleared, and holds the
+    // deck drafted so far for DRAFT scenarios.
+    public int next(PackedState state, Hand drafted) {
+        int roll = random.nextInt(KIND_WEIGHTS[0] + KIND_WEIGHTS[1] + KIND_WEIGHTS[2] + KIND_WEIGHTS[3]);
+        int kind = 0;
+        while (roll >= KIND_WEIGHTS[kind]) {
+            roll -= KIND_WEIGHTS[kind++];
+        }
+        next(kind, state, drafted);
+        return kind;
+    }
+
+    public void next(int kind, PackedState state, Hand drafted) {
+        clear(state);
+        drafted.clear();
+        nextInstanceId = 1;
+        switch (kind) {
+            case DRAFT:
+                draft(state, drafted);
+                break;
+            case MID_GAME:
+                battle(state, 3 + random.nextInt(10), 2 + random.nextInt(4), 1 + random.nextInt(5));
+                break;
+            case FULL_BOARD:
+                battle(state, 6 + random.nextInt(7), PackedState.BOARD_SIZE, PackedState.BOARD_SIZE);
+                break;
+            default:
+                battle(state, 8 + random.nextInt(10), random.nextInt(5), random.nextInt(5));
+                for (int side = 0; side < 2; side++) {
+                    state.health[side] = 1 + random.nextInt(8);
+                    state.rune[side] = runeFor(state.health[side]);
+                }
+                break;
+        }
+        state.rehash();
+    }
+
+    private void draft(PackedState state, Hand drafted) {
+        int picked = random.nextInt(DRAFT_TURNS);
+        for (int side = 0; side < 2; side++) {
+            state.health[side] = 30;
+            state.rune[side] = 25;
+            state.deck[side] = picked;
+        }
+        for (int i = 0; i < picked; i++) {
+            drafted.addCard(CardPool.create(deckCard(), -1));
+        }
+        // Offers are uniform over the pool, and all have instance id -1 like the referee sends them
+        for (int i = 0; i < 3; i++) {
+            state.addToHand(CardPool.create(1 + random.nextInt(CardPool.SIZE), -1));
+        }
+    }
+
+    // Battle turn, turn counted from 1 for the player; ready creatures may attack this turn
+    private void battle(PackedState state, int turn, int myCreatures, int opponentCreatures) {
+        int mana = Math.min(turn, MAX_MANA);
+        state.mana[0] = mana;
+        state.mana[1] = Math.min(turn + random.nextInt(2), MAX_MANA);
+        for (int side = 0; side < 2; side++) {
+            // Roughly two damage a turn after the first few, with some games much closer
+            int damage = Math.max(0, turn - 3) * random.nextInt(4);
+            state.health[side] = Math.max(1, 30 - damage + random.nextInt(3));
+            state.rune[side] = runeFor(state.health[side]);
+            int runeDraws = (25 - state.rune[side]) / 5;
+            state.deck[side] = Math.max(0, DECK_SIZE - (4 + side) - turn - runeDraws - random.nextInt(3));
+            state.draw[side] = 1 + (random.nextInt(6) == 0 ? 1 : 0);
+        }
+        int handSize = Math.min(PackedState.HAND_SIZE, 1 + random.nextInt(4) + (turn < 6 ? 2 : 0));
+        for (int i = 0; i < handSize; i++) {
+            state.addToHand(CardPool.create(deckCard(), nextInstanceId++));
+        }
+        state.opponentHandCount = Math.min(PackedState.HAND_SIZE, 1 + random.nextInt(6));
+        for (int i = 0; i < myCreatures; i++) {
+            int slot = state.addToBoard(0, boardCreature(mana));
+            // Creatures summoned this turn cannot attack yet unless they have charge
+            state.canAttack[slot] = random.nextInt(4) > 0 || state.hasAbility(slot, CardAbility.CHARGE);
+        }
+        for (int i = 0; i < opponentCreatures; i++) {
+            state.addToBoard(1, boardCreature(mana));
+        }
+    }
+
+    // A creature that fits the mana curve so far, possibly damaged, buffed by a green item or with its
+    // abilities removed by a red item
+    private Card boardCreature(int mana) {
+        Card card = CardPool.create(1 + random.nextInt(CREATURES_UP_TO_COST[mana]), nextInstanceId++);
+        card.location = 1;
+        int roll = random.nextInt(10);
+        if (roll < 3 && card.defense > 1) {
+            card.defense -= 1 + random.nextInt(card.defense - 1);
+        } else if (roll < 5) {
+            card.attack += random.nextInt(3);
+            card.defense += 1 + random.nextInt(2);
+            if (random.nextInt(3) == 0) {
+                CardAbility ability = CardAbility.values()[random.nextInt(CardAbility.values().length)];
+                card.setAbilities(CardAbility.fromMask(card.abilityMask | ability.mask()));
+            }
+        } else if (roll < 6) {
+            card.setAbilities(CardAbility.fromMask(0));
+        }
+        return card;
+    }
+
+    // Drafted decks are mostly creatures
+    private int deckCard() {
+        if (random.nextInt(100) < CREATURE_PERCENT) {
+            return 1 + random.nextInt(CREATURES);
+        }
+        return CREATURES + 1 + random.nextInt(CardPool.SIZE - CREATURES);
+    }
+
+    // Highest rune still standing: a rune breaks once health drops to it
+    static int runeFor(int health) {
+        return Math.max(0, Math.min(25, (health - 1) / 5 * 5));
+    }
+
+    private static void clear(PackedState state) {
+        Arrays.fill(state.health, 0);
+        Arrays.fill(state.mana, 0);
+        Arrays.fill(state.deck, 0);
+        Arrays.fill(state.rune, 0);
+        Arrays.fill(state.draw, 0);
+        Arrays.fill(state.boardCount, 0);
+        state.handCount = 0;
+        state.opponentHandCount = 0;
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    static void write(DataOutputStream out, int kind, PackedState state, Hand drafted) throws IOException {
+        out.writeByte(kind);
+        for (int side = 0; side < 2; side++) {
+            out.writeByte(state.health[side]);
+            out.writeByte(state.mana[side]);
+            out.writeByte(state.rune[side]);
+            out.writeByte(state.deck[side]);
+            out.writeByte(state.draw[side]);
+            out.writeByte(state.boardCount[side]);
+        }
+        out.writeByte(state.opponentHandCount);
+        out.writeByte(state.handCount);
+        out.writeByte(drafted.size());
+        for (int i = 0; i < drafted.size(); i++) {
+            out.writeByte(drafted.getCard(i).cardNumber);
+        }
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            out.writeByte(state.cardNumber[i]);
+        }
+        for (int side = 0; side < 2; side++) {
+            for (int i = PackedState.boardStart(side), end = i + state.boardCount[side]; i < end; i++) {
+                out.writeByte(state.cardNumber[i]);
+                out.writeByte(state.attack[i]);
+                out.writeByte(state.defense[i]);
+                out.writeByte(state.abilities[i] | (state.canAttack[i] ? 1 << 6 : 0));
+            }
+        }
+    }
+
+    // Streams the scenarios of a file back one at a time, so files far larger than the heap can be read
+    static class Reader implements Closeable {
+        private final DataInputStream in;
+        private final int[] boardCounts = new int[2];
+
+        Reader(Path file) throws IOException {
+            this(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        }
+
+        Reader(InputStream stream) throws IOException {
+            this.in = new DataInputStream(stream);
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " scenario file");
+            }
+        }
+
+        // Loads the next scenario into state and drafted and returns its kind, or -1 at the end of the file.
+        // Instance ids are given out in the order the cards are stored, -1 for draft offers.
+        public int next(PackedState state, Hand drafted) throws IOException {
+            int kind = in.read();
+            if (kind < 0) {
+                return -1;
+            }
+            for (int side = 0; side < 2; side++) {
+                state.health[side] = in.readUnsignedByte();
+                state.mana[side] = in.readUnsignedByte();
+                state.rune[side] = in.readUnsignedByte();
+                state.deck[side] = in.readUnsignedByte();
+                state.draw[side] = in.readUnsignedByte();
+                boardCounts[side] = in.readUnsignedByte();
+            }
+            state.opponentHandCount = in.readUnsignedByte();
+            int handCount = in.readUnsignedByte();
+            drafted.clear();
+            for (int i = in.readUnsignedByte(); i > 0; i--) {
+                drafted.addCard(CardPool.create(in.readUnsignedByte(), -1));
+            }
+            int instanceId = 1;
+            state.handCount = 0;
+            for (int i = 0; i < handCount; i++) {
+                state.addToHand(CardPool.get(in.readUnsignedByte()));
+                state.instanceId[PackedState.HAND + i] = kind == DRAFT ? -1 : instanceId++;
+            }
+            for (int side = 0; side < 2; side++) {
+                state.boardCount[side] = 0;
+                for (int i = 0; i < boardCounts[side]; i++) {
+                    int slot = state.addToBoard(side, CardPool.get(in.readUnsignedByte()));
+                    state.instanceId[slot] = instanceId++;
+                    state.attack[slot] = in.readByte();
+                    state.defense[slot] = in.readByte();
+                    int abilities = in.readUnsignedByte();
+                    state.abilities[slot] = abilities & ((1 << 6) - 1);
+                    state.canAttack[slot] = (abilities & 1 << 6) != 0;
+                }
+            }
+            state.rehash();
+            return kind;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
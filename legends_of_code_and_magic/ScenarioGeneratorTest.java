@@ -0,0 +1,161 @@
+import java.io.*;
+import java.util.*;
+
+public class ScenarioGeneratorTest {
+    public static void main(String[] args) throws IOException {
+        ScenarioGeneratorTest test = new ScenarioGeneratorTest();
+        test.testScenariosAreValid();
+        test.testSameSeedSameScenarios();
+        test.testFileRoundTrip();
+        test.testBronzeSummonsMatchBruteForce();
+    }
+
+    public void testScenariosAreValid() {
+        ScenarioGenerator generator = new ScenarioGenerator(23);
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        int[] kinds = new int[ScenarioGenerator.KINDS];
+        for (int round = 0; round < 20000; round++) {
+            int kind = generator.next(state, drafted);
+            kinds[kind]++;
+            assert state.handCount <= PackedState.HAND_SIZE && state.opponentHandCount <= PackedState.HAND_SIZE;
+            if (kind == ScenarioGenerator.DRAFT) {
+                assert state.handCount == 3 && state.boardCount[0] == 0 && state.boardCount[1] == 0;
+                assert drafted.size() == state.deck[0] && drafted.size() < ScenarioGenerator.DRAFT_TURNS;
+                continue;
+            }
+            assert drafted.size() == 0;
+            Set<Integer> ids = new HashSet<>();
+            for (int side = 0; side < 2; side++) {
+                assert state.health[side] > 0 && state.rune[side] < state.health[side] : "Round " + round;
+                assert state.mana[side] <= ScenarioGenerator.MAX_MANA && state.deck[side] >= 0;
+                assert state.boardCount[side] <= PackedState.BOARD_SIZE;
+                for (int i = PackedState.boardStart(side), end = i + state.boardCount[side]; i < end; i++) {
+                    assert state.cardType[i] == CardType.CREATURE.ordinal() && state.defense[i] > 0;
+                    assert state.cost[i] <= state.mana[0] : "Board creatures fit the turn";
+                    assert ids.add(state.instanceId[i]);
+                }
+            }
+            for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+                assert ids.add(state.instanceId[i]) : "Instance ids are unique";
+            }
+            if (kind == ScenarioGenerator.FULL_BOARD) {
+                assert state.boardCount[0] == PackedState.BOARD_SIZE && state.boardCount[1] == PackedState.BOARD_SIZE;
+            } else if (kind == ScenarioGenerator.ENDGAME) {
+                assert state.health[0] <= 8 && state.health[1] <= 8;
+            }
+            long hash = state.hash;
+            state.rehash();
+            assert hash == state.hash;
+        }
+        for (int kind = 0; kind < ScenarioGenerator.KINDS; kind++) {
+            assert kinds[kind] > 1000 : "Every kind is generated";
+        }
+    }
+
+    public void testSameSeedSameScenarios() {
+        ScenarioGenerator first = new ScenarioGenerator(5);
+        ScenarioGenerator second = new ScenarioGenerator(5);
+        PackedState a = new PackedState();
+        PackedState b = new PackedState();
+        Hand drafted = new Hand();
+        for (int round = 0; round < 1000; round++) {
+            assert first.next(a, drafted) == second.next(b, drafted);
+            assert a.hash == b.hash;
+        }
+    }
+
+    public void testFileRoundTrip() throws IOException {
+        ScenarioGenerator generator = new ScenarioGenerator(7);
+        List<String> written = new ArrayList<>();
+        List<String> writtenDecks = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ScenarioGenerator.writeHeader(out);
+            for (int i = 0; i < 5000; i++) {
+                int kind = generator.next(state, drafted);
+                ScenarioGenerator.write(out, kind, state, drafted);
+                written.add(describe(kind, state));
+                writtenDecks.add(deck(drafted));
+            }
+        }
+        assert bytes.size() < 5000 * 50 : "Records should average under 50 bytes, got " + bytes.size() / 5000;
+
+        PackedState loaded = new PackedState();
+        try (ScenarioGenerator.Reader reader = new ScenarioGenerator.Reader(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (int i = 0; i < written.size(); i++) {
+                int kind = reader.next(loaded, drafted);
+                assert written.get(i).equals(describe(kind, loaded))
+                        : "Scenario " + i + "\n" + written.get(i) + "\n" + describe(kind, loaded);
+                assert writtenDecks.get(i).equals(deck(drafted));
+            }
+            assert reader.next(loaded, drafted) == -1 : "File should end after the last scenario";
+        }
+    }
+
+    // UndoStackTest.describe leaves out the fields a move cannot change
+    private static String describe(int kind, PackedState state) {
+        return kind + " " + Arrays.toString(state.deck) + " " + state.opponentHandCount + " "
+                + UndoStackTest.describe(state);
+    }
+
+    private static String deck(Hand drafted) {
+        StringBuilder numbers = new StringBuilder();
+        for (int i = 0; i < drafted.size(); i++) {
+            numbers.append(drafted.getCard(i).cardNumber).append(' ');
+        }
+        return numbers.toString();
+    }
+
+    // The chooseSummons knapsack against every subset of the hand that fits the mana and free board slots
+    public void testBronzeSummonsMatchBruteForce() {
+        ScenarioGenerator generator = new ScenarioGenerator(11);
+        BronzeStrategy strategy = new BronzeStrategy();
+        PackedState state = new PackedState();
+        Hand drafted = new Hand();
+        for (int round = 0; round < 5000; round++) {
+            if (generator.next(state, drafted) == ScenarioGenerator.DRAFT) {
+                continue;
+            }
+            GameState gameState = GameState.fromPacked(state, drafted);
+            Hand hand = gameState.playerHand;
+            int slots = PackedState.BOARD_SIZE - gameState.playerBoard.size();
+            double best = 0;
+            for (int subset = 0; subset < 1 << hand.size(); subset++) {
+                int mana = 0;
+                int creatures = 0;
+                double score = 0;
+                for (int i = 0; i < hand.size(); i++) {
+                    if ((subset & 1 << i) != 0) {
+                        Card card = hand.getCard(i);
+                        mana += card.cost;
+                        creatures += card.cardType == CardType.CREATURE ? 1 : 0;
+                        score += strategy.getCardScore(card);
+                    }
+                }
+                if (mana <= gameState.getPlayerMana() && creatures <= slots) {
+                    best = Math.max(best, score);
+                }
+            }
+
+            int mana = 0;
+            int creatures = 0;
+            double score = 0;
+            for (SummonAction summon : strategy.chooseSummons(gameState)) {
+                for (int i = 0; i < hand.size(); i++) {
+                    Card card = hand.getCard(i);
+                    if (summon.toString().equals("SUMMON " + card.instanceId)) {
+                        mana += card.cost;
+                        creatures += card.cardType == CardType.CREATURE ? 1 : 0;
+                        score += strategy.getCardScore(card);
+                    }
+                }
+            }
+            assert mana <= gameState.getPlayerMana() && creatures <= slots : "Round " + round;
+            assert Math.abs(score - best) < 1e-9 : "Round " + round + ": knapsack " + score + ", best " + best;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+import java.util.*;
+
+// Chooses the cards to play from hand this turn. It is a knapsack over mana and free board slots:
+// creatures take a slot and items do not. Each card is valued by the BoardEvaluator change of playing it
+// on its best target, so stats, health effects and card draw share one scale; draws that would overflow
+// the hand next turn count for nothing. The chosen cards are then played in order on a copy, creatures
+// first so green items can buff them, and item targets are chosen again on the updated board.
+// Buffers are reused, so plan() does not allocate.
+class SummonPlanner {
+    static final int MAX_MANA = 12;
+    static final int CARDS = PackedState.HAND_SIZE;
+    static final int SLOTS = PackedState.BOARD_SIZE;
+
+    private final double[] table = new double[(CARDS + 1) * (MAX_MANA + 1) * (SLOTS + 1)];
+    private final int[] candidateIds = new int[CARDS];
+    private final int[] candidateCosts = new int[CARDS];
+    private final int[] candidateSlots = new int[CARDS];
+    private final double[] candidateValues = new double[CARDS];
+    private final int[] chosenIds = new int[CARDS];
+    private final PackedState scratch = new PackedState();
+    private final PackedState trial = new PackedState();
+    private int bestTarget;
+
+    // Fills out with SUMMON and USE moves (Move encoding) in play order and returns their number.
+    // The state itself is not changed.
+    public int plan(PackedState state, int[] out) {
+        int mana = Math.min(state.mana[0], MAX_MANA);
+        int slots = SLOTS - state.boardCount[0];
+        int count = 0;
+        for (int i = PackedState.HAND, end = i + state.handCount; i < end; i++) {
+            if (state.cost[i] > mana) {
+                continue;
+            }
+            double value = bestPlay(state, i);
+            if (value > 0) {
+                candidateIds[count] = state.instanceId[i];
+                candidateCosts[count] = state.cost[i];
+                candidateSlots[count] = state.cardType[i] == CardType.CREATURE.ordinal() ? 1 : 0;
+                candidateValues[count] = value;
+                count++;
+            }
+        }
+
+        int manaSize = mana + 1;
+        int slotSize = slots + 1;
+        int layer = manaSize * slotSize;
+        Arrays.fill(table, 0, layer, 0);
+        for (int k = 1; k <= count; k++) {
+            int row = k * layer;
+            int previous = row - layer;
+            int cost = candidateCosts[k - 1];
+            int slotCost = candidateSlots[k - 1];
+            for (int m = 0; m <= mana; m++) {
+                for (int s = 0; s <= slots; s++) {
+                    int cell = m * slotSize + s;
+                    double best = table[previous + cell];
+                    if (cost <= m && slotCost <= s) {
+                        best = Math.max(best, table[previous + (m - cost) * slotSize + s - slotCost]
+                                + candidateValues[k - 1]);
+                    }
+                    table[row + cell] = best;
+                }
+            }
+        }
+
+        // Creatures go first in the play order, then items
+        int chosen = 0;
+        int chosenCreatures = 0;
+        for (int k = count, m = mana, s = slots; k > 0; k--) {
+            int cell = m * slotSize + s;
+            if (table[k * layer + cell] != table[(k - 1) * layer + cell]) {
+                if (candidateSlots[k - 1] == 1) {
+                    System.arraycopy(chosenIds, 0, chosenIds, 1, chosen);
+                    chosenIds[0] = candidateIds[k - 1];
+                    chosenCreatures++;
+                } else {
+                    chosenIds[chosen] = candidateIds[k - 1];
+                }
+                chosen++;
+                m -= candidateCosts[k - 1];
+                s -= candidateSlots[k - 1];
+            }
+        }
+
+        state.copyInto(scratch);
+        int moves = 0;
+        for (int c = 0; c < chosen; c++) {
+            int id = chosenIds[c];
+            if (c < chosenCreatures) {
+                if (BattleSimulator.summon(scratch, id)) {
+                    out[moves++] = Move.encode(Move.SUMMON, id, -1);
+                }
+            } else {
+                int slot = scratch.findSlot(id);
+                if (slot >= 0 && bestPlay(scratch, slot) > 0 && BattleSimulator.use(scratch, id, bestTarget)) {
+                    out[moves++] = Move.encode(Move.USE, id, bestTarget);
+                }
+            }
+        }
+        return moves;
+    }
+
+    // Value of playing the hand card in the slot on its best target, which is left in bestTarget
+    double bestPlay(PackedState state, int slot) {
+        int id = state.instanceId[slot];
+        double before = score(state);
+        int type = state.cardType[slot];
+        if (type == CardType.CREATURE.ordinal()) {
+            state.copyInto(trial);
+            return BattleSimulator.summon(trial, id) ? score(trial) - before : 0;
+        }
+        double best = 0;
+        bestTarget = -1;
+        int side = type == CardType.GREEN_ITEM.ordinal() ? 0 : 1;
+        for (int t = PackedState.boardStart(side) - 1, end = t + 1 + state.boardCount[side]; t < end; t++) {
+            boolean face = t < PackedState.boardStart(side);
+            if (face && type != CardType.BLUE_ITEM.ordinal()) {
+                continue;
+            }
+            int target = face ? -1 : state.instanceId[t];
+            state.copyInto(trial);
+            if (BattleSimulator.use(trial, id, target)) {
+                double value = score(trial) - before;
+                if (value > best) {
+                    best = value;
+                    bestTarget = target;
+                }
+            }
+        }
+        if (side == 0 && state.boardCount[0] < SLOTS) {
+            // A green item can also go on a creature summoned this turn, valued as the buff on its own
+            for (int h = PackedState.HAND, end = h + state.handCount; h < end; h++) {
+                if (state.cardType[h] != CardType.CREATURE.ordinal()) {
+                    continue;
+                }
+                int creature = state.instanceId[h];
+                state.copyInto(trial);
+                trial.mana[0] = MAX_MANA * 2;
+                BattleSimulator.summon(trial, creature);
+                double summoned = score(trial);
+                if (BattleSimulator.use(trial, id, creature) && score(trial) - summoned > best) {
+                    best = score(trial) - summoned;
+                    bestTarget = creature;
+                }
+            }
+        }
+        return best;
+    }
+
+    // BoardEvaluator minus the cards that would be drawn into a full hand next turn
+    static double score(PackedState state) {
+        int overflow = state.handCount + 1 + state.draw[0] - PackedState.HAND_SIZE;
+        return BoardEvaluator.evaluate(state) - Math.max(0, overflow);
+    }
+}
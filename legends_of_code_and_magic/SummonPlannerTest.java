@@ -0,0 +1,87 @@
+import java.util.*;
+
+public class SummonPlannerTest {
+    public static void main(String[] args) {
+        SummonPlannerTest test = new SummonPlannerTest();
+        test.testRespectsFreeBoardSlots();
+        test.testRedItemRemovesGuard();
+        test.testGreenItemBuffsSummonedCreature();
+        test.testBlueItemFinishesOpponent();
+        test.testBronzeSummonsFitFreeSlots();
+    }
+
+    static Card creature(int instanceId, int cost, int attack, int defense, String abilities) {
+        return new Card(1, instanceId, CardType.CREATURE, 0, cost, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState state(int mana) {
+        PackedState state = new PackedState();
+        state.health[0] = state.health[1] = 30;
+        state.rune[0] = state.rune[1] = 25;
+        state.mana[0] = mana;
+        return state;
+    }
+
+    static List<String> plan(PackedState state) {
+        int[] moves = new int[PackedState.HAND_SIZE];
+        int count = new SummonPlanner().plan(state, moves);
+        List<String> actions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            actions.add(Move.toAction(moves[i]).toString());
+        }
+        return actions;
+    }
+
+    public void testRespectsFreeBoardSlots() {
+        PackedState state = state(6);
+        for (int i = 0; i < 5; i++) {
+            state.addToBoard(0, creature(10 + i, 1, 1, 1, "------"));
+        }
+        state.addToHand(creature(1, 2, 2, 2, "------"));
+        state.addToHand(creature(2, 2, 4, 4, "------"));
+        state.addToHand(creature(3, 2, 3, 3, "------"));
+
+        assert plan(state).equals(List.of("SUMMON 2")) : "Only the best creature fits. Got " + plan(state);
+    }
+
+    public void testRedItemRemovesGuard() {
+        PackedState state = state(3);
+        state.addToBoard(1, creature(10, 3, 4, 3, "---G--"));
+        state.addToHand(new Card(2, 1, CardType.RED_ITEM, 0, 3, 0, -3, "------", 0, 0, 0));
+        state.addToHand(creature(2, 4, 5, 5, "------"));
+
+        assert plan(state).equals(List.of("USE 1 10")) : "Red item should kill the guard. Got " + plan(state);
+    }
+
+    public void testGreenItemBuffsSummonedCreature() {
+        PackedState state = state(5);
+        state.addToHand(new Card(2, 1, CardType.GREEN_ITEM, 0, 2, 2, 2, "----L-", 0, 0, 0));
+        state.addToHand(creature(2, 3, 3, 3, "------"));
+
+        assert plan(state).equals(List.of("SUMMON 2", "USE 1 2"))
+                : "Creature should be summoned before it is buffed. Got " + plan(state);
+    }
+
+    public void testBlueItemFinishesOpponent() {
+        PackedState state = state(2);
+        state.health[1] = 3;
+        state.rune[1] = 0;
+        state.addToBoard(1, creature(10, 1, 1, 5, "------"));
+        state.addToHand(new Card(3, 1, CardType.BLUE_ITEM, 0, 2, 0, -3, "------", 0, -1, 0));
+
+        assert plan(state).equals(List.of("USE 1 -1")) : "Blue item should go face for lethal. Got " + plan(state);
+    }
+
+    public void testBronzeSummonsFitFreeSlots() {
+        PackedState state = state(6);
+        for (int i = 0; i < 4; i++) {
+            state.addToBoard(0, creature(10 + i, 1, 1, 1, "------"));
+        }
+        for (int i = 0; i < 3; i++) {
+            state.addToHand(creature(1 + i, 2, 2 + i, 2, "------"));
+        }
+        ArrayList<SummonAction> summons = new BronzeStrategy().chooseSummons(GameState.fromPacked(state, new Hand()));
+        assert summons.size() == 2 : "Only two board slots are free. Got " + summons;
+        assert summons.toString().equals("[SUMMON 2, SUMMON 3]") : "Best two should be summoned. Got " + summons;
+    }
+}
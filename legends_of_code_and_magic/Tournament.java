@@ -0,0 +1,133 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
+
+// Local self-play between two strategies.
+// Usage: java Tournament <StrategyA[:arg]> <StrategyB[:arg]> [games] [seed] [threads]
+// The optional arg is passed to a single long or int constructor, e.g. MctsStrategy:5000000 for a 5ms
+// budget or BeamStrategy:64 for the beam width.
+// Game i uses seed + i and the strategies swap seats every game.
+public class Tournament {
+    final Supplier<Strategy> first;
+    final Supplier<Strategy> second;
+    final AtomicInteger firstWins = new AtomicInteger();
+    final AtomicInteger gamesPlayed = new AtomicInteger();
+    final AtomicLong battleTurns = new AtomicLong();
+
+    public Tournament(Supplier<Strategy> first, Supplier<Strategy> second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java Tournament <StrategyA[:arg]> <StrategyB[:arg]> [games] [seed] [threads]");
+            System.exit(1);
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        Tournament tournament = new Tournament(strategyFactory(args[0]), strategyFactory(args[1]));
+        long start = System.nanoTime();
+        tournament.run(games, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(tournament.report(args[0], args[1], seconds));
+    }
+
+    static Supplier<Strategy> strategyFactory(String spec) throws ReflectiveOperationException {
+        String[] parts = spec.split(":", 2);
+        Class<?> type = Class.forName(parts[0]);
+        if (parts.length == 1) {
+            java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructor();
+            return () -> newInstance(constructor);
+        }
+        long arg = Long.parseLong(parts[1]);
+        try {
+            java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructor(long.class);
+            return () -> newInstance(constructor, arg);
+        } catch (NoSuchMethodException e) {
+            java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructor(int.class);
+            int intArg = Math.toIntExact(arg);
+            return () -> newInstance(constructor, intArg);
+        }
+    }
+
+    private static Strategy newInstance(java.lang.reflect.Constructor<?> constructor, Object... args) {
+        try {
+            return (Strategy) constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    public void run(int games, long seed, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger nextGame = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                for (int game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                    playGame(game, seed + game);
+                }
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    void playGame(int game, long gameSeed) {
+        boolean firstStarts = game % 2 == 0;
+        LocalGame localGame = firstStarts
+                ? new LocalGame(first.get(), second.get(), gameSeed)
+                : new LocalGame(second.get(), first.get(), gameSeed);
+        int winner = localGame.play();
+        if ((winner == 0) == firstStarts) {
+            firstWins.incrementAndGet();
+        }
+        battleTurns.addAndGet(localGame.turns);
+        gamesPlayed.incrementAndGet();
+    }
+
+    public double winRate() {
+        return (double) firstWins.get() / gamesPlayed.get();
+    }
+
+    // 95% Wilson score interval for the win rate
+    public double[] confidenceInterval() {
+        double z = 1.96;
+        int n = gamesPlayed.get();
+        double p = winRate();
+        double centre = (p + z * z / (2 * n)) / (1 + z * z / n);
+        double margin = z * Math.sqrt(p * (1 - p) / n + z * z / (4.0 * n * n)) / (1 + z * z / n);
+        return new double[] { centre - margin, centre + margin };
+    }
+
+    static double elo(double winRate) {
+        double p = Math.min(Math.max(winRate, 1e-4), 1 - 1e-4);
+        return -400 * Math.log10(1 / p - 1);
+    }
+
+    public String report(String firstName, String secondName, double seconds) {
+        int games = gamesPlayed.get();
+        double[] interval = confidenceInterval();
+        return String.format(
+                "%s vs %s: %d games, %d-%d%n"
+                        + "win rate %.1f%% (95%% CI %.1f%% - %.1f%%)%n"
+                        + "Elo %+.0f (95%% CI %+.0f to %+.0f)%n"
+                        + "%.1f s, %.0f games/s, %.1f battle turns/game",
+                firstName, secondName, games, firstWins.get(), games - firstWins.get(),
+                100 * winRate(), 100 * interval[0], 100 * interval[1],
+                elo(winRate()), elo(interval[0]), elo(interval[1]),
+                seconds, games / seconds, (double) battleTurns.get() / games);
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed size hash table from Zobrist keys to int values, safe to share between search threads without
+// locks. Each entry is two longs, (key ^ data, data): a reader that sees halves of two different writes
+// gets a key that does not verify and treats it as a miss. Buckets hold two entries; a store replaces
+// the entry with the same key, else one from an older search, else the one with the smaller depth.
+class TranspositionTable {
+    static final int MISS = Integer.MIN_VALUE;
+
+    private final AtomicLongArray entries;
+    private final int bucketMask;
+    private volatile int generation = 1;
+
+    // Capacity is rounded up to a power of two entries
+    public TranspositionTable(int capacity) {
+        int buckets = Math.max(1, Integer.highestOneBit(Math.max(1, capacity - 1)));
+        this.entries = new AtomicLongArray(4 * buckets);
+        this.bucketMask = buckets - 1;
+    }
+
+    // Data layout: value in the low 32 bits, then 16 bits of depth and 16 bits of generation
+    private static long pack(int value, int depth, int generation) {
+        return (value & 0xFFFFFFFFL) | (long) (depth & 0xFFFF) << 32 | (long) (generation & 0xFFFF) << 48;
+    }
+
+    private int bucket(long key) {
+        return 4 * (int) ((key ^ key >>> 32) & bucketMask);
+    }
+
+    public int probe(long key) {
+        int index = bucket(key);
+        for (int i = index; i < index + 4; i += 2) {
+            long data = entries.getOpaque(i + 1);
+            if (data != 0 && (entries.getOpaque(i) ^ data) == key) {
+                return (int) data;
+            }
+        }
+        return MISS;
+    }
+
+    // Depth is how much work is behind the value, deeper entries are kept over shallower ones
+    public void store(long key, int value, int depth) {
+        int index = bucket(key);
+        int current = generation;
+        int victim = index;
+        int victimScore = Integer.MAX_VALUE;
+        for (int i = index; i < index + 4; i += 2) {
+            long data = entries.getOpaque(i + 1);
+            if (data == 0 || (entries.getOpaque(i) ^ data) == key) {
+                victim = i;
+                break;
+            }
+            // Entries from older searches go first, then shallow ones
+            int age = (current - (int) (data >>> 48)) & 0xFFFF;
+            int score = (age == 0 ? 1 << 16 : 0) + (int) (data >>> 32 & 0xFFFF);
+            if (score < victimScore) {
+                victimScore = score;
+                victim = i;
+            }
+        }
+        long data = pack(value, depth, current);
+        entries.setOpaque(victim, key ^ data);
+        entries.setOpaque(victim + 1, data);
+    }
+
+    // Starts a new search: existing entries stay readable but are replaced first
+    public void nextGeneration() {
+        int next = (generation + 1) & 0xFFFF;
+        generation = next == 0 ? 1 : next;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0);
+        }
+    }
+
+    public int capacity() {
+        return entries.length() / 2;
+    }
+}
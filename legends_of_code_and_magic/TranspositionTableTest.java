@@ -0,0 +1,130 @@
+import java.util.*;
+
+public class TranspositionTableTest {
+    public static void main(String[] args) throws InterruptedException {
+        TranspositionTableTest test = new TranspositionTableTest();
+        test.testIncrementalHashMatchesRehash();
+        test.testAttackOrderTransposes();
+        test.testStoreAndProbe();
+        test.testReplacementPrefersOldAndShallowEntries();
+        test.testConcurrentAccessNeverReturnsWrongValue();
+    }
+
+    static Card creature(int instanceId, int attack, int defense, String abilities) {
+        return new Card(1, instanceId, CardType.CREATURE, 0, 1, attack, defense, abilities, 0, 0, 0);
+    }
+
+    static PackedState randomState(Random random) {
+        PackedState state = new PackedState();
+        state.health[0] = 5 + random.nextInt(30);
+        state.health[1] = 5 + random.nextInt(30);
+        state.rune[0] = state.rune[1] = 25;
+        state.mana[0] = random.nextInt(13);
+        int id = 1;
+        for (int i = random.nextInt(5); i > 0; i--) {
+            state.canAttack[state.addToBoard(0, CardPool.create(1 + random.nextInt(116), id++))] = true;
+        }
+        for (int i = random.nextInt(5); i > 0; i--) {
+            state.addToBoard(1, CardPool.create(1 + random.nextInt(116), id++));
+        }
+        for (int i = random.nextInt(8); i > 0; i--) {
+            state.addToHand(CardPool.create(1 + random.nextInt(CardPool.SIZE), id++));
+        }
+        state.rehash();
+        return state;
+    }
+
+    public void testIncrementalHashMatchesRehash() {
+        Random random = new Random(10);
+        int[] moves = new int[Move.MAX_MOVES];
+        for (int round = 0; round < 2000; round++) {
+            PackedState state = randomState(random);
+            while (!BattleSimulator.isWon(state) && state.health[0] > 0) {
+                int move = moves[random.nextInt(Move.generate(state, moves))];
+                if (Move.type(move) == Move.PASS) {
+                    break;
+                }
+                assert Move.apply(state, move) : "Generated moves should be legal";
+                long incremental = state.hash;
+                state.rehash();
+                assert incremental == state.hash
+                        : "Hash after " + Move.toAction(move) + " should match a full rehash";
+            }
+        }
+    }
+
+    public void testAttackOrderTransposes() {
+        PackedState state = new PackedState();
+        state.health[0] = state.health[1] = 30;
+        state.canAttack[state.addToBoard(0, creature(1, 2, 3, "------"))] = true;
+        state.canAttack[state.addToBoard(0, creature(2, 4, 1, "------"))] = true;
+        state.addToBoard(1, creature(3, 1, 5, "------"));
+        state.rehash();
+
+        PackedState first = state.copy();
+        BattleSimulator.attack(first, 1, 3);
+        BattleSimulator.attack(first, 2, -1);
+        PackedState second = state.copy();
+        BattleSimulator.attack(second, 2, -1);
+        BattleSimulator.attack(second, 1, 3);
+        assert first.hash == second.hash : "Both attack orders reach the same position";
+
+        PackedState other = state.copy();
+        BattleSimulator.attack(other, 2, 3);
+        BattleSimulator.attack(other, 1, -1);
+        assert other.hash != first.hash : "Different attacks should give a different hash";
+    }
+
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1000);
+        assert table.capacity() == 1024 : "Capacity should round up to 1024. Got " + table.capacity();
+        assert table.probe(42) == TranspositionTable.MISS : "Empty table should miss";
+        table.store(42, 7, 1);
+        table.store(42, 8, 1);
+        assert table.probe(42) == 8 : "Storing the same key again should overwrite it";
+        table.clear();
+        assert table.probe(42) == TranspositionTable.MISS : "Cleared table should miss";
+    }
+
+    public void testReplacementPrefersOldAndShallowEntries() {
+        TranspositionTable table = new TranspositionTable(2); // a single bucket of two entries
+        table.store(1, 1, 5);
+        table.store(2, 2, 3);
+        table.store(3, 3, 9);
+        assert table.probe(2) == TranspositionTable.MISS : "The shallower entry should be replaced";
+        assert table.probe(1) == 1 && table.probe(3) == 3 : "The deeper entries should be kept";
+
+        table.nextGeneration();
+        table.store(4, 4, 0);
+        table.store(5, 5, 0);
+        assert table.probe(4) == 4 && table.probe(5) == 5 : "Entries from an older search go first";
+    }
+
+    public void testConcurrentAccessNeverReturnsWrongValue() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(64);
+        Thread[] threads = new Thread[4];
+        boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads.length; t++) {
+            long threadSeed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(threadSeed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = Zobrist.mix(random.nextInt(1000));
+                    if (random.nextBoolean()) {
+                        table.store(key, (int) (key >>> 33), random.nextInt(10));
+                    } else {
+                        int value = table.probe(key);
+                        if (value != TranspositionTable.MISS && value != (int) (key >>> 33)) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assert !failed[0] : "A probe returned a value stored under another key";
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.*;
+import java.io.*;
+
+public class TurnMonitorTest {
+    public static void main(String[] args) throws Exception {
+        TurnMonitorTest test = new TurnMonitorTest();
+        test.testHistogramPercentiles();
+        test.testWatchdogSendsFallbackBeforeDeadline();
+        test.testInitialFallbackIsArmedWithDeadline();
+        test.testOutputInTimeIsPrintedOnce();
+        test.testPhaseBudgets();
+        test.testWarmUpStopsAtDeadline();
+    }
+
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordNanos(i * 1000_000L); // 1ms to 100ms
+        }
+        long p50 = histogram.percentileMicros(50);
+        long p99 = histogram.percentileMicros(99);
+        assert Math.abs(p50 - 50_000) <= 50_000 / 16 : "p50 should be within a bucket of 50ms. Got " + p50;
+        assert Math.abs(p99 - 99_000) <= 99_000 / 16 : "p99 should be within a bucket of 99ms. Got " + p99;
+        assert histogram.getMaxMicros() == 100_000 : "Max should be exact. Got " + histogram.getMaxMicros();
+        assert histogram.getCount() == 100 : "Count should be 100";
+    }
+
+    public void testWatchdogSendsFallbackBeforeDeadline() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TurnMonitor monitor = new TurnMonitor(new PrintStream(bytes, true));
+
+        // The deadline is 85ms away, so the fallback is offered well before it and the sleep runs past it
+        monitor.startTurn(System.nanoTime(), false);
+        monitor.offerFallback("ATTACK 1 -1");
+        Thread.sleep(TurnMonitor.TURN_NANOS / 1000_000 + 50);
+        boolean sent = monitor.submit("ATTACK 1 -1;SUMMON 2");
+
+        assert !sent : "Late output should be dropped";
+        assert bytes.toString().trim().equals("ATTACK 1 -1") : "Watchdog should print the fallback. Got " + bytes;
+        assert monitor.getTimeouts() == 1 : "One fallback should be recorded";
+    }
+
+    public void testInitialFallbackIsArmedWithDeadline() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TurnMonitor monitor = new TurnMonitor(new PrintStream(bytes, true));
+
+        // Already past the deadline: the watchdog may fire as soon as the turn starts
+        monitor.startTurn(System.nanoTime() - TurnMonitor.TURN_NANOS, false, "PICK 2");
+        Thread.sleep(50);
+
+        assert !monitor.submit("PICK 0") : "Late output should be dropped";
+        assert bytes.toString().trim().equals("PICK 2") : "Watchdog should print the initial fallback. Got " + bytes;
+    }
+
+    public void testOutputInTimeIsPrintedOnce() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TurnMonitor monitor = new TurnMonitor(new PrintStream(bytes, true));
+
+        monitor.startTurn(System.nanoTime(), false);
+        monitor.start(TurnPhase.ATTACKS);
+        monitor.stop();
+        boolean sent = monitor.submit("PASS");
+        Thread.sleep(120);
+
+        assert sent : "Output in time should be sent";
+        assert bytes.toString().trim().equals("PASS") : "Only the real output should be printed. Got " + bytes;
+        assert monitor.getTimeouts() == 0 : "No fallback should be recorded";
+        assert monitor.getHistogram(TurnPhase.ATTACKS).getCount() == 1 : "Attack phase should be timed";
+    }
+
+    public void testPhaseBudgets() {
+        TimeManager timeManager = new TimeManager();
+        long start = System.nanoTime();
+        timeManager.startTurn(start, false, true);
+        assert timeManager.getPhaseDeadline() == start + TimeManager.DRAFT_BUDGET_NANOS;
+
+        timeManager.startTurn(start, false, false);
+        timeManager.startPhase(TurnPhase.ATTACKS);
+        long attacks = timeManager.remainingNanos();
+        assert attacks > 0 && attacks <= 0.6 * TimeManager.BATTLE_BUDGET_NANOS : attacks;
+        timeManager.startPhase(TurnPhase.SUMMONS);
+        assert timeManager.remainingNanos() > attacks : "Summons get the rest of the turn";
+        assert timeManager.getPhaseDeadline() <= start + TimeManager.BATTLE_BUDGET_NANOS;
+
+        timeManager.startTurn(start - TurnMonitor.TURN_NANOS, false, false);
+        assert timeManager.remainingNanos() < 0;
+        assert timeManager.isExpired() : "The first poll reads the clock";
+    }
+
+    public void testWarmUpStopsAtDeadline() {
+        TimeManager timeManager = new TimeManager();
+        long start = System.nanoTime();
+        timeManager.startTurn(start, true, true);
+        assert timeManager.warmUp(start - 1, new BronzeStrategy()) == 0
+                : "No rounds once the deadline has passed";
+
+        long deadline = System.nanoTime() + 20_000_000L;
+        int rounds = timeManager.warmUp(deadline, new BronzeStrategy());
+        long overrun = System.nanoTime() - deadline;
+
+        assert rounds >= 1 : "Warm-up should run before its deadline";
+        // A round that starts just before the deadline finishes after it; the bound only catches runaway loops
+        assert overrun < 1000_000_000L : "Warm-up overran its deadline: " + overrun / 1000_000 + "ms";
+        assert timeManager.getPhaseDeadline() > start + TimeManager.WARM_UP_NANOS : "First turn deadline restored";
+    }
+}
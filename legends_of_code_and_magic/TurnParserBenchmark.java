@@ -0,0 +1,183 @@
+import java.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// Stand-in for the Scanner parsing GameState.readGameState did before InputReader. It reads the same tokens
+// through Scanner but is a rewrite, not a copy: the stats fields the old code filled are private to GameState,
+// so it keeps them in a local array. That makes its times a slight underestimate of the old parser.
+class ScannerStandInParser {
+    public static GameState readGameState(Scanner in, Boolean isDraftTurn, Hand playerDeck) {
+        GameState gameState = new GameState(playerDeck);
+        int[] stats = new int[11]; // player stats, opponent stats, opponent hand size
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = in.nextInt();
+        }
+        gameState.setPlayerMana(stats[1]);
+
+        int numOpponentActions = in.nextInt();
+        if (in.hasNextLine()) {
+            in.nextLine();
+        }
+        for (int i = 0; i < numOpponentActions; i++) {
+            if (in.hasNextLine()) {
+                gameState.opponentActions.add(in.nextLine());
+            }
+        }
+
+        int cardCount = in.nextInt();
+        for (int i = 0; i < cardCount; i++) {
+            Card card = new Card(in.nextInt(), in.nextInt(), null, in.nextInt(), 0, 0, 0, "", 0, 0, 0);
+            card.cardType = CardType.values()[in.nextInt()];
+            card.cost = in.nextInt();
+            card.attack = in.nextInt();
+            card.defense = in.nextInt();
+            card.setAbilities(in.next());
+            card.myHealthChange = in.nextInt();
+            card.opponentHealthChange = in.nextInt();
+            card.cardDraw = in.nextInt();
+
+            if (!isDraftTurn && card.location == 1) {
+                gameState.playerBoard.add(card);
+            } else if (!isDraftTurn && card.location == -1) {
+                gameState.opponentBoard.add(card);
+            } else {
+                gameState.playerHand.addCard(card);
+            }
+        }
+        return gameState;
+    }
+}
+
+public class TurnParserBenchmark {
+    // Turn inputs in the referee's format, captured from a local game between two BronzeStrategy players: the
+    // first draft turn, battle turn 3 and battle turn 7 of the first player. The cards come from a synthetic
+    // pool, since captures from the arena are not in this repository.
+    static final String DRAFT_TURN = String.join("\n",
+            "30 0 0 25 0",
+            "30 0 0 25 0",
+            "0 0",
+            "3",
+            "135 -1 0 1 4 4 1 ------ 0 0 0",
+            "141 -1 0 2 2 -1 -3 ------ 0 0 0",
+            "131 -1 0 1 2 2 1 ------ 0 0 0",
+            "");
+
+    static final String EARLY_BATTLE_TURN = String.join("\n",
+            "29 3 23 25 0",
+            "28 0 23 25 0",
+            "5 2",
+            "7 ATTACK 12 -1",
+            "15 SUMMON 34",
+            "9",
+            "135 1 0 1 4 4 1 ------ 0 0 0",
+            "68 27 0 0 4 5 1 --D-L- 0 0 0",
+            "12 43 0 0 1 1 1 -----W 0 0 0",
+            "127 39 0 1 3 3 1 ------ 0 0 0",
+            "20 13 0 0 2 1 4 ------ 0 0 0",
+            "3 3 1 0 1 2 1 ------ 0 0 0",
+            "26 15 1 0 2 2 2 --D--- 0 0 0",
+            "7 12 -1 0 1 1 2 ------ 0 0 0",
+            "15 34 -1 0 2 2 2 --D--- 0 0 0",
+            "");
+
+    static final String LATE_BATTLE_TURN = String.join("\n",
+            "21 7 17 20 0",
+            "11 0 14 5 0",
+            "7 5",
+            "7 ATTACK 12 -1",
+            "78 ATTACK 18 49",
+            "15 ATTACK 34 -1",
+            "35 ATTACK 30 -1",
+            "89 SUMMON 32",
+            "15",
+            "135 1 0 1 4 4 1 ------ 0 0 0",
+            "127 39 0 1 3 3 1 ------ 0 0 0",
+            "15 33 0 0 2 2 2 --D--- 0 0 0",
+            "15 9 0 0 2 2 2 --D--- 0 0 0",
+            "89 31 0 0 6 5 7 ---G-- 0 0 0",
+            "78 17 0 0 5 1 7 --D-L- 0 0 0",
+            "3 3 1 0 1 2 1 ------ 0 0 0",
+            "26 15 1 0 2 2 2 --D--- 0 0 0",
+            "12 43 1 0 1 1 1 -----W 0 0 0",
+            "20 13 1 0 2 1 4 ------ 0 0 0",
+            "64 55 1 0 4 4 2 B----- 0 0 1",
+            "7 12 -1 0 1 1 2 ------ 0 0 0",
+            "15 34 -1 0 2 2 2 --D--- 0 0 0",
+            "35 30 -1 0 3 3 1 -----W 0 0 1",
+            "89 32 -1 0 6 5 7 ---G-- 0 0 0",
+            "");
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        String[] turns = { DRAFT_TURN, EARLY_BATTLE_TURN, LATE_BATTLE_TURN };
+        boolean[] draft = { true, false, false };
+
+        for (int t = 0; t < turns.length; t++) {
+            byte[] input = turns[t].getBytes(StandardCharsets.US_ASCII);
+            checkEquivalent(input, draft[t]);
+
+            // Run twice so the second pass measures compiled code
+            for (int pass = 0; pass < 2; pass++) {
+                long scannerNanos = timeScanner(input, draft[t], iterations);
+                long readerNanos = timeReader(input, draft[t], iterations);
+                if (pass == 1) {
+                    System.out.println(String.format("turn %d: Scanner %.0f ns/turn, InputReader %.0f ns/turn (%.1fx)",
+                            t, (double) scannerNanos / iterations, (double) readerNanos / iterations,
+                            (double) scannerNanos / readerNanos));
+                }
+            }
+        }
+    }
+
+    static byte[] repeat(byte[] input, int times) {
+        byte[] repeated = new byte[input.length * times];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(input, 0, repeated, i * input.length, input.length);
+        }
+        return repeated;
+    }
+
+    static long timeScanner(byte[] input, boolean isDraftTurn, int iterations) {
+        Scanner in = new Scanner(new ByteArrayInputStream(repeat(input, iterations)));
+        Hand deck = new Hand();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += ScannerStandInParser.readGameState(in, isDraftTurn, deck).getPlayerMana();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    static long timeReader(byte[] input, boolean isDraftTurn, int iterations) {
+        InputReader in = new InputReader(new ByteArrayInputStream(repeat(input, iterations)));
+        GameState previous = null;
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            previous = GameState.readGameState(in, isDraftTurn, previous);
+            sink += previous.getPlayerMana();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    static void checkEquivalent(byte[] input, boolean isDraftTurn) {
+        GameState expected = ScannerStandInParser.readGameState(
+                new Scanner(new ByteArrayInputStream(input)), isDraftTurn, new Hand());
+        GameState actual = GameState.readGameState(new InputReader(new ByteArrayInputStream(input)), isDraftTurn);
+
+        assert expected.getPlayerMana() == actual.getPlayerMana() : "Mana differs";
+        assert expected.opponentActions.equals(actual.opponentActions)
+                : "Opponent actions differ: " + expected.opponentActions + " vs " + actual.opponentActions;
+        assert expected.playerHand.toString().equals(actual.playerHand.toString()) : "Hand differs";
+        assert expected.playerBoard.toString().equals(actual.playerBoard.toString()) : "Player board differs";
+        assert expected.opponentBoard.toString().equals(actual.opponentBoard.toString()) : "Opponent board differs";
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.*;
+
+public class UndoStackTest {
+    public static void main(String[] args) {
+        UndoStackTest test = new UndoStackTest();
+        test.testUnmakeRestoresEveryMove();
+        test.testDeepLinesMatchCopies();
+        test.testIllegalMoveLeavesNoFrame();
+        test.testClearKeepsMoves();
+    }
+
+    // Live slots, side stats and hash; slots past the counts are free and may hold anything
+    static String describe(PackedState state) {
+        StringBuilder text = new StringBuilder();
+        text.append(Arrays.toString(state.health)).append(Arrays.toString(state.mana))
+                .append(Arrays.toString(state.rune)).append(Arrays.toString(state.draw))
+                .append(Arrays.toString(state.boardCount)).append(state.handCount).append(' ').append(state.hash);
+        for (int slot = 0; slot < PackedState.SLOTS; slot++) {
+            boolean live = slot >= PackedState.HAND ? slot < PackedState.HAND + state.handCount
+                    : slot % PackedState.BOARD_SIZE < state.boardCount[slot / PackedState.BOARD_SIZE];
+            if (live) {
+                text.append(" | ").append(state.instanceId[slot]).append(' ').append(state.cardNumber[slot])
+                        .append(' ').append(state.cardType[slot]).append(' ').append(state.cost[slot])
+                        .append(' ').append(state.attack[slot]).append(' ').append(state.defense[slot])
+                        .append(' ').append(state.abilities[slot]).append(' ').append(state.myHealthChange[slot])
+                        .append(' ').append(state.opponentHealthChange[slot]).append(' ')
+                        .append(state.cardDraw[slot]).append(' ').append(state.canAttack[slot]);
+            }
+        }
+        return text.toString();
+    }
+
+    public void testUnmakeRestoresEveryMove() {
+        Random random = new Random(22);
+        UndoStack undo = new UndoStack();
+        int[] moves = new int[Move.MAX_MOVES];
+        for (int round = 0; round < 500; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            String before = describe(state);
+            int count = Move.generate(state, moves);
+            for (int m = 1; m < count; m++) {
+                PackedState copy = state.copy();
+                boolean legal = Move.apply(copy, moves[m]);
+                assert undo.make(state, moves[m]) == legal;
+                if (legal) {
+                    assert describe(state).equals(describe(copy)) : "make differs from apply on " + moves[m];
+                    undo.unmake(state);
+                }
+                assert undo.depth() == 0;
+                assert describe(state).equals(before) : "Round " + round + " move "
+                        + Move.toAction(moves[m]) + "\n" + describe(state) + "\n" + before;
+            }
+        }
+    }
+
+    public void testDeepLinesMatchCopies() {
+        Random random = new Random(23);
+        UndoStack undo = new UndoStack();
+        int[] moves = new int[Move.MAX_MOVES];
+        for (int round = 0; round < 300; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            List<String> path = new ArrayList<>();
+            path.add(describe(state));
+            while (true) {
+                int count = Move.generate(state, moves);
+                if (count == 1) {
+                    break;
+                }
+                int move = moves[1 + random.nextInt(count - 1)];
+                PackedState copy = state.copy();
+                Move.apply(copy, move);
+                assert undo.make(state, move);
+                assert describe(state).equals(describe(copy));
+                path.add(describe(state));
+            }
+            for (int i = path.size() - 1; i > 0; i--) {
+                assert describe(state).equals(path.get(i));
+                undo.unmake(state);
+            }
+            assert describe(state).equals(path.get(0)) : "Round " + round;
+            assert state.undo == null : "The stack is only attached during make";
+        }
+    }
+
+    public void testIllegalMoveLeavesNoFrame() {
+        PackedState state = new PackedState();
+        state.health[0] = state.health[1] = 30;
+        state.addToHand(new Card(1, 1, CardType.CREATURE, 0, 5, 2, 2, "------", 0, 0, 0));
+        state.rehash();
+        String before = describe(state);
+        UndoStack undo = new UndoStack();
+        assert !undo.make(state, Move.encode(Move.SUMMON, 1, -1)) : "Not enough mana";
+        assert undo.depth() == 0 && describe(state).equals(before);
+    }
+
+    // MctsStrategy keeps the moves along its path and only unmakes the last one when it is pruned
+    public void testClearKeepsMoves() {
+        Random random = new Random(24);
+        UndoStack undo = new UndoStack();
+        int[] moves = new int[Move.MAX_MOVES];
+        for (int round = 0; round < 300; round++) {
+            PackedState state = TranspositionTableTest.randomState(random);
+            int count = Move.generate(state, moves);
+            if (count < 3) {
+                continue;
+            }
+            undo.make(state, moves[1]);
+            undo.clear();
+            assert undo.depth() == 0;
+            String kept = describe(state);
+            if (undo.make(state, moves[2])) {
+                undo.unmake(state);
+            }
+            assert describe(state).equals(kept) : "Round " + round + ": unmake should stop at the cleared move";
+        }
+    }
+}
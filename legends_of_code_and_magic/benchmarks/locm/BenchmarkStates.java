@@ -0,0 +1,75 @@
+package locm;
+
+import java.util.*;
+
+// Seeded hands and boards built from CardPool for the JMH benchmarks
+class BenchmarkStates {
+    private final Random random;
+    private int nextInstanceId = 1;
+
+    BenchmarkStates(long seed) {
+        this.random = new Random(seed);
+    }
+
+    Card randomCard(boolean creatureOnly) {
+        int cardNumber = 1 + random.nextInt(creatureOnly ? 116 : CardPool.SIZE);
+        return CardPool.create(cardNumber, nextInstanceId++);
+    }
+
+    // Mid-game battle turn: 4-8 cards in hand, 2-6 creatures per board and 3-12 mana
+    PackedState battleState() {
+        PackedState state = new PackedState();
+        state.health[0] = 10 + random.nextInt(21);
+        state.health[1] = 10 + random.nextInt(21);
+        state.rune[0] = nextRune(state.health[0]);
+        state.rune[1] = nextRune(state.health[1]);
+        state.mana[0] = 3 + random.nextInt(10);
+        state.deck[0] = state.deck[1] = 15;
+        for (int i = 4 + random.nextInt(5); i > 0; i--) {
+            state.addToHand(randomCard(false));
+        }
+        for (int side = 0; side < 2; side++) {
+            for (int i = 2 + random.nextInt(5); i > 0; i--) {
+                int slot = state.addToBoard(side, randomCard(true));
+                state.canAttack[slot] = side == 0;
+            }
+        }
+        state.opponentHandCount = 5;
+        state.rehash();
+        return state;
+    }
+
+    // Highest rune still standing: the runes sit at 25, 20, ... 5 and break once health drops to them
+    static int nextRune(int health) {
+        return Math.min(25, (health - 1) / 5 * 5);
+    }
+
+    // Six creatures on each side, all of ours ready to attack
+    PackedState fullBoardState() {
+        PackedState state = battleState();
+        for (int side = 0; side < 2; side++) {
+            while (state.boardCount[side] < PackedState.BOARD_SIZE) {
+                int slot = state.addToBoard(side, randomCard(true));
+                state.canAttack[slot] = side == 0;
+            }
+        }
+        state.rehash();
+        return state;
+    }
+
+    // Draft turn: three offered cards and a deck that is already partly drafted
+    PackedState draftState(Hand deck, int picked) {
+        PackedState state = new PackedState();
+        state.health[0] = state.health[1] = 30;
+        state.rune[0] = state.rune[1] = 25;
+        state.deck[0] = state.deck[1] = picked;
+        for (int i = 0; i < picked; i++) {
+            deck.addCard(randomCard(false));
+        }
+        for (int i = 0; i < 3; i++) {
+            state.addToHand(randomCard(false));
+        }
+        state.rehash();
+        return state;
+    }
+}
@@ -0,0 +1,90 @@
+package locm;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// GameState.readGameState against the Scanner stand-in for the old parser, on the captured turns of
+// TurnParserBenchmark.
+// readTurn reads into one GameState whose battle cards persist in its CardTracker, like Player does.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({ "draft", "early", "late" })
+    String turn;
+
+    boolean isDraftTurn;
+    InputReader reader;
+    Scanner scanner;
+    GameState previous;
+    GameState persistent;
+
+    // Replays the same turn forever so the parsers never hit end of input
+    static class CyclingInputStream extends InputStream {
+        private final byte[] bytes;
+        private int position;
+
+        CyclingInputStream(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            int b = bytes[position];
+            position = (position + 1) % bytes.length;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = Math.min(length, bytes.length - position);
+            System.arraycopy(bytes, position, buffer, offset, count);
+            position = (position + count) % bytes.length;
+            return count;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        String input;
+        switch (turn) {
+            case "draft":
+                input = TurnParserBenchmark.DRAFT_TURN;
+                break;
+            case "early":
+                input = TurnParserBenchmark.EARLY_BATTLE_TURN;
+                break;
+            default:
+                input = TurnParserBenchmark.LATE_BATTLE_TURN;
+                break;
+        }
+        isDraftTurn = turn.equals("draft");
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        reader = new InputReader(new CyclingInputStream(bytes));
+        scanner = new Scanner(new CyclingInputStream(bytes));
+        persistent = GameState.readGameState(new InputReader(new CyclingInputStream(bytes)), isDraftTurn);
+    }
+
+    @Benchmark
+    public GameState readGameState() {
+        previous = GameState.readGameState(reader, isDraftTurn, previous);
+        return previous;
+    }
+
+    @Benchmark
+    public GameState readTurn() {
+        persistent.readTurn(reader, isDraftTurn);
+        return persistent;
+    }
+
+    @Benchmark
+    public GameState scannerReadGameState() {
+        return ScannerStandInParser.readGameState(scanner, isDraftTurn, new Hand());
+    }
+}
@@ -0,0 +1,190 @@
+package locm;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Search components on generated mid-game states. Run with -prof gc to check the allocation rates:
+// planSummons and planBeamTurn should stay at about 0 B/op.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    static final int STATES = 64;
+    static final int DFS_DEPTH = 3;
+    static final int LAYER_ROWS = 512; // about one BeamPlanner layer at the default width
+
+    @Param({ "1" })
+    long seed;
+
+    PackedState[] battleStates;
+    PackedState[] fullBoards;
+    AttackOptimizer attackOptimizer;
+    SummonPlanner summonPlanner;
+    BeamPlanner beamPlanner;
+    LethalSolver lethalSolver;
+    FeatureEvaluator featureEvaluator;
+    FeatureEvaluator.Batch batch;
+    FeatureEvaluator.Batch layerBatch;
+    double[] scores;
+    double[] layerScores;
+    PackedState[] copies;
+    int[][] layerMoves;
+    UndoStack undo;
+    PackedState mutable;
+    MoveList line;
+    int[] moves;
+    int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkStates generator = new BenchmarkStates(seed);
+        battleStates = new PackedState[STATES];
+        fullBoards = new PackedState[STATES];
+        for (int i = 0; i < STATES; i++) {
+            battleStates[i] = generator.battleState();
+            fullBoards[i] = generator.fullBoardState();
+        }
+        attackOptimizer = new AttackOptimizer();
+        summonPlanner = new SummonPlanner();
+        moves = new int[PackedState.HAND_SIZE];
+        beamPlanner = new BeamPlanner(BeamStrategy.DEFAULT_WIDTH);
+        line = new MoveList();
+        lethalSolver = new LethalSolver();
+        featureEvaluator = new FeatureEvaluator();
+        batch = new FeatureEvaluator.Batch(STATES);
+        for (PackedState state : battleStates) {
+            batch.add(state);
+        }
+        scores = new double[STATES];
+        layerBatch = new FeatureEvaluator.Batch(LAYER_ROWS);
+        for (int i = 0; i < LAYER_ROWS; i++) {
+            layerBatch.add(battleStates[i % STATES]);
+        }
+        layerScores = new double[LAYER_ROWS];
+        copies = new PackedState[DFS_DEPTH + 1];
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = new PackedState();
+        }
+        layerMoves = new int[DFS_DEPTH][Move.MAX_MOVES];
+        undo = new UndoStack();
+        mutable = new PackedState();
+    }
+
+    private int next() {
+        index = (index + 1) & (STATES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public ArrayList<AttackAction> optimizeAttacks() {
+        return attackOptimizer.optimize(battleStates[next()]);
+    }
+
+    @Benchmark
+    public ArrayList<AttackAction> optimizeAttacksFullBoard() {
+        return attackOptimizer.optimize(fullBoards[next()]);
+    }
+
+    @Benchmark
+    public int planSummons() {
+        return summonPlanner.plan(battleStates[next()], moves);
+    }
+
+    @Benchmark
+    public double planBeamTurn() {
+        return beamPlanner.plan(battleStates[next()], line);
+    }
+
+    @Benchmark
+    public double planBeamTurnFullBoard() {
+        return beamPlanner.plan(fullBoards[next()], line);
+    }
+
+    // Mostly settled by the damage bound, the search only runs when the bound reaches the opponent's health
+    @Benchmark
+    public int solveLethal() {
+        return lethalSolver.solve(battleStates[next()], line);
+    }
+
+    // Leaf scoring for all STATES states: BoardEvaluator one by one, then FeatureEvaluator with and without
+    // the feature extraction
+    @Benchmark
+    public double evaluateStates() {
+        double sum = 0;
+        for (PackedState state : battleStates) {
+            sum += BoardEvaluator.evaluate(state);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double[] extractAndScoreBatch() {
+        batch.clear();
+        for (PackedState state : battleStates) {
+            batch.add(state);
+        }
+        featureEvaluator.score(batch, scores);
+        return scores;
+    }
+
+    // The column loops of FeatureEvaluator.score; -jvmArgsAppend -XX:-UseSuperWord turns off C2's
+    // auto-vectorization of them for comparison
+    @Benchmark
+    public double[] scoreBatch() {
+        featureEvaluator.score(batch, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public double[] scoreLayerBatch() {
+        featureEvaluator.score(layerBatch, layerScores);
+        return layerScores;
+    }
+
+    // Every move sequence DFS_DEPTH deep, with a copy of the state per level or make/unmake on one state
+    @Benchmark
+    public int depthFirstWithCopies() {
+        battleStates[next()].copyInto(copies[0]);
+        return depthFirstCopies(0);
+    }
+
+    private int depthFirstCopies(int depth) {
+        if (depth == DFS_DEPTH) {
+            return 1;
+        }
+        int leaves = 0;
+        int count = Move.generate(copies[depth], layerMoves[depth]);
+        for (int m = 1; m < count; m++) {
+            copies[depth].copyInto(copies[depth + 1]);
+            if (Move.apply(copies[depth + 1], layerMoves[depth][m])) {
+                leaves += depthFirstCopies(depth + 1);
+            }
+        }
+        return leaves;
+    }
+
+    @Benchmark
+    public int depthFirstMakeUnmake() {
+        battleStates[next()].copyInto(mutable);
+        return depthFirstUndo(0);
+    }
+
+    private int depthFirstUndo(int depth) {
+        if (depth == DFS_DEPTH) {
+            return 1;
+        }
+        int leaves = 0;
+        int count = Move.generate(mutable, layerMoves[depth]);
+        for (int m = 1; m < count; m++) {
+            if (undo.make(mutable, layerMoves[depth][m])) {
+                leaves += depthFirstUndo(depth + 1);
+                undo.unmake(mutable);
+            }
+        }
+        return leaves;
+    }
+}
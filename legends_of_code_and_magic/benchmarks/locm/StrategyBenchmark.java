@@ -0,0 +1,127 @@
+package locm;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Hot paths of BronzeStrategy on generated mid-game states. chooseAttacks and chooseDrafts mutate their
+// input, so those benchmarks rebuild the GameState first; buildGameState measures that cost on its own.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+    static final int STATES = 64;
+
+    @Param({ "1" })
+    long seed;
+
+    PackedState[] battleStates;
+    GameState[] battleGameStates;
+    PackedState[] draftStates;
+    Hand[] draftDecks;
+    GameState[] draftGameStates;
+    Card[] cards;
+    BronzeStrategy strategy;
+    CurveDraftStrategy curveStrategy;
+    int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkStates generator = new BenchmarkStates(seed);
+        battleStates = new PackedState[STATES];
+        battleGameStates = new GameState[STATES];
+        draftStates = new PackedState[STATES];
+        draftDecks = new Hand[STATES];
+        for (int i = 0; i < STATES; i++) {
+            battleStates[i] = generator.battleState();
+            battleGameStates[i] = GameState.fromPacked(battleStates[i], new Hand());
+            draftDecks[i] = new Hand();
+            draftStates[i] = generator.draftState(draftDecks[i], i % 30);
+        }
+        draftGameStates = new GameState[STATES];
+        for (int i = 0; i < STATES; i++) {
+            draftGameStates[i] = GameState.fromPacked(draftStates[i], draftDecks[i]);
+        }
+        cards = new Card[STATES];
+        for (int i = 0; i < STATES; i++) {
+            cards[i] = generator.randomCard(false);
+        }
+        strategy = new BronzeStrategy();
+        curveStrategy = new CurveDraftStrategy();
+    }
+
+    private int next() {
+        index = (index + 1) & (STATES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public GameState buildGameState() {
+        return GameState.fromPacked(battleStates[next()], new Hand());
+    }
+
+    @Benchmark
+    public ArrayList<SummonAction> chooseSummons() {
+        return strategy.chooseSummons(battleGameStates[next()]);
+    }
+
+    @Benchmark
+    public ArrayList<AttackAction> chooseAttacks() {
+        return strategy.chooseAttacks(GameState.fromPacked(battleStates[next()], new Hand()));
+    }
+
+    @Benchmark
+    public Action chooseDrafts() {
+        int i = next();
+        Hand deck = new Hand();
+        for (int c = 0; c < draftDecks[i].size(); c++) {
+            deck.addCard(draftDecks[i].getCard(c));
+        }
+        return strategy.chooseDrafts(GameState.fromPacked(draftStates[i], deck));
+    }
+
+    @Benchmark
+    public void getDraftScore(Blackhole blackhole) {
+        int i = next();
+        GameState gameState = GameState.fromPacked(draftStates[i], draftDecks[i]);
+        for (int c = 0; c < gameState.playerHand.size(); c++) {
+            blackhole.consume(strategy.getDraftScore(gameState.playerHand.getCard(c), gameState));
+        }
+    }
+
+    // Scores the three choices of a prepared draft state, without building the GameState
+    @Benchmark
+    public void scoreDraftChoices(Blackhole blackhole) {
+        GameState gameState = draftGameStates[next()];
+        for (int c = 0; c < gameState.playerHand.size(); c++) {
+            blackhole.consume(strategy.getDraftScore(gameState.playerHand.getCard(c), gameState));
+        }
+    }
+
+    @Benchmark
+    public void scoreDraftChoicesWithCurve(Blackhole blackhole) {
+        GameState gameState = draftGameStates[next()];
+        for (int c = 0; c < gameState.playerHand.size(); c++) {
+            blackhole.consume(curveStrategy.getDraftScore(gameState.playerHand.getCard(c), gameState));
+        }
+    }
+
+    @Benchmark
+    public double getCardScore() {
+        return strategy.getCardScore(cards[next()]);
+    }
+
+    @Benchmark
+    public double computeCardScore() {
+        return strategy.computeCardScore(cards[next()]);
+    }
+
+    @Benchmark
+    public Optional<Card> opponentHighestScoreCard() {
+        return battleGameStates[next()].opponentHighestScoreCard(strategy);
+    }
+}